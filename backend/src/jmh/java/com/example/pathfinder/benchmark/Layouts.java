@@ -0,0 +1,48 @@
+package com.example.pathfinder.benchmark;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.service.MazeService;
+
+import java.util.SplittableRandom;
+
+// Grid layouts shared by the benchmarks: a binary-tree maze, or an open field with a given
+// share of randomly placed walls. Searches run corner to corner.
+final class Layouts {
+    static final String MAZE = "MAZE";
+    static final String OPEN = "OPEN";
+    static final String WALLS_20 = "WALLS_20";
+    static final String WALLS_35 = "WALLS_35";
+
+    private Layouts() {}
+
+    static MazeGrid build(String layout, int size) {
+        return switch (layout) {
+            case MAZE -> new MazeService().generateBinaryTreeMazeOnly(size, size, start(size), end(size)).getGrid();
+            case OPEN -> field(size, 0.0);
+            case WALLS_20 -> field(size, 0.20);
+            case WALLS_35 -> field(size, 0.35);
+            default -> throw new IllegalArgumentException("Unknown layout: " + layout);
+        };
+    }
+
+    static Position start(int size) {
+        return new Position(1, 1);
+    }
+
+    static Position end(int size) {
+        return new Position(size - 2, size - 2);
+    }
+
+    // Fixed seed so every fork and every run sees the same walls
+    private static MazeGrid field(int size, double density) {
+        SplittableRandom random = new SplittableRandom(42);
+        MazeGrid.Builder grid = MazeGrid.builder(size, size);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                grid.setWall(r, c, random.nextDouble() < density);
+            }
+        }
+        return grid.build();
+    }
+}
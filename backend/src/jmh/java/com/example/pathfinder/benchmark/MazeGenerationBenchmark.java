@@ -0,0 +1,43 @@
+package com.example.pathfinder.benchmark;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.service.MazeService;
+import com.example.pathfinder.service.MazeService.MazeGenerationResult;
+import com.example.pathfinder.service.MazeStepStreamWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Binary-tree generation with full animation steps, final maze only, and streamed steps
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class MazeGenerationBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    public int size;
+
+    private final MazeService service = new MazeService();
+
+    @Benchmark
+    public MazeGenerationResult withSteps() {
+        return service.generateBinaryTreeMaze(size, size, Layouts.start(size), Layouts.end(size));
+    }
+
+    @Benchmark
+    public MazeGenerationResult finalMazeOnly() {
+        return service.generateBinaryTreeMazeOnly(size, size, Layouts.start(size), Layouts.end(size));
+    }
+
+    @Benchmark
+    public MazeGrid streamed() {
+        MazeStepStreamWriter writer = new MazeStepStreamWriter(OutputStream.nullOutputStream(), size, size, 4096);
+        MazeGrid grid = service.generateBinaryTreeMaze(size, size, Layouts.start(size), Layouts.end(size), writer);
+        writer.finish("benchmark");
+        return grid;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.pathfinder.benchmark;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.GridResponse;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.service.CorridorPathfinder;
+import com.example.pathfinder.service.Heuristic;
+import com.example.pathfinder.service.HierarchicalPathfinder;
+import com.example.pathfinder.service.PathfindingService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// One corner-to-corner search per invocation, for every algorithm on every layout.
+// search measures the core alone; gridResponse adds building the Tile response on top.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class PathfindingBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    public int size;
+
+    @Param({Layouts.MAZE, Layouts.OPEN, Layouts.WALLS_20, Layouts.WALLS_35})
+    public String layout;
+
+    @Param({"DIJKSTRA", "A_STAR", "BFS", "DFS", "JPS", "BIDIRECTIONAL_BFS", "BIDIRECTIONAL_A_STAR", "HPA_STAR", "CORRIDOR_A_STAR"})
+    public Algorithm algorithm;
+
+    private PathfindingService service;
+    private MazeGrid grid;
+    private Position start;
+    private Position end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new PathfindingService();
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder();
+        ReflectionTestUtils.setField(service, "hierarchicalPathfinder", hierarchical);
+        CorridorPathfinder corridors = new CorridorPathfinder();
+        ReflectionTestUtils.setField(service, "corridorPathfinder", corridors);
+        grid = Layouts.build(layout, size);
+        start = Layouts.start(size);
+        end = Layouts.end(size);
+        // Cluster and corridor graphs are built once per maze, outside the measured queries
+        if (algorithm == Algorithm.HPA_STAR) {
+            hierarchical.preprocess(grid, HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE);
+        }
+        if (algorithm == Algorithm.CORRIDOR_A_STAR) {
+            corridors.preprocess(grid, CorridorPathfinder.DEFAULT_PRUNE_DEAD_ENDS);
+        }
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        return service.search(algorithm, grid, start, end, Heuristic.MANHATTAN, 1.0);
+    }
+
+    @Benchmark
+    public GridResponse gridResponse() {
+        return service.toGridResponse(search());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.pathfinder.benchmark;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.CompactEncoding;
+import com.example.pathfinder.model.GridResponse;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.model.Tile;
+import com.example.pathfinder.service.Heuristic;
+import com.example.pathfinder.service.PathfindingService;
+import com.example.pathfinder.service.ResponseEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of turning a finished BFS into bytes on the wire, per response format, plus the
+// Tile[][] <-> MazeGrid conversions. Sizes stop at 1000: Tile parent chains are serialized
+// recursively, so much longer paths overflow Jackson's stack.
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-Xss16m"})
+@State(Scope.Benchmark)
+public class ResponseBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({Layouts.MAZE, Layouts.OPEN, Layouts.WALLS_20})
+    public String layout;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final PathfindingService service = new PathfindingService();
+    private MazeGrid grid;
+    private Tile[][] tiles;
+    private SearchResult result;
+    private GridResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = Layouts.build(layout, size);
+        tiles = grid.toTiles();
+        result = service.search(Algorithm.BFS, grid, Layouts.start(size), Layouts.end(size), Heuristic.MANHATTAN, 1.0);
+        response = service.toGridResponse(result);
+    }
+
+    @Benchmark
+    public byte[] jacksonGridResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] jacksonCompact() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(ResponseEncoder.toCompact(result, size, CompactEncoding.DELTA));
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return ResponseEncoder.toBinary(result, size);
+    }
+
+    @Benchmark
+    public MazeGrid fromTiles() {
+        return MazeGrid.fromTiles(tiles);
+    }
+
+    @Benchmark
+    public Tile[][] toTiles() {
+        return grid.toTiles();
+    }
+}
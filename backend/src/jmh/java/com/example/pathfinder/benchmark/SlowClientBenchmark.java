@@ -0,0 +1,133 @@
+package com.example.pathfinder.benchmark;
+
+import com.example.pathfinder.PathFindingApplication;
+import com.example.pathfinder.service.ResponseEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Load test against the running application: search latency over HTTP while slowClients
+// connections upload a batch request body one byte every few seconds, each keeping a request
+// thread blocked in the body read. On Tomcat's 200 platform threads, more slow clients than
+// that leave searches queued until they time out (recorded as TIMEOUT_SECONDS); on virtual
+// threads (Java 21+, virtualThreads=true) slow clients only park their own thread and searches
+// keep their latency. Searches run on the search pool either way, so the measuring threads
+// compete for cores rather than request threads. Run with
+// -Djmh.args="SlowClientBenchmark" and compare the slowClients rows per virtualThreads value.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(8)
+@State(Scope.Benchmark)
+public class SlowClientBenchmark {
+    private static final int TIMEOUT_SECONDS = 5;
+    private static final Pattern MAZE_ID = Pattern.compile("\"mazeId\":\"([^\"]+)\"");
+
+    @Param({"0", "100", "1000"})
+    public int slowClients;
+
+    @Param({"true", "false"})
+    public boolean virtualThreads;
+
+    @Param({"501"})
+    public int size;
+
+    private ConfigurableApplicationContext app;
+    private HttpClient client;
+    private HttpRequest search;
+    private final List<Socket> slow = new ArrayList<>();
+    private ScheduledExecutorService drip;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        app = new SpringApplicationBuilder(PathFindingApplication.class).run(
+                "--server.port=0",
+                "--pathfinder.virtual-threads.enabled=" + virtualThreads,
+                "--pathfinder.cache.max-bytes=0", // every request searches
+                "--pathfinder.metrics.sample-rate=0",
+                "--pathfinder.admission.max-queued=100000",
+                "--logging.level.root=WARN");
+        int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        int last = size - 2;
+        HttpResponse<String> maze = client.send(HttpRequest.newBuilder(URI.create(base + "/api/maze/PRIM?rows=" + size
+                        + "&cols=" + size + "&startRow=1&startCol=1&endRow=" + last + "&endCol=" + last + "&steps=false&seed=1"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        Matcher id = MAZE_ID.matcher(maze.body());
+        if (!id.find()) throw new IllegalStateException("Maze generation failed: " + maze.statusCode());
+        search = HttpRequest.newBuilder(URI.create(base + "/api/pathfinding?algorithm=A_STAR&rows=" + size + "&cols=" + size
+                        + "&startX=1&startY=1&endX=" + last + "&endY=" + last + "&mazeId=" + id.group(1)))
+                .header("Accept", ResponseEncoder.COMPACT_JSON_VALUE)
+                .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .build();
+
+        byte[] headers = ("POST /api/pathfinding/batch HTTP/1.1\r\nHost: localhost\r\n"
+                + "Content-Type: application/json\r\nContent-Length: 1000000\r\n\r\n{").getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < slowClients; i++) {
+            Socket socket = new Socket("localhost", port);
+            socket.getOutputStream().write(headers);
+            slow.add(socket);
+        }
+        // Whitespace keeps the JSON valid and each connection inside Tomcat's read timeout
+        drip = Executors.newSingleThreadScheduledExecutor();
+        drip.scheduleAtFixedRate(() -> {
+            for (Socket socket : slow) {
+                try {
+                    OutputStream out = socket.getOutputStream();
+                    out.write(' ');
+                    out.flush();
+                } catch (IOException e) {
+                    // dropped by the server; the rest keep going
+                }
+            }
+        }, 2, 2, TimeUnit.SECONDS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        drip.shutdownNow();
+        drip.awaitTermination(10, TimeUnit.SECONDS);
+        for (Socket socket : slow) {
+            socket.close();
+        }
+        slow.clear();
+        app.close();
+    }
+
+    // Response bytes, or -1 when the search timed out waiting
+    @Benchmark
+    public int search() throws Exception {
+        try {
+            HttpResponse<byte[]> response = client.send(search, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Search failed with status " + response.statusCode());
+            }
+            return response.body().length;
+        } catch (HttpTimeoutException e) {
+            return -1;
+        }
+    }
+}
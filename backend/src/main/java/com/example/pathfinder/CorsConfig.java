@@ -1,5 +1,6 @@
 package com.example.pathfinder;
 
+import com.example.pathfinder.controller.PathFinderController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -14,8 +15,9 @@ public class CorsConfig {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/api/**")
                         .allowedOrigins("http://localhost:5173") // Your frontend origin
-                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders(PathFinderController.SEARCH_LIMIT_HEADER, PathFinderController.MAZE_SEED_HEADER)
                         .allowCredentials(true);
             }
         };
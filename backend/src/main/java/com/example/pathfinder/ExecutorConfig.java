@@ -0,0 +1,90 @@
+package com.example.pathfinder;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class ExecutorConfig implements WebMvcConfigurer, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    // One virtual thread per task on Java 21+, null on older JDKs or when turned off
+    private final ExecutorService virtualThreads;
+    // Writes streaming bodies
+    private final AsyncTaskExecutor streamExecutor;
+
+    public ExecutorConfig(@Value("${pathfinder.virtual-threads.enabled:true}") boolean enabled,
+                          @Value("${server.tomcat.threads.max:200}") int maxThreads) {
+        this.virtualThreads = enabled ? newVirtualThreadExecutor() : null;
+        if (virtualThreads != null) {
+            this.streamExecutor = new TaskExecutorAdapter(virtualThreads);
+        } else {
+            if (enabled) {
+                logger.info("Virtual threads need Java 21; requests run on Tomcat's thread pool.");
+            }
+            // Without virtual threads, as many stream writers as Tomcat has request threads
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(maxThreads);
+            pool.setAllowCoreThreadTimeOut(true);
+            pool.setThreadNamePrefix("stream-");
+            pool.initialize();
+            this.streamExecutor = pool;
+        }
+    }
+
+    // Bounded pool for CPU-bound searches; each worker thread keeps its own SearchScratch.
+    // pathfinder.search.parallelism defaults to one thread per core.
+    @Bean(destroyMethod = "shutdown")
+    ForkJoinPool searchPool(@Value("${pathfinder.search.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+
+    // Requests are handled on virtual threads, so clients that send or read slowly only park
+    // their own thread instead of holding one of Tomcat's server.tomcat.threads.max
+    @Bean
+    TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequests() {
+        return handler -> {
+            if (virtualThreads != null) handler.setExecutor(virtualThreads);
+        };
+    }
+
+    // Streaming bodies are written on virtual threads too. The searchPool bean stops Spring Boot
+    // from creating its own task executor, so one is always set here.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        if (virtualThreads != null) virtualThreads.shutdown();
+        if (streamExecutor instanceof ThreadPoolTaskExecutor pool) pool.shutdown();
+    }
+
+    // Looked up reflectively so the build keeps targeting Java 17; on Java 19 and 20 the method
+    // is a preview feature, so those are skipped
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (Runtime.version().feature() < 21) return null;
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +0,0 @@
-package com.example.pathfinder.controller;
-
-public enum Algorithm {
-    DIJKSTRA, A_STAR, BFS, DFS
-}
\ No newline at end of file
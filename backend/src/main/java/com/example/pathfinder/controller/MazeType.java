@@ -1,5 +0,0 @@
-package com.example.pathfinder.controller;
-
-public enum MazeType {
-    BINARY_TREE
-}
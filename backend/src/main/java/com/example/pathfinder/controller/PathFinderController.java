@@ -1,25 +1,68 @@
 // Fixed Controller with proper CORS and error handling
 package com.example.pathfinder.controller;
 
-import com.example.pathfinder.model.GridResponse;
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.BatchQuery;
+import com.example.pathfinder.model.BatchRequest;
+import com.example.pathfinder.model.CacheStats;
+import com.example.pathfinder.model.CompactEncoding;
+import com.example.pathfinder.model.CorridorStats;
+import com.example.pathfinder.model.CostChange;
+import com.example.pathfinder.model.DistanceField;
+import com.example.pathfinder.model.DistanceGridResponse;
+import com.example.pathfinder.model.HierarchyStats;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.MazeType;
+import com.example.pathfinder.model.Movement;
 import com.example.pathfinder.model.Position;
-import com.example.pathfinder.model.Tile;
+import com.example.pathfinder.model.Reachability;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.model.WallChange;
+import com.example.pathfinder.model.WallEditResponse;
+import com.example.pathfinder.repository.MazeRepository;
+import com.example.pathfinder.service.BatchPathfindingService;
+import com.example.pathfinder.service.CorridorPathfinder;
+import com.example.pathfinder.service.DistanceFieldService;
+import com.example.pathfinder.service.Heuristic;
+import com.example.pathfinder.service.HierarchicalPathfinder;
 import com.example.pathfinder.service.MazeService;
 import com.example.pathfinder.service.MazeService.MazeGenerationResult;
+import com.example.pathfinder.service.MazeService.WallEditResult;
+import com.example.pathfinder.service.MazeStepStreamWriter;
+import com.example.pathfinder.service.PathResultCache;
 import com.example.pathfinder.service.PathfindingService;
+import com.example.pathfinder.service.ResponseEncoder;
+import com.example.pathfinder.service.SearchAdmission;
+import com.example.pathfinder.service.SearchBudget;
+import com.example.pathfinder.service.SearchExecutor;
+import com.example.pathfinder.service.SearchQuery;
+import com.example.pathfinder.service.TraversalStreamWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api")
 public class PathFinderController {
     
-    private Tile[][] latestMazeGrid; // Store last generated maze
     private static final Logger logger = LoggerFactory.getLogger(PathFinderController.class);
+    private static final int MAX_BATCH_SIZE = 1 << 16;
+    private static final int MAX_BATCH_QUERIES = 10_000;
+    private static final int MAX_WALL_CHANGES = 100_000;
+    private static final MediaType COMPACT_JSON = MediaType.parseMediaType(ResponseEncoder.COMPACT_JSON_VALUE);
+    // Set to the SearchLimit when a budget cut the result short
+    public static final String SEARCH_LIMIT_HEADER = "X-Search-Limit";
+    // Seed a streamed maze is generated from, so it can be regenerated
+    public static final String MAZE_SEED_HEADER = "X-Maze-Seed";
 
     @Autowired
     private PathfindingService pathfindingService;
@@ -27,43 +70,272 @@ public class PathFinderController {
     @Autowired
     private MazeService mazeService;
 
-    // Pathfinding Algorithm Endpoint
+    @Autowired
+    private MazeRepository mazeRepository;
+
+    @Autowired
+    private HierarchicalPathfinder hierarchicalPathfinder;
+
+    @Autowired
+    private CorridorPathfinder corridorPathfinder;
+
+    @Autowired
+    private BatchPathfindingService batchPathfindingService;
+
+    @Autowired
+    private SearchAdmission searchAdmission;
+
+    @Autowired
+    private SearchExecutor searchExecutor;
+
+    @Autowired
+    private DistanceFieldService distanceFieldService;
+
+    @Autowired
+    private PathResultCache resultCache;
+
+    // Pathfinding Algorithm Endpoint. The Accept header picks the response format: Tile lists
+    // (default JSON), flat cell indices (compact JSON) or the binary form from ResponseEncoder.
+    // Start and end are checked against the stored maze, which also fixes the grid size.
     @GetMapping("/pathfinding")
-    public GridResponse getPath(@RequestParam String algorithm,
-                                @RequestParam int rows,
-                                @RequestParam int cols,
-                                @RequestParam int startX,
-                                @RequestParam int startY,
-                                @RequestParam int endX,
-                                @RequestParam int endY) {
-
-        logger.info("Pathfinding request: algorithm={}, rows={}, cols={}, start=({}, {}), end=({}, {})",
-                algorithm, rows, cols, startX, startY, endX, endY);
-
-        validateGridParameters(rows, cols, startX, startY, endX, endY);
-        if (latestMazeGrid == null) {
-            throw new IllegalStateException("No maze has been generated yet.");
-        }
-        Tile[][] grid = deepCopyGrid(latestMazeGrid);
-        Tile start = grid[startY][startX];
-        Tile end = grid[endY][endX];
-        start.setWall(false);
-        end.setWall(false);
-
-        Algorithm algo;
+    public ResponseEntity<?> getPath(@RequestParam String algorithm,
+                                     @RequestParam int startX,
+                                     @RequestParam int startY,
+                                     @RequestParam int endX,
+                                     @RequestParam int endY,
+                                     @RequestParam(required = false) String mazeId,
+                                     @RequestParam(defaultValue = "MANHATTAN") String heuristic,
+                                     @RequestParam(defaultValue = "1.0") double weight,
+                                     @RequestParam(defaultValue = "FOUR") String movement,
+                                     @RequestParam(defaultValue = "DELTA") String encoding,
+                                     @RequestParam(required = false) Integer maxNodes,
+                                     @RequestParam(required = false) Long timeoutMs,
+                                     @RequestParam(required = false) Integer maxResponseCells,
+                                     @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+
+        logger.info("Pathfinding request: algorithm={}, maze={}, start=({}, {}), end=({}, {})",
+                algorithm, mazeId, startX, startY, endX, endY);
+
+        MazeGrid grid = findMaze(mazeId);
+        validateGridParameters(grid.getRows(), grid.getCols(), startX, startY, endX, endY);
+        // Start and end are always treated as open; the stored maze itself is never modified
+        Position start = new Position(startY, startX);
+        Position end = new Position(endY, endX);
+
+        Algorithm algo = parseEnum(Algorithm.class, algorithm, "algorithm");
+        Heuristic estimate = parseEnum(Heuristic.class, heuristic, "heuristic");
+        SearchQuery query = new SearchQuery(algo, start, end, estimate, weight, parseEnum(Movement.class, movement, "movement"));
+        SearchBudget budget = searchAdmission.budget(maxNodes, timeoutMs, maxResponseCells);
+        SearchResult searched;
+        SearchAdmission.Permit permit = searchAdmission.admit();
         try {
-            algo = Algorithm.valueOf(algorithm.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid algorithm: " + algorithm);
+            searched = resultCache.getOrCompute(grid, query,
+                    () -> searchExecutor.call(() -> pathfindingService.search(grid, query, budget)));
+        } finally {
+            permit.close();
         }
+        SearchResult result = PathfindingService.limitResponse(searched, budget.getMaxResponseCells());
 
-        return switch (algo) {
-            case DIJKSTRA -> pathfindingService.runDijkstra(grid, start, end);
-            case A_STAR -> pathfindingService.runAStar(grid, start, end);
-            case BFS -> pathfindingService.runBFS(grid, start, end);
-            case DFS -> pathfindingService.runDFS(grid, start, end);
-    };
-}
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.getLimitReached() != null) {
+            response.header(SEARCH_LIMIT_HEADER, result.getLimitReached().name());
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        if (accepts(accepted, COMPACT_JSON)) {
+            CompactEncoding layout = parseEnum(CompactEncoding.class, encoding, "encoding");
+            return response.contentType(COMPACT_JSON)
+                    .body(ResponseEncoder.toCompact(result, grid.getRows(), layout));
+        }
+        if (accepts(accepted, MediaType.APPLICATION_OCTET_STREAM)) {
+            return response.contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(ResponseEncoder.toBinary(result, grid.getRows()));
+        }
+        return response.body(pathfindingService.toGridResponse(result));
+    }
+
+    // Many queries on one maze in a single round trip, run in parallel across cores. Results
+    // are in query order, as Tile lists or (when the client accepts it) compact JSON.
+    @PostMapping("/pathfinding/batch")
+    public ResponseEntity<?> getPaths(@RequestBody BatchRequest request,
+                                      @RequestParam(defaultValue = "DELTA") String encoding,
+                                      @RequestParam(required = false) Integer maxNodes,
+                                      @RequestParam(required = false) Long timeoutMs,
+                                      @RequestParam(required = false) Integer maxResponseCells,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+
+        List<BatchQuery> queries = request.getQueries();
+        if (queries == null || queries.isEmpty() || queries.size() > MAX_BATCH_QUERIES) {
+            throw new IllegalArgumentException("A batch needs between 1 and " + MAX_BATCH_QUERIES + " queries.");
+        }
+        logger.info("Batch pathfinding request: maze={}, queries={}", request.getMazeId(), queries.size());
+
+        MazeGrid grid = findMaze(request.getMazeId());
+        List<SearchQuery> searches = new ArrayList<>(queries.size());
+        for (BatchQuery query : queries) {
+            validateGridParameters(grid.getRows(), grid.getCols(), query.getStartX(), query.getStartY(), query.getEndX(), query.getEndY());
+            PathfindingService.checkWeight(query.getWeight());
+            searches.add(new SearchQuery(parseEnum(Algorithm.class, query.getAlgorithm(), "algorithm"),
+                    new Position(query.getStartY(), query.getStartX()), new Position(query.getEndY(), query.getEndX()),
+                    parseEnum(Heuristic.class, query.getHeuristic(), "heuristic"), query.getWeight(),
+                    parseEnum(Movement.class, query.getMovement(), "movement")));
+        }
+        SearchBudget budget = searchAdmission.budget(maxNodes, timeoutMs, maxResponseCells);
+        List<SearchResult> results;
+        SearchAdmission.Permit permit = searchAdmission.admit();
+        try {
+            results = batchPathfindingService.searchAll(grid, searches, budget);
+        } finally {
+            permit.close();
+        }
+
+        if (accepts(MediaType.parseMediaTypes(accept), COMPACT_JSON)) {
+            CompactEncoding layout = parseEnum(CompactEncoding.class, encoding, "encoding");
+            return ResponseEntity.ok().contentType(COMPACT_JSON)
+                    .body(results.stream().map(result -> ResponseEncoder.toCompact(result, grid.getRows(), layout)).toList());
+        }
+        return ResponseEntity.ok(results.stream().map(pathfindingService::toGridResponse).toList());
+    }
+
+    // Distance from one source to every cell, for heatmaps; the field is cached per (maze, source).
+    // The response has a value per cell and can't be cut short, so mazes with more cells than
+    // maxResponseCells, or more open cells than maxNodes, are refused with 400.
+    @GetMapping("/pathfinding/field")
+    public DistanceGridResponse getDistanceField(@RequestParam int startX,
+                                                 @RequestParam int startY,
+                                                 @RequestParam(required = false) String mazeId,
+                                                 @RequestParam(required = false) Integer maxNodes,
+                                                 @RequestParam(required = false) Integer maxResponseCells) {
+        MazeGrid grid = findMaze(mazeId);
+        validateGridParameters(grid.getRows(), grid.getCols(), startX, startY, startX, startY);
+        SearchBudget budget = searchAdmission.budget(maxNodes, null, maxResponseCells);
+        if (grid.size() > budget.getMaxResponseCells()) {
+            throw new IllegalArgumentException("A distance field of this maze has " + grid.size()
+                    + " cells, more than the response limit of " + budget.getMaxResponseCells() + ".");
+        }
+        DistanceField field;
+        SearchAdmission.Permit permit = searchAdmission.admit();
+        try {
+            field = searchExecutor.call(() -> distanceFieldService.field(grid, new Position(startY, startX), budget));
+        } finally {
+            permit.close();
+        }
+        return new DistanceGridResponse(grid.getRows(), grid.getCols(), field.getSource(),
+                field.getMaxDistance(), field.toDistanceGrid());
+    }
+
+    // Whether end is reachable from start, answered by a bit-parallel flood fill instead of a search
+    @GetMapping("/pathfinding/reachable")
+    public Reachability getReachability(@RequestParam int startX,
+                                        @RequestParam int startY,
+                                        @RequestParam int endX,
+                                        @RequestParam int endY,
+                                        @RequestParam(required = false) String mazeId) {
+        MazeGrid grid = findMaze(mazeId);
+        validateGridParameters(grid.getRows(), grid.getCols(), startX, startY, endX, endY);
+        SearchAdmission.Permit permit = searchAdmission.admit();
+        try {
+            return searchExecutor.call(() -> pathfindingService.reachability(grid, new Position(startY, startX), new Position(endY, endX)));
+        } finally {
+            permit.close();
+        }
+    }
+
+    // Shortest paths from one start to many ends (endX and endY as comma-separated lists),
+    // all read off one cached distance field
+    @GetMapping("/pathfinding/targets")
+    public ResponseEntity<?> getPathsToTargets(@RequestParam int startX,
+                                               @RequestParam int startY,
+                                               @RequestParam List<Integer> endX,
+                                               @RequestParam List<Integer> endY,
+                                               @RequestParam(required = false) String mazeId,
+                                               @RequestParam(defaultValue = "DELTA") String encoding,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+
+        if (endX.size() != endY.size() || endX.size() > MAX_BATCH_QUERIES) {
+            throw new IllegalArgumentException("endX and endY need the same number of values, at most " + MAX_BATCH_QUERIES + ".");
+        }
+        MazeGrid grid = findMaze(mazeId);
+        for (int i = 0; i < endX.size(); i++) {
+            validateGridParameters(grid.getRows(), grid.getCols(), startX, startY, endX.get(i), endY.get(i));
+        }
+        SearchBudget budget = searchAdmission.budget(null, null, null);
+        List<SearchResult> results;
+        SearchAdmission.Permit permit = searchAdmission.admit();
+        try {
+            results = searchExecutor.call(() -> {
+                DistanceField field = distanceFieldService.field(grid, new Position(startY, startX), budget);
+                List<SearchResult> paths = new ArrayList<>(endX.size());
+                for (int i = 0; i < endX.size(); i++) {
+                    paths.add(distanceFieldService.pathTo(field, new Position(endY.get(i), endX.get(i))));
+                }
+                return paths;
+            });
+        } finally {
+            permit.close();
+        }
+
+        if (accepts(MediaType.parseMediaTypes(accept), COMPACT_JSON)) {
+            CompactEncoding layout = parseEnum(CompactEncoding.class, encoding, "encoding");
+            return ResponseEntity.ok().contentType(COMPACT_JSON)
+                    .body(results.stream().map(result -> ResponseEncoder.toCompact(result, grid.getRows(), layout)).toList());
+        }
+        return ResponseEntity.ok(results.stream().map(pathfindingService::toGridResponse).toList());
+    }
+
+    // Streams traversal progress in batches while the search runs, then the path. Sends
+    // server-sent events when the client accepts text/event-stream, NDJSON otherwise.
+    @GetMapping("/pathfinding/stream")
+    public ResponseEntity<StreamingResponseBody> streamPath(@RequestParam String algorithm,
+                                                            @RequestParam int startX,
+                                                            @RequestParam int startY,
+                                                            @RequestParam int endX,
+                                                            @RequestParam int endY,
+                                                            @RequestParam(required = false) String mazeId,
+                                                            @RequestParam(defaultValue = "MANHATTAN") String heuristic,
+                                                            @RequestParam(defaultValue = "1.0") double weight,
+                                                            @RequestParam(defaultValue = "FOUR") String movement,
+                                                            @RequestParam(defaultValue = "512") int batchSize,
+                                                            @RequestParam(required = false) Integer maxNodes,
+                                                            @RequestParam(required = false) Long timeoutMs,
+                                                            @RequestParam(required = false) Integer maxResponseCells,
+                                                            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = TraversalStreamWriter.NDJSON_VALUE) String accept) {
+
+        logger.info("Streaming pathfinding request: algorithm={}, maze={}, start=({}, {}), end=({}, {}), batchSize={}",
+                algorithm, mazeId, startX, startY, endX, endY, batchSize);
+
+        MazeGrid grid = findMaze(mazeId);
+        validateGridParameters(grid.getRows(), grid.getCols(), startX, startY, endX, endY);
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + MAX_BATCH_SIZE + ".");
+        }
+        Position start = new Position(startY, startX);
+        Position end = new Position(endY, endX);
+        Algorithm algo = parseEnum(Algorithm.class, algorithm, "algorithm");
+        Heuristic estimate = parseEnum(Heuristic.class, heuristic, "heuristic");
+        SearchQuery query = new SearchQuery(algo, start, end, estimate, weight, parseEnum(Movement.class, movement, "movement"));
+        // Fail before the 200 goes out rather than mid-stream
+        PathfindingService.checkWeight(weight);
+        PathfindingService.checkSupported(algo, grid, query.getMovement());
+
+        SearchBudget budget = searchAdmission.budget(maxNodes, timeoutMs, maxResponseCells);
+
+        boolean sse = accepts(MediaType.parseMediaTypes(accept), MediaType.TEXT_EVENT_STREAM);
+        // Admitted before the 200 goes out, so an overloaded server can still answer 503; the
+        // permit is held until the stream is written
+        SearchAdmission.Permit permit = searchAdmission.admitStream();
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                searchExecutor.stream(out, worker -> {
+                    TraversalStreamWriter writer = new TraversalStreamWriter(worker, sse);
+                    writer.grid(grid.getRows(), grid.getCols());
+                    writer.path(pathfindingService.stream(grid, query, batchSize, writer, budget));
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(sse ? MediaType.TEXT_EVENT_STREAM : MediaType.parseMediaType(TraversalStreamWriter.NDJSON_VALUE))
+                .body(body);
+    }
 
     // Maze Generation Unified Endpoint with better error handling
     @PostMapping("/maze/{mazeType}")
@@ -74,11 +346,22 @@ public class PathFinderController {
         @RequestParam int startRow,
         @RequestParam int startCol,
         @RequestParam int endRow,
-        @RequestParam int endCol
+        @RequestParam int endCol,
+        @RequestParam(defaultValue = "false") boolean hierarchical,
+        @RequestParam(defaultValue = "" + HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE) int clusterSize,
+        @RequestParam(defaultValue = "false") boolean corridors,
+        @RequestParam(defaultValue = "" + CorridorPathfinder.DEFAULT_PRUNE_DEAD_ENDS) boolean pruneDeadEnds,
+        @RequestParam(defaultValue = "true") boolean steps,
+        @RequestParam(required = false) Long seed
     ) {
+        MazeType type = parseEnum(MazeType.class, mazeType, "maze type");
+        MazeService.checkSize(rows, cols);
+        if (hierarchical) {
+            HierarchicalPathfinder.checkClusterSize(clusterSize);
+        }
         try {
-            logger.info("Maze generation request: type={}, rows={}, cols={}, start=({}, {}), end=({}, {})",
-                    mazeType, rows, cols, startRow, startCol, endRow, endCol);
+            logger.info("Maze generation request: type={}, rows={}, cols={}, start=({}, {}), end=({}, {}), seed={}",
+                    mazeType, rows, cols, startRow, startCol, endRow, endCol, seed);
 
             // Validate parameters
             if (rows <= 0 || cols <= 0) {
@@ -95,22 +378,17 @@ public class PathFinderController {
 
             Position start = new Position(startRow, startCol);
             Position end = new Position(endRow, endCol);
+
+            // steps=false skips the animation steps and returns the final maze only. Without a
+            // seed one is picked at random and returned, so the maze can be regenerated.
+            long mazeSeed = seed != null ? seed : MazeService.newSeed();
+            MazeGenerationResult result = searchExecutor.call(() -> steps
+                    ? mazeService.generateMaze(type, rows, cols, start, end, mazeSeed)
+                    : mazeService.generateMazeOnly(type, rows, cols, start, end, mazeSeed));
+            result.setMazeId(store(result.getGrid(), hierarchical, clusterSize, corridors, pruneDeadEnds));
             
-            MazeGenerationResult result;
-            
-            if (null == mazeType) {
-                return ResponseEntity.badRequest().body("Invalid maze type: " + mazeType);
-            } else switch (mazeType) {
-                case "BINARY_TREE" ->{ result = mazeService.generateBinaryTreeMaze(rows, cols, start, end);
-                                      latestMazeGrid = result.getFinalMaze(); // Store the latest maze grid
-                                    }
-                default -> {
-                    return ResponseEntity.badRequest().body("Invalid maze type: " + mazeType);
-                }
-            }
-            
-            logger.info("Maze generation completed successfully. Steps: {}", 
-                       result.getAnimationSteps().size());
+            logger.info("Maze generation completed successfully. Id: {}, steps: {}",
+                       result.getMazeId(), result.getAnimationSteps().size());
             
             return ResponseEntity.ok(result);
             
@@ -121,11 +399,154 @@ public class PathFinderController {
         }
     }
 
+    // Streams generation steps as compact binary frames (see MazeStepStreamWriter) while the
+    // maze is generated; the last frame carries the id the finished maze is stored under, and
+    // the seed is returned in the MAZE_SEED_HEADER header
+    @PostMapping("/maze/{mazeType}/stream")
+    public ResponseEntity<StreamingResponseBody> streamMaze(@PathVariable String mazeType,
+                                                            @RequestParam int rows,
+                                                            @RequestParam int cols,
+                                                            @RequestParam int startRow,
+                                                            @RequestParam int startCol,
+                                                            @RequestParam int endRow,
+                                                            @RequestParam int endCol,
+                                                            @RequestParam(defaultValue = "false") boolean hierarchical,
+                                                            @RequestParam(defaultValue = "" + HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE) int clusterSize,
+                                                            @RequestParam(defaultValue = "false") boolean corridors,
+                                                            @RequestParam(defaultValue = "" + CorridorPathfinder.DEFAULT_PRUNE_DEAD_ENDS) boolean pruneDeadEnds,
+                                                            @RequestParam(defaultValue = "4096") int batchSize,
+                                                            @RequestParam(required = false) Long seed) {
+
+        long mazeSeed = seed != null ? seed : MazeService.newSeed();
+        logger.info("Streaming maze generation request: type={}, rows={}, cols={}, start=({}, {}), end=({}, {}), seed={}",
+                mazeType, rows, cols, startRow, startCol, endRow, endCol, mazeSeed);
+
+        MazeService.checkSize(rows, cols);
+        validateGridParameters(rows, cols, startCol, startRow, endCol, endRow);
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + MAX_BATCH_SIZE + ".");
+        }
+        if (hierarchical) {
+            HierarchicalPathfinder.checkClusterSize(clusterSize);
+        }
+        MazeType type = parseEnum(MazeType.class, mazeType, "maze type");
+        Position start = new Position(startRow, startCol);
+        Position end = new Position(endRow, endCol);
+
+        // Admitted like a streamed search, and held until the maze is stored
+        SearchAdmission.Permit permit = searchAdmission.admitStream();
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                MazeGrid[] generated = new MazeGrid[1];
+                searchExecutor.stream(out, worker -> {
+                    MazeStepStreamWriter writer = new MazeStepStreamWriter(worker, rows, cols, batchSize);
+                    generated[0] = mazeService.generateMaze(type, rows, cols, start, end, mazeSeed, writer);
+                    writer.finishSteps();
+                });
+                MazeStepStreamWriter.writeEnd(out, store(generated[0], hierarchical, clusterSize, corridors, pruneDeadEnds));
+            }
+        };
+        return ResponseEntity.ok()
+                .header(MAZE_SEED_HEADER, Long.toString(mazeSeed))
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    // Sets cells of a stored maze to walls or passages. The maze keeps its id but becomes a new
+    // snapshot; LPA_STAR queries on it then repair their previous search instead of restarting.
+    @PatchMapping("/maze/{mazeId}/walls")
+    public WallEditResponse editWalls(@PathVariable String mazeId, @RequestBody List<WallChange> changes) {
+        if (changes.size() > MAX_WALL_CHANGES) {
+            throw new IllegalArgumentException("At most " + MAX_WALL_CHANGES + " wall changes per request.");
+        }
+        MazeGrid grid = findMaze(mazeId);
+        WallEditResult edit = searchExecutor.call(() -> mazeService.applyWallChanges(grid, changes));
+        if (edit.getChangedCells().length > 0) {
+            mazeRepository.replace(mazeId, grid, edit.getGrid(), edit.getChangedCells());
+        }
+        logger.info("Maze {} edited: {} of {} wall changes applied", mazeId, edit.getChangedCells().length, changes.size());
+        return new WallEditResponse(mazeId, edit.getChangedCells().length);
+    }
+
+    // Sets the cost of entering cells of a stored maze (1 to 255); Dijkstra and A* then find the
+    // cheapest rather than the shortest path
+    @PatchMapping("/maze/{mazeId}/costs")
+    public WallEditResponse editCosts(@PathVariable String mazeId, @RequestBody List<CostChange> changes) {
+        if (changes.size() > MAX_WALL_CHANGES) {
+            throw new IllegalArgumentException("At most " + MAX_WALL_CHANGES + " cost changes per request.");
+        }
+        MazeGrid grid = findMaze(mazeId);
+        WallEditResult edit = searchExecutor.call(() -> mazeService.applyCostChanges(grid, changes));
+        if (edit.getChangedCells().length > 0) {
+            mazeRepository.replace(mazeId, grid, edit.getGrid(), edit.getChangedCells());
+        }
+        logger.info("Maze {} edited: {} of {} cost changes applied", mazeId, edit.getChangedCells().length, changes.size());
+        return new WallEditResponse(mazeId, edit.getChangedCells().length);
+    }
+
+    // Preprocessing cost and memory footprint of a maze's HPA* cluster graph
+    @GetMapping("/maze/{mazeId}/hierarchy")
+    public ResponseEntity<HierarchyStats> getHierarchyStats(@PathVariable String mazeId) {
+        return hierarchicalPathfinder.getStats(findMaze(mazeId))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Size and build cost of a maze's corridor graph, used by CORRIDOR_A_STAR
+    @GetMapping("/maze/{mazeId}/corridors")
+    public ResponseEntity<CorridorStats> getCorridorStats(@PathVariable String mazeId) {
+        return corridorPathfinder.getStats(findMaze(mazeId))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Hit, miss and eviction counters of the result cache
+    @GetMapping("/cache/stats")
+    public CacheStats getCacheStats() {
+        return resultCache.getStats();
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        resultCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Helper: Store a generated maze, with optional HPA* and corridor preprocessing for mazes that will serve many queries.
+    // Runs on the request thread, as saving may write the maze to disk; only the preprocessing goes to the search pool.
+    private String store(MazeGrid grid, boolean hierarchical, int clusterSize, boolean corridors, boolean pruneDeadEnds) {
+        String id = mazeRepository.save(grid);
+        if (hierarchical || corridors) {
+            searchExecutor.call(() -> {
+                if (hierarchical) {
+                    hierarchicalPathfinder.preprocess(grid, clusterSize);
+                }
+                if (corridors) {
+                    corridorPathfinder.preprocess(grid, pruneDeadEnds);
+                }
+                return null;
+            });
+        }
+        return id;
+    }
+
+    // Helper: Parse an enum request parameter case-insensitively
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // Helper: Only an explicit media type selects a non-default format, not a wildcard
+    private static boolean accepts(List<MediaType> accepted, MediaType type) {
+        return accepted.stream().anyMatch(type::equalsTypeAndSubtype);
+    }
+
     // Helper: Validate Grid Inputs
     private void validateGridParameters(int rows, int cols, int startX, int startY, int endX, int endY) {
-        if (rows <= 0 || cols <= 0) {
-            throw new IllegalArgumentException("Rows and columns must be greater than 0.");
-        }
+        MazeGrid.checkSize(rows, cols);
         if (startX < 0 || startX >= cols || startY < 0 || startY >= rows) {
             throw new IllegalArgumentException("Start coordinates out of bounds.");
         }
@@ -134,24 +555,15 @@ public class PathFinderController {
         }
     }
 
-    // Add row and col properties to copied tiles
-private Tile[][] deepCopyGrid(Tile[][] original) {
-    int rows = original.length;
-    int cols = original[0].length;
-    Tile[][] copy = new Tile[rows][cols];
-    for (int i = 0; i < rows; i++) {
-        for (int j = 0; j < cols; j++) {
-            Tile orig = original[i][j];
-            Tile t = new Tile(i, j); // Set correct row/col
-            t.setWall(orig.isWall);
-            // Initialize pathfinding properties
-            t.distance = Integer.MAX_VALUE;
-            t.isTraversed = false;
-            t.parent = null;
-            copy[i][j] = t;
+    // Helper: Resolve the requested maze, falling back to the most recently generated one
+    private MazeGrid findMaze(String mazeId) {
+        if (mazeId == null) {
+            mazeId = mazeRepository.findLatestId()
+                    .orElseThrow(() -> new IllegalStateException("No maze has been generated yet."));
         }
+        String id = mazeId;
+        return mazeRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown maze id: " + id));
     }
-    return copy;
-}
 
 }
\ No newline at end of file
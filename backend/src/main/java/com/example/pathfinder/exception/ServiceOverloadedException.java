@@ -0,0 +1,10 @@
+package com.example.pathfinder.exception;
+
+// Work turned away because the server is at capacity; answered with 503 and Retry-After
+public class ServiceOverloadedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
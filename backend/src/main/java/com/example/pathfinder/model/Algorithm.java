@@ -0,0 +1,5 @@
+package com.example.pathfinder.model;
+
+public enum Algorithm {
+    DIJKSTRA, A_STAR, BFS, DFS, JPS, BIDIRECTIONAL_BFS, BIDIRECTIONAL_A_STAR, HPA_STAR, LPA_STAR, PARALLEL_BFS, CORRIDOR_A_STAR
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.pathfinder.model;
+
+// One start/end pair of a batch request; coordinates follow GET /api/pathfinding (x = column)
+public class BatchQuery {
+    private String algorithm;
+    private int startX;
+    private int startY;
+    private int endX;
+    private int endY;
+    private String heuristic = "MANHATTAN";
+    private double weight = 1.0;
+    private String movement = "FOUR";
+
+    public String getAlgorithm() { return algorithm; }
+    public void setAlgorithm(String algorithm) { this.algorithm = algorithm; }
+    public int getStartX() { return startX; }
+    public void setStartX(int startX) { this.startX = startX; }
+    public int getStartY() { return startY; }
+    public void setStartY(int startY) { this.startY = startY; }
+    public int getEndX() { return endX; }
+    public void setEndX(int endX) { this.endX = endX; }
+    public int getEndY() { return endY; }
+    public void setEndY(int endY) { this.endY = endY; }
+    public String getHeuristic() { return heuristic; }
+    public void setHeuristic(String heuristic) { this.heuristic = heuristic; }
+    public double getWeight() { return weight; }
+    public void setWeight(double weight) { this.weight = weight; }
+    public String getMovement() { return movement; }
+    public void setMovement(String movement) { this.movement = movement; }
+}
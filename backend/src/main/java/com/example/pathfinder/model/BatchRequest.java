@@ -0,0 +1,14 @@
+package com.example.pathfinder.model;
+
+import java.util.List;
+
+// Many queries against one stored maze (the latest one when mazeId is omitted)
+public class BatchRequest {
+    private String mazeId;
+    private List<BatchQuery> queries;
+
+    public String getMazeId() { return mazeId; }
+    public void setMazeId(String mazeId) { this.mazeId = mazeId; }
+    public List<BatchQuery> getQueries() { return queries; }
+    public void setQueries(List<BatchQuery> queries) { this.queries = queries; }
+}
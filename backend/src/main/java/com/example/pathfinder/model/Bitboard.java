@@ -0,0 +1,273 @@
+package com.example.pathfinder.model;
+
+import java.util.Arrays;
+
+// Mutable set of cells, one bit each, in MazeGrid's layout: every row starts on a fresh 64-bit
+// word and bit c of word row * wordsPerRow + c / 64 is cell (row, col). Set operations, moving a
+// frontier one step and flood fill work on whole words, 64 cells at a time. Bits past the last
+// column are always clear.
+public final class Bitboard {
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long lastWordMask; // valid bits of each row's last word
+    private final long[] words;
+
+    public Bitboard(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.lastWordMask = -1L >>> (wordsPerRow * 64 - cols);
+        this.words = new long[rows * wordsPerRow];
+    }
+
+    // Cells that are walls in grid
+    public static Bitboard walls(MazeGrid grid) {
+        Bitboard board = new Bitboard(grid.getRows(), grid.getCols());
+        for (int i = 0; i < board.words.length; i++) {
+            board.words[i] = grid.wallWord(i);
+        }
+        return board;
+    }
+
+    // Cells that are not walls in grid
+    public static Bitboard open(MazeGrid grid) {
+        Bitboard board = new Bitboard(grid.getRows(), grid.getCols());
+        for (int i = 0; i < board.words.length; i++) {
+            board.words[i] = ~grid.wallWord(i);
+        }
+        board.clearPadding();
+        return board;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public boolean get(int row, int col) {
+        return (words[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public Bitboard set(int row, int col) {
+        words[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+        return this;
+    }
+
+    public Bitboard clear(int row, int col) {
+        words[row * wordsPerRow + (col >>> 6)] &= ~(1L << col);
+        return this;
+    }
+
+    public Bitboard copy() {
+        Bitboard copy = new Bitboard(rows, cols);
+        System.arraycopy(words, 0, copy.words, 0, words.length);
+        return copy;
+    }
+
+    public Bitboard and(Bitboard other) {
+        checkSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+        return this;
+    }
+
+    public Bitboard or(Bitboard other) {
+        checkSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    public Bitboard andNot(Bitboard other) {
+        checkSize(other);
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    // One BFS level: the cells of open that are 4-neighbors of this set and not in visited.
+    // With this set as the frontier at distance d, the result is the frontier at d + 1.
+    public Bitboard step(Bitboard open, Bitboard visited) {
+        checkSize(open);
+        checkSize(visited);
+        Bitboard next = new Bitboard(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            int base = r * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                int i = base + w;
+                long word = words[i];
+                long spread = word << 1 | word >>> 1;
+                if (w > 0) spread |= words[i - 1] >>> 63;
+                if (w + 1 < wordsPerRow) spread |= words[i + 1] << 63;
+                if (r > 0) spread |= words[i - wordsPerRow];
+                if (r + 1 < rows) spread |= words[i + wordsPerRow];
+                next.words[i] = spread & open.words[i] & ~visited.words[i];
+            }
+        }
+        return next;
+    }
+
+    // Grows this set to every cell of open it reaches through 4-connected open cells; cells of
+    // this set outside open are dropped first. Sweeps rows downwards and then upwards, each row
+    // taking in the open cells below or above reached cells of the row before it and filling
+    // its open runs left and right, until a pair of sweeps changes nothing. A sweep follows a
+    // path as far as it keeps going the sweep's way, so winding mazes need many sweeps; a row
+    // is only revisited when the row it pulls from has changed since, which keeps those cheap.
+    public Bitboard fill(Bitboard open) {
+        checkSize(open);
+        and(open);
+        int[] version = new int[rows];     // bumped whenever a row gains cells
+        int[] pulledDown = new int[rows];  // version of row r - 1 when row r last pulled from it
+        int[] pulledUp = new int[rows];    // version of row r + 1 when row r last pulled from it
+        Arrays.fill(pulledUp, -1);
+        // Rows changed by the last upward sweep; the first downward sweep visits every row
+        int lo = -1;
+        int hi = rows - 1;
+        boolean first = true;
+        while (true) {
+            int downLo = first ? 0 : rows;
+            int downHi = first ? rows - 1 : -1;
+            boolean previous = false; // whether the row above changed in this sweep
+            for (int r = lo + 1; r < rows; r++) {
+                if (!previous && r > hi + 1) break;
+                previous = false;
+                if (first || version[r - 1] != pulledDown[r]) {
+                    if (r > 0) pulledDown[r] = version[r - 1];
+                    if (fillRow(open, r, r - 1)) {
+                        version[r]++;
+                        previous = true;
+                        downLo = Math.min(downLo, r);
+                        downHi = Math.max(downHi, r);
+                    }
+                }
+            }
+            first = false;
+            if (downHi < 0) break;
+
+            lo = rows;
+            hi = -1;
+            previous = false;
+            for (int r = Math.min(downHi, rows - 1) - 1; r >= 0; r--) {
+                if (!previous && r < downLo - 1) break;
+                previous = false;
+                if (version[r + 1] != pulledUp[r]) {
+                    pulledUp[r] = version[r + 1];
+                    if (fillRow(open, r, r + 1)) {
+                        version[r]++;
+                        previous = true;
+                        lo = r;
+                        hi = Math.max(hi, r);
+                    }
+                }
+            }
+            if (hi < 0) break;
+        }
+        return this;
+    }
+
+    // Takes in row r's open cells next to reached cells of row from, if any, then fills its
+    // open runs towards higher columns and back, carrying across word boundaries. Returns
+    // whether row r gained cells.
+    private boolean fillRow(Bitboard open, int r, int from) {
+        int base = r * wordsPerRow;
+        int neighbor = from >= 0 && from < rows ? from * wordsPerRow : -1;
+        long[] mask = open.words;
+        boolean changed = false;
+        long carry = 0;
+        for (int w = 0; w < wordsPerRow; w++) {
+            long p = mask[base + w];
+            long old = words[base + w];
+            long g = old | (carry & p);
+            if (neighbor >= 0) g |= words[neighbor + w] & p;
+            g = fillUp(g, p);
+            words[base + w] = g;
+            changed |= g != old;
+            carry = g >>> 63;
+        }
+        carry = 0;
+        for (int w = wordsPerRow - 1; w >= 0; w--) {
+            long old = words[base + w];
+            long g = fillDown(old | ((carry << 63) & mask[base + w]), mask[base + w]);
+            words[base + w] = g;
+            changed |= g != old;
+            carry = g & 1;
+        }
+        return changed;
+    }
+
+    // Occluded fill: extends each set bit of g towards higher bits while the bits of p are set
+    // (g must be a subset of p), doubling the reach each round
+    private static long fillUp(long g, long p) {
+        g |= p & (g << 1);
+        p &= p << 1;
+        g |= p & (g << 2);
+        p &= p << 2;
+        g |= p & (g << 4);
+        p &= p << 4;
+        g |= p & (g << 8);
+        p &= p << 8;
+        g |= p & (g << 16);
+        p &= p << 16;
+        return g | (p & (g << 32));
+    }
+
+    private static long fillDown(long g, long p) {
+        g |= p & (g >>> 1);
+        p &= p >>> 1;
+        g |= p & (g >>> 2);
+        p &= p >>> 2;
+        g |= p & (g >>> 4);
+        p &= p >>> 4;
+        g |= p & (g >>> 8);
+        p &= p >>> 8;
+        g |= p & (g >>> 16);
+        p &= p >>> 16;
+        return g | (p & (g >>> 32));
+    }
+
+    private void clearPadding() {
+        for (int i = wordsPerRow - 1; i < words.length; i += wordsPerRow) {
+            words[i] &= lastWordMask;
+        }
+    }
+
+    private void checkSize(Bitboard other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("Bitboards differ in size: " + rows + "x" + cols
+                    + " and " + other.rows + "x" + other.cols + ".");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Bitboard other && other.rows == rows && other.cols == cols
+                && Arrays.equals(other.words, words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words) * 31 + cols;
+    }
+}
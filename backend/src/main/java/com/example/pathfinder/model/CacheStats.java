@@ -0,0 +1,30 @@
+package com.example.pathfinder.model;
+
+// Counters and current footprint of the pathfinding result cache
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long invalidations;
+    private final int entries;
+    private final long bytes;
+    private final long maxBytes;
+
+    public CacheStats(long hits, long misses, long evictions, long invalidations, int entries, long bytes, long maxBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.entries = entries;
+        this.bytes = bytes;
+        this.maxBytes = maxBytes;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public long getInvalidations() { return invalidations; }
+    public int getEntries() { return entries; }
+    public long getBytes() { return bytes; }
+    public long getMaxBytes() { return maxBytes; }
+}
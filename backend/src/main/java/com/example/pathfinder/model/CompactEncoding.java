@@ -0,0 +1,8 @@
+package com.example.pathfinder.model;
+
+// How CompactGridResponse lays out its cell index arrays
+public enum CompactEncoding {
+    PLAIN, // absolute cell indices
+    DELTA, // first index, then differences to the previous one
+    RLE    // DELTA values as (delta, repeat count) pairs; straight path runs collapse to one pair
+}
@@ -0,0 +1,27 @@
+package com.example.pathfinder.model;
+
+// Flat alternative to GridResponse: cells are indices row * cols + col instead of Tile objects
+public class CompactGridResponse {
+    public int rows;
+    public int cols;
+    public CompactEncoding encoding;
+    public boolean reached;
+    public int[] traversed;
+    public int[] path;
+    public SearchLimit limitReached;
+
+    public CompactGridResponse(int rows, int cols, CompactEncoding encoding, boolean reached, int[] traversed, int[] path) {
+        this(rows, cols, encoding, reached, traversed, path, null);
+    }
+
+    public CompactGridResponse(int rows, int cols, CompactEncoding encoding, boolean reached, int[] traversed, int[] path,
+                               SearchLimit limitReached) {
+        this.rows = rows;
+        this.cols = cols;
+        this.encoding = encoding;
+        this.reached = reached;
+        this.traversed = traversed;
+        this.path = path;
+        this.limitReached = limitReached;
+    }
+}
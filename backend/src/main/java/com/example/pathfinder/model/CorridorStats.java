@@ -0,0 +1,32 @@
+package com.example.pathfinder.model;
+
+// Size and build cost of a maze's corridor graph: junction and dead-end nodes joined by corridors.
+// compressed is false for mazes with too many junctions, which are searched cell by cell instead.
+public class CorridorStats {
+    private final boolean compressed;
+    private final int openCells;
+    private final int nodes;
+    private final int corridors;
+    private final int prunedNodes;
+    private final long estimatedBytes;
+    private final double buildMillis;
+
+    public CorridorStats(boolean compressed, int openCells, int nodes, int corridors, int prunedNodes,
+                         long estimatedBytes, double buildMillis) {
+        this.compressed = compressed;
+        this.openCells = openCells;
+        this.nodes = nodes;
+        this.corridors = corridors;
+        this.prunedNodes = prunedNodes;
+        this.estimatedBytes = estimatedBytes;
+        this.buildMillis = buildMillis;
+    }
+
+    public boolean isCompressed() { return compressed; }
+    public int getOpenCells() { return openCells; }
+    public int getNodes() { return nodes; }
+    public int getCorridors() { return corridors; }
+    public int getPrunedNodes() { return prunedNodes; }
+    public long getEstimatedBytes() { return estimatedBytes; }
+    public double getBuildMillis() { return buildMillis; }
+}
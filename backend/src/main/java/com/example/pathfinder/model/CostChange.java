@@ -0,0 +1,15 @@
+package com.example.pathfinder.model;
+
+// Sets the cost of entering one cell of a stored maze, 1 to MazeGrid.MAX_COST
+public class CostChange {
+    private int row;
+    private int col;
+    private int cost;
+
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+    public int getCol() { return col; }
+    public void setCol(int col) { this.col = col; }
+    public int getCost() { return cost; }
+    public void setCost(int cost) { this.cost = cost; }
+}
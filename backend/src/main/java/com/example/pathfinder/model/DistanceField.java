@@ -0,0 +1,87 @@
+package com.example.pathfinder.model;
+
+// Distances from one source to every cell of a maze, with the step that reached each cell,
+// from a single flood. Paths to any number of targets are then read off in O(path length).
+// Distances are the summed costs of the cells entered, so steps on unweighted mazes.
+public final class DistanceField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int[] ROW_STEPS = {0, 1, 0, -1};
+    private static final int[] COL_STEPS = {1, 0, -1, 0};
+
+    private final MazeGrid grid;
+    private final int source;
+    private final int[] distance;
+    private final byte[] arrivedBy; // direction index of the step into each cell, -1 for none
+    private final int maxDistance;
+
+    public DistanceField(MazeGrid grid, int source, int[] distance, byte[] arrivedBy, int maxDistance) {
+        this.grid = grid;
+        this.source = source;
+        this.distance = distance;
+        this.arrivedBy = arrivedBy;
+        this.maxDistance = maxDistance;
+    }
+
+    public MazeGrid getGrid() { return grid; }
+    public int getSource() { return source; }
+    public int getMaxDistance() { return maxDistance; }
+
+    public int distance(int cell) {
+        return distance[cell];
+    }
+
+    public int predecessor(int cell) {
+        int d = arrivedBy[cell];
+        return d < 0 ? -1 : cell - ROW_STEPS[d] * grid.getCols() - COL_STEPS[d];
+    }
+
+    // Heatmap view: distance per cell in row-major order, -1 where the source can't reach
+    public int[] toDistanceGrid() {
+        int[] grid = new int[distance.length];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = distance[i] == UNREACHABLE ? -1 : distance[i];
+        }
+        return grid;
+    }
+
+    // Path from the source to target by walking predecessors; traversed stays empty. A walled
+    // target is entered from its closest open neighbor, as the searches treat the end cell.
+    public SearchResult pathTo(int target) {
+        int cols = grid.getCols();
+        int last = target;
+        int dist = distance[target];
+        if (dist == UNREACHABLE && grid.isWall(target)) {
+            int row = target / cols;
+            int col = target - row * cols;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + ROW_STEPS[d];
+                int newCol = col + COL_STEPS[d];
+                if (grid.inBounds(newRow, newCol)) {
+                    int neighbor = newRow * cols + newCol;
+                    if (distance[neighbor] != UNREACHABLE && distance[neighbor] + grid.cost(target) < dist) {
+                        dist = distance[neighbor] + grid.cost(target);
+                        last = neighbor;
+                    }
+                }
+            }
+        }
+        int[] none = new int[0];
+        if (dist == UNREACHABLE) {
+            return new SearchResult(cols, none, none, none, new int[] {target}, new int[] {UNREACHABLE}, false, 0, 0);
+        }
+        int length = last == target ? 1 : 2;
+        for (int cell = last; predecessor(cell) >= 0; cell = predecessor(cell)) {
+            length++;
+        }
+        int[] path = new int[length];
+        int[] pathDistance = new int[length];
+        path[length - 1] = target;
+        pathDistance[length - 1] = dist;
+        int i = last == target ? length - 1 : length - 2;
+        for (int cell = last; cell >= 0; cell = predecessor(cell)) {
+            path[i] = cell;
+            pathDistance[i--] = distance[cell];
+        }
+        return new SearchResult(cols, none, none, none, path, pathDistance, true, 0, 0);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.pathfinder.model;
+
+// Heatmap of a distance field: distances in row-major order, -1 for unreachable cells
+public class DistanceGridResponse {
+    public int rows;
+    public int cols;
+    public int source;
+    public int maxDistance;
+    public int[] distances;
+
+    public DistanceGridResponse(int rows, int cols, int source, int maxDistance, int[] distances) {
+        this.rows = rows;
+        this.cols = cols;
+        this.source = source;
+        this.maxDistance = maxDistance;
+        this.distances = distances;
+    }
+}
@@ -5,10 +5,16 @@ import java.util.List;
 public class GridResponse {
     public List<Tile> traversedTiles;
     public List<Tile> path;
+    public SearchLimit limitReached; // null unless a search budget cut the result short
 
     public GridResponse(List<Tile> traversedTiles, List<Tile> path) {
+        this(traversedTiles, path, null);
+    }
+
+    public GridResponse(List<Tile> traversedTiles, List<Tile> path, SearchLimit limitReached) {
         this.traversedTiles = traversedTiles;
         this.path = path;
+        this.limitReached = limitReached;
     }
 }
 
@@ -0,0 +1,24 @@
+package com.example.pathfinder.model;
+
+// Size and build cost of a maze's precomputed cluster graph (HPA* abstraction)
+public class HierarchyStats {
+    private final int clusterSize;
+    private final int nodes;
+    private final int edges;
+    private final long estimatedBytes;
+    private final double buildMillis;
+
+    public HierarchyStats(int clusterSize, int nodes, int edges, long estimatedBytes, double buildMillis) {
+        this.clusterSize = clusterSize;
+        this.nodes = nodes;
+        this.edges = edges;
+        this.estimatedBytes = estimatedBytes;
+        this.buildMillis = buildMillis;
+    }
+
+    public int getClusterSize() { return clusterSize; }
+    public int getNodes() { return nodes; }
+    public int getEdges() { return edges; }
+    public long getEstimatedBytes() { return estimatedBytes; }
+    public double getBuildMillis() { return buildMillis; }
+}
@@ -0,0 +1,311 @@
+package com.example.pathfinder.model;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+// Packed, read-only maze: one wall bit per cell, each row aligned to whole 64-bit words, plus
+// an optional unsigned byte per cell with the cost of entering it (absent when all cost 1).
+// Cells are addressed either by (row, col) or by the flat index row * cols + col.
+// The words and costs live either in heap arrays or in buffers mapped from a maze file.
+public final class MazeGrid {
+    public static final int MAX_COST = 255;
+
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long[] walls;          // null when mapped
+    private final LongBuffer wallBuffer; // null unless mapped
+    private final byte[] costs;          // null when every cell costs 1, or when mapped
+    private final ByteBuffer costBuffer; // null unless mapped with costs
+    private final int maxCost;
+    private long contentHash; // computed on first use; 0 until then
+
+    private MazeGrid(int rows, int cols, long[] walls, byte[] costs) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = wordsPerRow(cols);
+        this.walls = walls;
+        this.wallBuffer = null;
+        this.costs = costs;
+        this.costBuffer = null;
+        int max = 1;
+        if (costs != null) {
+            for (byte cost : costs) {
+                max = Math.max(max, cost & 0xFF);
+            }
+        }
+        this.maxCost = max;
+    }
+
+    private MazeGrid(int rows, int cols, LongBuffer walls, ByteBuffer costs, int maxCost, long contentHash) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = wordsPerRow(cols);
+        this.walls = null;
+        this.wallBuffer = walls;
+        this.costs = null;
+        this.costBuffer = costs;
+        this.maxCost = maxCost;
+        this.contentHash = contentHash;
+    }
+
+    public static MazeGrid fromTiles(Tile[][] grid) {
+        int rows = grid.length;
+        int cols = grid[0].length;
+        checkSize(rows, cols);
+        int stride = wordsPerRow(cols);
+        long[] walls = new long[rows * stride];
+        byte[] costs = null;
+        for (int r = 0; r < rows; r++) {
+            Tile[] row = grid[r];
+            for (int c = 0; c < cols; c++) {
+                if (row[c].isWall) {
+                    walls[r * stride + (c >>> 6)] |= 1L << c;
+                }
+                if (row[c].weight != 1) {
+                    if (costs == null) {
+                        costs = new byte[rows * cols];
+                        Arrays.fill(costs, (byte) 1);
+                    }
+                    costs[r * cols + c] = checkCost(row[c].weight);
+                }
+            }
+        }
+        return new MazeGrid(rows, cols, walls, costs);
+    }
+
+    // Grid over wall words (and cost bytes, or null) in this class's layout, read back from storage
+    public static MazeGrid of(int rows, int cols, long[] walls, byte[] costs) {
+        checkLayout(rows, cols, walls.length, costs == null ? -1 : costs.length);
+        return new MazeGrid(rows, cols, walls, costs);
+    }
+
+    // Grid reading straight from buffers, e.g. mapped from a file; nothing is copied. maxCost and
+    // contentHash must be the values the heap copy would have (a contentHash of 0 is recomputed).
+    public static MazeGrid mapped(int rows, int cols, LongBuffer walls, ByteBuffer costs, int maxCost, long contentHash) {
+        checkLayout(rows, cols, walls.capacity(), costs == null ? -1 : costs.capacity());
+        return new MazeGrid(rows, cols, walls, costs, maxCost, contentHash);
+    }
+
+    public static Builder builder(int rows, int cols) {
+        return new Builder(rows, cols);
+    }
+
+    // Builder starting from this maze's walls, for edited snapshots
+    public Builder toBuilder() {
+        Builder builder = new Builder(rows, cols);
+        if (walls != null) {
+            System.arraycopy(walls, 0, builder.walls, 0, walls.length);
+            builder.costs = costs == null ? null : costs.clone();
+        } else {
+            wallBuffer.get(0, builder.walls);
+            if (costBuffer != null) {
+                builder.costs = new byte[rows * cols];
+                costBuffer.get(0, builder.costs);
+            }
+        }
+        return builder;
+    }
+
+    // Tile view for clients that animate on Tile objects
+    public Tile[][] toTiles() {
+        Tile[][] tiles = new Tile[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                tiles[r][c] = new Tile(r, c);
+                tiles[r][c].isWall = isWall(r, c);
+                tiles[r][c].weight = cost(r * cols + c);
+            }
+        }
+        return tiles;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int size() {
+        return rows * cols;
+    }
+
+    public int index(int row, int col) {
+        return row * cols + col;
+    }
+
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    public boolean isWall(int row, int col) {
+        return (wallWord(row * wordsPerRow + (col >>> 6)) & (1L << col)) != 0;
+    }
+
+    public boolean isWall(int index) {
+        int row = index / cols;
+        return isWall(row, index - row * cols);
+    }
+
+    // Cost of entering the cell, 1 to MAX_COST
+    public int cost(int index) {
+        if (costs != null) return costs[index] & 0xFF;
+        return costBuffer == null ? 1 : costBuffer.get(index) & 0xFF;
+    }
+
+    public boolean isWeighted() {
+        return costs != null || costBuffer != null;
+    }
+
+    public boolean isMapped() {
+        return wallBuffer != null;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    // Raw bitset word; bit c of word row * wordsPerRow + c / 64 is cell (row, c)
+    public long wallWord(int index) {
+        return walls != null ? walls[index] : wallBuffer.get(index);
+    }
+
+    // Cells that aren't walls, counted a word at a time
+    public int openCells() {
+        int walls = 0;
+        for (int i = 0; i < rows * wordsPerRow; i++) {
+            walls += Long.bitCount(wallWord(i));
+        }
+        return size() - walls;
+    }
+
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    // 64-bit hash of the dimensions, walls and costs, so equal mazes share cached results.
+    // Costs go in eight bytes per word, mixed like the wall words.
+    public long contentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            hash = mix(rows * 31L + cols);
+            int words = rows * wordsPerRow;
+            for (int i = 0; i < words; i++) {
+                hash = mix(hash * 0x9E3779B97F4A7C15L + wallWord(i));
+            }
+            if (isWeighted()) {
+                int size = rows * cols;
+                for (int i = 0; i < size; i += 8) {
+                    long packed = 0;
+                    for (int j = i; j < Math.min(i + 8, size); j++) {
+                        packed = packed << 8 | cost(j);
+                    }
+                    hash = mix(hash * 0x9E3779B97F4A7C15L + packed);
+                }
+                hash = mix(hash + size);
+            }
+            hash = hash == 0 ? 1 : hash;
+            contentHash = hash; // racy but idempotent
+        }
+        return hash;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static byte checkCost(int cost) {
+        if (cost < 1 || cost > MAX_COST) {
+            throw new IllegalArgumentException("Cell cost must be between 1 and " + MAX_COST + ".");
+        }
+        return (byte) cost;
+    }
+
+    // Cells are addressed by an int index, so rows * cols must fit in one
+    public static void checkSize(int rows, int cols) {
+        if (!validSize(rows, cols)) {
+            throw new IllegalArgumentException("A maze must have at least one row and column and at most "
+                    + Integer.MAX_VALUE + " cells, not " + rows + "x" + cols + ".");
+        }
+    }
+
+    private static boolean validSize(int rows, int cols) {
+        return rows > 0 && cols > 0 && (long) rows * cols <= Integer.MAX_VALUE;
+    }
+
+    private static void checkLayout(int rows, int cols, int wordCount, int costCount) {
+        if (!validSize(rows, cols)
+                || wordCount != (long) rows * wordsPerRow(cols)
+                || (costCount >= 0 && costCount != rows * cols)) {
+            throw new IllegalArgumentException("Stored maze doesn't match its " + rows + "x" + cols + " size.");
+        }
+    }
+
+    private static int wordsPerRow(int cols) {
+        return (cols + 63) >>> 6;
+    }
+
+    // Mutable wall bitset with the same layout, for generators; build() takes a snapshot
+    public static final class Builder {
+        private final int rows;
+        private final int cols;
+        private final int stride;
+        private final long[] walls;
+        private byte[] costs; // allocated by the first cost other than 1
+
+        private Builder(int rows, int cols) {
+            checkSize(rows, cols);
+            this.rows = rows;
+            this.cols = cols;
+            this.stride = wordsPerRow(cols);
+            this.walls = new long[rows * stride];
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getCols() {
+            return cols;
+        }
+
+        public Builder setWall(int row, int col, boolean wall) {
+            if (wall) {
+                walls[row * stride + (col >>> 6)] |= 1L << col;
+            } else {
+                walls[row * stride + (col >>> 6)] &= ~(1L << col);
+            }
+            return this;
+        }
+
+        public boolean isWall(int row, int col) {
+            return (walls[row * stride + (col >>> 6)] & (1L << col)) != 0;
+        }
+
+        public Builder setCost(int row, int col, int cost) {
+            byte value = checkCost(cost);
+            if (costs == null) {
+                if (cost == 1) return this;
+                costs = new byte[rows * cols];
+                Arrays.fill(costs, (byte) 1);
+            }
+            costs[row * cols + col] = value;
+            return this;
+        }
+
+        public int cost(int row, int col) {
+            return costs == null ? 1 : costs[row * cols + col] & 0xFF;
+        }
+
+        public MazeGrid build() {
+            return new MazeGrid(rows, cols, walls.clone(), costs == null ? null : costs.clone());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.pathfinder.model;
+
+public enum MazeType {
+    BINARY_TREE,
+    RECURSIVE_DIVISION,
+    PRIM,
+    KRUSKAL,
+    WILSON,
+    ELLER
+}
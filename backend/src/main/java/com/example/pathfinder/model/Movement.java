@@ -0,0 +1,8 @@
+package com.example.pathfinder.model;
+
+// Neighborhood used by the cost-aware searches. With EIGHT, straight steps cost 10 and diagonal
+// steps 14 (times the cell cost), and a diagonal step is only allowed when both cells it
+// passes between are open, so paths never cut a wall corner.
+public enum Movement {
+    FOUR, EIGHT
+}
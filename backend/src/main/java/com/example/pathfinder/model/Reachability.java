@@ -0,0 +1,18 @@
+package com.example.pathfinder.model;
+
+// Whether end can be reached from start, and how much of the maze start's region covers
+public class Reachability {
+    private final boolean reachable;
+    private final int reachableCells;
+    private final int openCells;
+
+    public Reachability(boolean reachable, int reachableCells, int openCells) {
+        this.reachable = reachable;
+        this.reachableCells = reachableCells;
+        this.openCells = openCells;
+    }
+
+    public boolean isReachable() { return reachable; }
+    public int getReachableCells() { return reachableCells; }
+    public int getOpenCells() { return openCells; }
+}
@@ -0,0 +1,8 @@
+package com.example.pathfinder.model;
+
+// Budget a search ran out of. NODES and DEADLINE stop the search early, leaving the cells
+// traversed so far and, if the end wasn't reached, the path to the traversed cell nearest to
+// it. RESPONSE_SIZE keeps the complete search but returns only part of its traversed cells.
+public enum SearchLimit {
+    NODES, DEADLINE, RESPONSE_SIZE
+}
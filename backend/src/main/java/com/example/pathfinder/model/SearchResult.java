@@ -0,0 +1,48 @@
+package com.example.pathfinder.model;
+
+// Outcome of a search over a MazeGrid, expressed as flat cell indices (row * cols + col).
+// traversedParent holds the position of each traversed cell's parent within traversed, or -1.
+// limitReached is null for a complete result.
+public class SearchResult {
+    private final int cols;
+    private final int[] traversed;
+    private final int[] traversedDistance;
+    private final int[] traversedParent;
+    private final int[] path;
+    private final int[] pathDistance;
+    private final boolean reached;
+    private final int queuePushes; // inserts and decrease-keys
+    private final int queuePops;
+    private final SearchLimit limitReached;
+
+    public SearchResult(int cols, int[] traversed, int[] traversedDistance, int[] traversedParent,
+                        int[] path, int[] pathDistance, boolean reached, int queuePushes, int queuePops) {
+        this(cols, traversed, traversedDistance, traversedParent, path, pathDistance, reached, queuePushes, queuePops, null);
+    }
+
+    public SearchResult(int cols, int[] traversed, int[] traversedDistance, int[] traversedParent,
+                        int[] path, int[] pathDistance, boolean reached, int queuePushes, int queuePops,
+                        SearchLimit limitReached) {
+        this.cols = cols;
+        this.traversed = traversed;
+        this.traversedDistance = traversedDistance;
+        this.traversedParent = traversedParent;
+        this.path = path;
+        this.pathDistance = pathDistance;
+        this.reached = reached;
+        this.queuePushes = queuePushes;
+        this.queuePops = queuePops;
+        this.limitReached = limitReached;
+    }
+
+    public int getCols() { return cols; }
+    public int[] getTraversed() { return traversed; }
+    public int[] getTraversedDistance() { return traversedDistance; }
+    public int[] getTraversedParent() { return traversedParent; }
+    public int[] getPath() { return path; }
+    public int[] getPathDistance() { return pathDistance; }
+    public boolean isReached() { return reached; }
+    public int getQueuePushes() { return queuePushes; }
+    public int getQueuePops() { return queuePops; }
+    public SearchLimit getLimitReached() { return limitReached; }
+}
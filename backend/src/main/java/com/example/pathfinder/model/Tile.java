@@ -7,6 +7,7 @@ public class Tile {
     public boolean isPath;
     public boolean isTraversed;
     public int distance = Integer.MAX_VALUE;
+    public int weight = 1; // cost of entering the tile, 1 to MazeGrid.MAX_COST
     public Tile parent;
 
     public Tile() {} // Required for Jackson
@@ -23,6 +24,7 @@ public class Tile {
     this.isPath = other.isPath;
     this.isTraversed = other.isTraversed;
     this.distance = other.distance;
+    this.weight = other.weight;
     this.parent = other.parent; // optional: you may skip parent if unused in copy
 }
 
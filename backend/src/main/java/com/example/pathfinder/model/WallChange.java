@@ -0,0 +1,15 @@
+package com.example.pathfinder.model;
+
+// Sets one cell of a stored maze to a wall or a passage
+public class WallChange {
+    private int row;
+    private int col;
+    private boolean wall;
+
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+    public int getCol() { return col; }
+    public void setCol(int col) { this.col = col; }
+    public boolean isWall() { return wall; }
+    public void setWall(boolean wall) { this.wall = wall; }
+}
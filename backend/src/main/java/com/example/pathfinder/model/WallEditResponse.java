@@ -0,0 +1,12 @@
+package com.example.pathfinder.model;
+
+// Outcome of a wall edit: how many cells actually flipped
+public class WallEditResponse {
+    public String mazeId;
+    public int changed;
+
+    public WallEditResponse(String mazeId, int changed) {
+        this.mazeId = mazeId;
+        this.changed = changed;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.pathfinder.repository;
+
+import com.example.pathfinder.model.MazeGrid;
+
+// Published when a stored maze is replaced by an edited snapshot. changedCells lists the
+// cells (row * cols + col) whose wall state actually flipped.
+public class MazeEditedEvent {
+    private final String mazeId;
+    private final MazeGrid previous;
+    private final MazeGrid current;
+    private final int[] changedCells;
+
+    public MazeEditedEvent(String mazeId, MazeGrid previous, MazeGrid current, int[] changedCells) {
+        this.mazeId = mazeId;
+        this.previous = previous;
+        this.current = current;
+        this.changedCells = changedCells;
+    }
+
+    public String getMazeId() { return mazeId; }
+    public MazeGrid getPrevious() { return previous; }
+    public MazeGrid getCurrent() { return current; }
+    public int[] getChangedCells() { return changedCells; }
+}
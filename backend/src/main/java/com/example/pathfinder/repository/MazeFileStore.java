@@ -0,0 +1,259 @@
+package com.example.pathfinder.repository;
+
+import com.example.pathfinder.model.MazeGrid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// One file per stored maze, <id>.maze in pathfinder.storage.dir (persistence is off when unset).
+// Layout, little-endian: a 64-byte header (magic "PFMG", version, flags, rows, cols, words per
+// row, max cost, content hash), the wall words exactly as MazeGrid holds them, then one cost
+// byte per cell if the maze has costs. Plain files are memory-mapped on load, so searches read
+// walls straight from the page cache and loading costs nothing up front; with
+// pathfinder.storage.compress everything after the header is DEFLATE-compressed and has to be
+// inflated onto the heap instead.
+@Component
+public class MazeFileStore {
+    private static final int MAGIC = 0x474D4650; // "PFMG" read as a little-endian int
+    private static final int VERSION = 2;
+    private static final int VERSION_OLD_HASH = 1; // same layout, content hash from before costs were mixed in
+    private static final int HEADER_BYTES = 64;
+    private static final int FLAG_COSTS = 1;
+    private static final int FLAG_COMPRESSED = 2;
+    private static final String SUFFIX = ".maze";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int CHUNK_BYTES = 1 << 20;
+    // DEFLATE can't expand data by more than about 1032:1, so larger claims mean a corrupt file
+    private static final long MAX_INFLATE_RATIO = 1032;
+
+    private final Path directory;
+    private final boolean compress;
+
+    public MazeFileStore(@Value("${pathfinder.storage.dir:}") String directory,
+                         @Value("${pathfinder.storage.compress:false}") boolean compress) throws IOException {
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.compress = compress;
+        if (this.directory != null) {
+            Files.createDirectories(this.directory);
+            deleteTemporary();
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    // Writes to a temporary file of its own first and moves it into place, so readers (and
+    // existing mappings of an earlier version) never see a half-written maze. Concurrent writes
+    // of one id don't clash, but which lands last is up to the caller.
+    public void write(String id, MazeGrid grid) throws IOException {
+        Path target = file(id);
+        Path temp = Files.createTempFile(directory, id + ".", TEMP_SUFFIX);
+        try {
+            writeTo(temp, grid);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    public void delete(String id) throws IOException {
+        Files.deleteIfExists(file(id));
+    }
+
+    private void writeTo(Path temp, MazeGrid grid) throws IOException {
+        int flags = (grid.isWeighted() ? FLAG_COSTS : 0) | (compress ? FLAG_COMPRESSED : 0);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(flags)
+                    .putInt(grid.getRows()).putInt(grid.getCols()).putInt(grid.getWordsPerRow())
+                    .putInt(grid.getMaxCost()).putInt(0).putLong(grid.contentHash());
+            header.clear();
+            writeFully(channel, header);
+
+            OutputStream raw = Channels.newOutputStream(channel);
+            Deflater deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            OutputStream out = compress ? new DeflaterOutputStream(raw, deflater, CHUNK_BYTES) : raw;
+            try {
+                writePayload(grid, out);
+                if (out instanceof DeflaterOutputStream deflating) deflating.finish();
+                out.flush();
+            } finally {
+                if (deflater != null) deflater.end();
+            }
+            channel.force(false);
+        }
+    }
+
+    public MazeGrid read(String id) throws IOException {
+        try (FileChannel channel = FileChannel.open(file(id), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {}
+            header.flip();
+            int version = header.remaining() < HEADER_BYTES || header.getInt() != MAGIC ? 0 : header.getInt();
+            if (version != VERSION && version != VERSION_OLD_HASH) {
+                throw new IOException("Not a maze file: " + file(id));
+            }
+            int flags = header.getInt();
+            int rows = header.getInt();
+            int cols = header.getInt();
+            int wordsPerRow = header.getInt();
+            int maxCost = header.getInt();
+            header.getInt();
+            long contentHash = version == VERSION ? header.getLong() : 0; // 0 is recomputed on first use
+            long wordBytes = (long) rows * wordsPerRow * Long.BYTES;
+            long costBytes = (flags & FLAG_COSTS) != 0 ? (long) rows * cols : 0;
+
+            // Checked before anything is allocated, so a damaged header can't ask for gigabytes
+            boolean compressed = (flags & FLAG_COMPRESSED) != 0;
+            long payload = channel.size() - HEADER_BYTES;
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE
+                    || wordsPerRow != (cols + Long.SIZE - 1) / Long.SIZE
+                    || (flags & ~(FLAG_COSTS | FLAG_COMPRESSED)) != 0
+                    || maxCost < 1 || maxCost > MazeGrid.MAX_COST
+                    || (compressed && wordBytes + costBytes > payload * MAX_INFLATE_RATIO)) {
+                throw new IOException("Corrupt maze file header: " + file(id));
+            }
+            try {
+                if (compressed) {
+                    return inflate(channel, rows, cols, wordsPerRow, costBytes > 0);
+                }
+                if (payload < wordBytes + costBytes) {
+                    throw new IOException("Truncated maze file: " + file(id));
+                }
+                // The mappings stay valid after the channel is closed
+                LongBuffer walls = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, wordBytes)
+                        .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+                ByteBuffer costs = costBytes == 0 ? null
+                        : channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + wordBytes, costBytes);
+                return MazeGrid.mapped(rows, cols, walls, costs, maxCost, contentHash);
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt maze file: " + file(id), e);
+            }
+        }
+    }
+
+    // Ids of the stored mazes with their last write time
+    public List<Map.Entry<String, FileTime>> list() throws IOException {
+        List<Map.Entry<String, FileTime>> stored = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(SUFFIX)) {
+                    stored.add(Map.entry(name.substring(0, name.length() - SUFFIX.length()),
+                            Files.getLastModifiedTime(path)));
+                }
+            }
+        }
+        stored.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+        return stored;
+    }
+
+    // Left behind by writes that were cut off, e.g. by a crash
+    private void deleteTemporary() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (path.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    public boolean contains(String id) {
+        return isEnabled() && isSafeId(id) && Files.isRegularFile(file(id));
+    }
+
+    private Path file(String id) {
+        if (!isSafeId(id)) {
+            throw new IllegalArgumentException("Invalid maze id: " + id);
+        }
+        return directory.resolve(id + SUFFIX);
+    }
+
+    // Ids become file names, so only plain UUID-style ids are accepted
+    private static boolean isSafeId(String id) {
+        return id != null && !id.isEmpty() && id.length() <= 64 && id.chars().allMatch(c ->
+                (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-');
+    }
+
+    private static void writePayload(MazeGrid grid, OutputStream out) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int words = grid.getRows() * grid.getWordsPerRow();
+        for (int i = 0; i < words; i++) {
+            if (!chunk.hasRemaining()) {
+                out.write(chunk.array(), 0, chunk.position());
+                chunk.clear();
+            }
+            chunk.putLong(grid.wallWord(i));
+        }
+        if (grid.isWeighted()) {
+            for (int i = 0; i < grid.size(); i++) {
+                if (!chunk.hasRemaining()) {
+                    out.write(chunk.array(), 0, chunk.position());
+                    chunk.clear();
+                }
+                chunk.put((byte) grid.cost(i));
+            }
+        }
+        out.write(chunk.array(), 0, chunk.position());
+    }
+
+    private static MazeGrid inflate(FileChannel channel, int rows, int cols, int wordsPerRow, boolean hasCosts) throws IOException {
+        long[] walls = new long[Math.multiplyExact(rows, wordsPerRow)];
+        byte[] costs = hasCosts ? new byte[Math.multiplyExact(rows, cols)] : null;
+        Inflater inflater = new Inflater();
+        try {
+            InputStream in = new InflaterInputStream(Channels.newInputStream(channel), inflater, CHUNK_BYTES);
+            byte[] chunk = new byte[CHUNK_BYTES];
+            LongBuffer view = ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            for (int word = 0; word < walls.length; ) {
+                int count = Math.min(CHUNK_BYTES / Long.BYTES, walls.length - word);
+                readFully(in, chunk, count * Long.BYTES);
+                view.get(0, walls, word, count);
+                word += count;
+            }
+            if (costs != null) {
+                readFully(in, costs, costs.length);
+            }
+        } finally {
+            inflater.end();
+        }
+        return MazeGrid.of(rows, cols, walls, costs);
+    }
+
+    private static void readFully(InputStream in, byte[] target, int length) throws IOException {
+        if (in.readNBytes(target, 0, length) != length) {
+            throw new IOException("Truncated maze file.");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
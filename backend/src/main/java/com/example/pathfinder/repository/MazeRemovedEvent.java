@@ -0,0 +1,17 @@
+package com.example.pathfinder.repository;
+
+import com.example.pathfinder.model.MazeGrid;
+
+// Published when MazeRepository drops a maze, so caches built on it can let go
+public class MazeRemovedEvent {
+    private final String mazeId;
+    private final MazeGrid grid;
+
+    public MazeRemovedEvent(String mazeId, MazeGrid grid) {
+        this.mazeId = mazeId;
+        this.grid = grid;
+    }
+
+    public String getMazeId() { return mazeId; }
+    public MazeGrid getGrid() { return grid; }
+}
@@ -0,0 +1,210 @@
+package com.example.pathfinder.repository;
+
+import com.example.pathfinder.model.MazeGrid;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.attribute.FileTime;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Generated mazes, stored once as immutable MazeGrid snapshots under a random id.
+// Searches only read the snapshots, so any number of requests can share them. When
+// MazeFileStore is enabled every snapshot is also written to disk: stored mazes are mapped back
+// in at startup, and mazes evicted from memory are mapped again on their next lookup. At most
+// pathfinder.storage.max-mazes files are kept, the least recently written are deleted first.
+@Repository
+public class MazeRepository {
+    private static final Logger logger = LoggerFactory.getLogger(MazeRepository.class);
+    private static final int MAX_MAZES = 256;
+    private static final int WRITE_STRIPES = 64;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Autowired
+    private MazeFileStore fileStore;
+
+    @Value("${pathfinder.storage.max-mazes:1024}")
+    private int maxStored;
+
+    // Access-ordered so the least recently used maze is dropped first
+    private final LinkedHashMap<String, MazeGrid> mazes = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile String latestId;
+    private long snapshots; // sequence of the newest snapshot put into mazes
+
+    // Writes of one id take the same stripe, and written holds the sequence of the snapshot on
+    // disk, so a write that lost the race to a newer snapshot is skipped instead of landing last
+    private final Object[] writeLocks = new Object[WRITE_STRIPES];
+    private final Map<String, Long> written = new ConcurrentHashMap<>();
+    private final AtomicInteger storedCount = new AtomicInteger();
+    private final Object retentionLock = new Object();
+
+    {
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            writeLocks[i] = new Object();
+        }
+    }
+
+    // Maps the most recently written mazes; mapping only reads the headers, so this is quick
+    // however large they are
+    @PostConstruct
+    void loadStored() {
+        if (!fileStore.isEnabled()) return;
+        try {
+            List<Map.Entry<String, FileTime>> stored = fileStore.list();
+            storedCount.set(stored.size());
+            if (stored.size() > maxStored) {
+                deleteOldest();
+                stored = fileStore.list();
+            }
+            for (Map.Entry<String, FileTime> entry : stored.subList(Math.max(0, stored.size() - MAX_MAZES), stored.size())) {
+                try {
+                    mazes.put(entry.getKey(), fileStore.read(entry.getKey()));
+                    latestId = entry.getKey();
+                } catch (IOException e) {
+                    logger.warn("Skipping stored maze {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+            logger.info("Loaded {} stored mazes", mazes.size());
+        } catch (IOException e) {
+            logger.warn("Could not list stored mazes", e);
+        }
+    }
+
+    public String save(MazeGrid grid) {
+        String id = UUID.randomUUID().toString();
+        long sequence;
+        synchronized (this) {
+            sequence = ++snapshots;
+        }
+        if (persist(id, grid, sequence) && storedCount.incrementAndGet() > maxStored) {
+            deleteOldest();
+        }
+        Map.Entry<String, MazeGrid> removed;
+        synchronized (this) {
+            mazes.put(id, grid);
+            latestId = id;
+            removed = evictEldest();
+        }
+        // Outside the lock, so listeners never run while the repository is held
+        publishRemoved(removed);
+        return id;
+    }
+
+    // Swaps in an edited snapshot, provided nobody replaced the maze since previous was read
+    public void replace(String id, MazeGrid previous, MazeGrid edited, int[] changedCells) {
+        long sequence;
+        synchronized (this) {
+            if (mazes.get(id) != previous) {
+                throw new ConcurrentModificationException("Maze " + id + " was changed concurrently.");
+            }
+            mazes.put(id, edited);
+            sequence = ++snapshots;
+        }
+        persist(id, edited, sequence);
+        events.publishEvent(new MazeEditedEvent(id, previous, edited, changedCells));
+    }
+
+    public Optional<MazeGrid> findById(String id) {
+        synchronized (this) {
+            MazeGrid grid = mazes.get(id);
+            if (grid != null || !fileStore.contains(id)) {
+                return Optional.ofNullable(grid);
+            }
+        }
+        MazeGrid loaded;
+        try {
+            loaded = fileStore.read(id);
+        } catch (IOException e) {
+            logger.warn("Could not load stored maze {}", id, e);
+            return Optional.empty();
+        }
+        Map.Entry<String, MazeGrid> removed;
+        MazeGrid grid;
+        synchronized (this) {
+            grid = mazes.putIfAbsent(id, loaded); // another request may have loaded it meanwhile
+            grid = grid != null ? grid : loaded;
+            removed = evictEldest();
+        }
+        publishRemoved(removed);
+        return Optional.of(grid);
+    }
+
+    // Most recently generated maze, for clients that don't send a maze id
+    public Optional<String> findLatestId() {
+        return Optional.ofNullable(latestId);
+    }
+
+    // A failed write only costs durability; the maze is still served from memory. Returns
+    // whether grid was written.
+    private boolean persist(String id, MazeGrid grid, long sequence) {
+        if (!fileStore.isEnabled()) return false;
+        synchronized (writeLock(id)) {
+            Long newest = written.get(id);
+            if (newest != null && newest > sequence) return false;
+            try {
+                fileStore.write(id, grid);
+                written.put(id, sequence);
+                return true;
+            } catch (IOException e) {
+                logger.warn("Could not store maze {}", id, e);
+                return false;
+            }
+        }
+    }
+
+    // Deletes the least recently written files beyond maxStored. Mazes still in memory keep
+    // being served until they're evicted.
+    private void deleteOldest() {
+        synchronized (retentionLock) {
+            try {
+                List<Map.Entry<String, FileTime>> stored = fileStore.list();
+                int excess = stored.size() - maxStored;
+                for (Map.Entry<String, FileTime> entry : stored.subList(0, Math.max(0, excess))) {
+                    synchronized (writeLock(entry.getKey())) {
+                        fileStore.delete(entry.getKey());
+                        written.remove(entry.getKey());
+                    }
+                }
+                storedCount.set(Math.min(stored.size(), maxStored));
+                if (excess > 0) {
+                    logger.info("Deleted {} stored mazes beyond the limit of {}", excess, maxStored);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not delete old stored mazes", e);
+            }
+        }
+    }
+
+    private Object writeLock(String id) {
+        return writeLocks[Math.floorMod(id.hashCode(), WRITE_STRIPES)];
+    }
+
+    private Map.Entry<String, MazeGrid> evictEldest() {
+        if (mazes.size() <= MAX_MAZES) return null;
+        Iterator<Map.Entry<String, MazeGrid>> eldest = mazes.entrySet().iterator();
+        Map.Entry<String, MazeGrid> removed = eldest.next();
+        eldest.remove();
+        return removed;
+    }
+
+    private void publishRemoved(Map.Entry<String, MazeGrid> removed) {
+        if (removed != null) {
+            events.publishEvent(new MazeRemovedEvent(removed.getKey(), removed.getValue()));
+        }
+    }
+}
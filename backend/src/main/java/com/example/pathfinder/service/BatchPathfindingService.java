@@ -0,0 +1,74 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Runs many queries against one maze in parallel. The MazeGrid is immutable and every worker
+// searches with its own thread-local SearchScratch, so queries share nothing mutable.
+@Service
+public class BatchPathfindingService {
+
+    @Autowired
+    private PathfindingService pathfindingService;
+
+    @Autowired
+    private PathResultCache resultCache;
+
+    @Autowired
+    private ForkJoinPool searchPool;
+
+    // Results come back in query order
+    public List<SearchResult> searchAll(MazeGrid grid, List<SearchQuery> queries) {
+        return searchAll(grid, queries, SearchBudget.UNLIMITED);
+    }
+
+    // Every query gets budget's node limit and the deadline is shared by the batch. The response
+    // size limit covers the whole batch: results keep traversed cells in query order while they
+    // fit, and paths that no longer fit are cut short to partial paths (at least the start cell).
+    public List<SearchResult> searchAll(MazeGrid grid, List<SearchQuery> queries, SearchBudget budget) {
+        List<Callable<SearchResult>> tasks = new ArrayList<>(queries.size());
+        for (SearchQuery query : queries) {
+            tasks.add(() -> PathfindingService.limitResponse(
+                    resultCache.getOrCompute(grid, query, () -> pathfindingService.search(grid, query, budget)),
+                    budget.getMaxResponseCells()));
+        }
+        List<SearchResult> results = new ArrayList<>(queries.size());
+        long remaining = budget.getMaxResponseCells();
+        try {
+            for (Future<SearchResult> future : searchPool.invokeAll(tasks)) {
+                SearchResult result = fit(future.get(), (int) Math.max(0, remaining));
+                remaining -= result.getPath().length + result.getTraversed().length;
+                results.add(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch search was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Batch search failed.", e.getCause());
+        }
+        return results;
+    }
+
+    private static SearchResult fit(SearchResult result, int maxCells) {
+        int[] path = result.getPath();
+        if (path.length <= Math.max(1, maxCells)) {
+            return PathfindingService.limitResponse(result, maxCells);
+        }
+        int keep = Math.max(1, maxCells);
+        return new SearchResult(result.getCols(), new int[0], new int[0], new int[0],
+                Arrays.copyOf(path, keep), Arrays.copyOf(result.getPathDistance(), keep), false,
+                result.getQueuePushes(), result.getQueuePops(), SearchLimit.RESPONSE_SIZE);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.service.queue.IndexedMinHeap;
+
+// Searches forward from the start and backward from the end at the same time, stopping once
+// the two frontiers have met on a provably shortest path. Forward state lives in the usual
+// SearchScratch buffers, backward state in its reverse* buffers.
+final class BidirectionalSearch {
+    private static final int[] ROW_STEPS = {0, 1, 0, -1};
+    private static final int[] COL_STEPS = {1, 0, -1, 0};
+
+    private final MazeGrid grid;
+    private final SearchScratch s;
+    private final int cols;
+    private final int start;
+    private final int end;
+    private int best = Integer.MAX_VALUE; // length of the best start-end path found so far
+    private int meet = -1;                // cell where that path joins the two frontiers
+    private int pushes;
+    private int pops;
+
+    private BidirectionalSearch(MazeGrid grid, int start, int end) {
+        this.grid = grid;
+        this.s = SearchScratch.acquire(grid.size());
+        this.s.prepareReverse();
+        this.cols = grid.getCols();
+        this.start = start;
+        this.end = end;
+    }
+
+    // Expands whole BFS levels, always on the side with the smaller frontier. Once a level
+    // connects the frontiers, the cheapest connection seen in that level is a shortest path.
+    static SearchResult bfs(MazeGrid grid, int start, int end) {
+        BidirectionalSearch search = new BidirectionalSearch(grid, start, end);
+        search.runBfs();
+        return search.toResult();
+    }
+
+    // Front-to-end bidirectional A*: stops once either open list's smallest f reaches the best
+    // path found, which is optimal for a consistent heuristic
+    static SearchResult aStar(MazeGrid grid, int start, int end, Heuristic heuristic) {
+        BidirectionalSearch search = new BidirectionalSearch(grid, start, end);
+        search.runAStar(heuristic);
+        return search.toResult();
+    }
+
+    private void runBfs() {
+        int[] forward = s.queue;
+        int[] backward = s.reverseQueue;
+        int forwardHead = 0;
+        int forwardTail = 0;
+        int backwardHead = 0;
+        int backwardTail = 0;
+        s.discover(start, 0, -1);
+        forward[forwardTail++] = start;
+        s.discoverReverse(end, 0, -1);
+        backward[backwardTail++] = end;
+        if (start == end) {
+            s.traverse(start);
+            best = 0;
+            meet = start;
+        }
+
+        while (best == Integer.MAX_VALUE && forwardHead < forwardTail && backwardHead < backwardTail && s.halted == null) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                int levelEnd = forwardTail;
+                while (forwardHead < levelEnd && s.halted == null) {
+                    int cell = forward[forwardHead++];
+                    s.traverse(cell);
+                    int next = s.distance[cell] + 1;
+                    int count = openNeighbors(cell);
+                    for (int i = 0; i < count; i++) {
+                        int neighbor = s.neighbors[i];
+                        if (s.isDiscovered(neighbor)) continue;
+                        s.discover(neighbor, next, cell);
+                        forward[forwardTail++] = neighbor;
+                        connect(neighbor);
+                    }
+                }
+            } else {
+                int levelEnd = backwardTail;
+                while (backwardHead < levelEnd && s.halted == null) {
+                    int cell = backward[backwardHead++];
+                    s.traverseReverse(cell);
+                    int next = s.reverseDistance[cell] + 1;
+                    int count = openNeighbors(cell);
+                    for (int i = 0; i < count; i++) {
+                        int neighbor = s.neighbors[i];
+                        if (s.isReverseDiscovered(neighbor)) continue;
+                        s.discoverReverse(neighbor, next, cell);
+                        backward[backwardTail++] = neighbor;
+                        connect(neighbor);
+                    }
+                }
+            }
+        }
+        pushes = forwardTail + backwardTail;
+        pops = forwardHead + backwardHead;
+    }
+
+    private void runAStar(Heuristic heuristic) {
+        IndexedMinHeap forward = s.heap;
+        IndexedMinHeap backward = s.reverseHeap;
+        forward.reset(grid.size());
+        backward.reset(grid.size());
+        s.discover(start, 0, -1);
+        forward.insertOrDecrease(start, estimate(heuristic, start, end));
+        s.discoverReverse(end, 0, -1);
+        backward.insertOrDecrease(end, estimate(heuristic, end, start));
+        if (start == end) {
+            s.traverse(start);
+            best = 0;
+            meet = start;
+        }
+
+        while (!forward.isEmpty() && !backward.isEmpty() && s.halted == null) {
+            if (Math.max(forward.minKey(), backward.minKey()) >= best) break;
+            if (forward.size() <= backward.size()) {
+                int cell = forward.pollMin();
+                s.traverse(cell);
+                int next = s.distance[cell] + 1;
+                int count = openNeighbors(cell);
+                for (int i = 0; i < count; i++) {
+                    int neighbor = s.neighbors[i];
+                    if (s.isTraversed(neighbor) || next >= s.distanceOf(neighbor)) continue;
+                    s.discover(neighbor, next, cell);
+                    forward.insertOrDecrease(neighbor, next + estimate(heuristic, neighbor, end));
+                    connect(neighbor);
+                }
+            } else {
+                int cell = backward.pollMin();
+                s.traverseReverse(cell);
+                int next = s.reverseDistance[cell] + 1;
+                int count = openNeighbors(cell);
+                for (int i = 0; i < count; i++) {
+                    int neighbor = s.neighbors[i];
+                    if (s.isReverseTraversed(neighbor) || next >= s.reverseDistanceOf(neighbor)) continue;
+                    s.discoverReverse(neighbor, next, cell);
+                    backward.insertOrDecrease(neighbor, next + estimate(heuristic, neighbor, start));
+                    connect(neighbor);
+                }
+            }
+        }
+        pushes = forward.getPushes() + backward.getPushes();
+        pops = forward.getPops() + backward.getPops();
+    }
+
+    // Called whenever a cell's distance changes on one side; records it if both sides reach it
+    private void connect(int cell) {
+        if (s.isDiscovered(cell) && s.isReverseDiscovered(cell)) {
+            int total = s.distance[cell] + s.reverseDistance[cell];
+            if (total < best) {
+                best = total;
+                meet = cell;
+            }
+        }
+    }
+
+    // Fills s.neighbors with in-bounds cells that are open; start and end always count as open
+    private int openNeighbors(int cell) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        int count = 0;
+        for (int d = 0; d < 4; d++) {
+            int newRow = row + ROW_STEPS[d];
+            int newCol = col + COL_STEPS[d];
+            if (grid.inBounds(newRow, newCol)) {
+                int neighbor = newRow * cols + newCol;
+                if (!grid.isWall(newRow, newCol) || neighbor == end || neighbor == start) {
+                    s.neighbors[count++] = neighbor;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int estimate(Heuristic heuristic, int cell, int goal) {
+        return heuristic.estimate(Math.abs(cell / cols - goal / cols), Math.abs(cell % cols - goal % cols));
+    }
+
+    private SearchResult toResult() {
+        int count = s.drain();
+        int[] traversed = new int[count];
+        int[] traversedDistance = new int[count];
+        int[] traversedParent = new int[count];
+        int nearest = start; // forward-traversed cell closest to end, for a search cut short
+        int nearestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int entry = s.traversed[i];
+            if (entry >= 0) {
+                int from = s.parent[entry];
+                traversed[i] = entry;
+                traversedDistance[i] = s.distance[entry];
+                traversedParent[i] = from < 0 ? -1 : s.order[from];
+                int distance = estimate(Heuristic.MANHATTAN, entry, end);
+                if (distance < nearestDistance) {
+                    nearest = entry;
+                    nearestDistance = distance;
+                }
+            } else {
+                int cell = ~entry;
+                int from = s.reverseParent[cell];
+                traversed[i] = cell;
+                traversedDistance[i] = s.reverseDistance[cell];
+                traversedParent[i] = from < 0 ? -1 : s.reverseOrder[from];
+            }
+        }
+
+        if (meet < 0 && s.halted != null) {
+            // Stopped by the budget before the frontiers met: the path to the forward cell
+            // nearest to end, as GridSearchEngine.toResult does
+            int length = s.distance[nearest] + 1;
+            int[] path = new int[length];
+            int[] pathDistance = new int[length];
+            int i = length - 1;
+            for (int cell = nearest; cell >= 0; cell = s.parent[cell]) {
+                pathDistance[i] = i;
+                path[i--] = cell;
+            }
+            return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                    path, pathDistance, false, pushes, pops, s.halted);
+        }
+        if (meet < 0) {
+            return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                    new int[] {end}, new int[] {Integer.MAX_VALUE}, false, pushes, pops, s.halted);
+        }
+        int[] path = new int[best + 1];
+        int[] pathDistance = new int[best + 1];
+        int i = s.distance[meet];
+        for (int cell = meet; cell >= 0; cell = s.parent[cell]) {
+            path[i--] = cell;
+        }
+        i = s.distance[meet] + 1;
+        for (int cell = s.reverseParent[meet]; cell >= 0; cell = s.reverseParent[cell]) {
+            path[i++] = cell;
+        }
+        for (int k = 0; k <= best; k++) {
+            pathDistance[k] = k;
+        }
+        // A budget stop after the frontiers met may leave a longer path than the shortest
+        return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                path, pathDistance, true, pushes, pops, s.halted);
+    }
+}
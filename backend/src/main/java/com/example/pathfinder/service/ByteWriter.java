@@ -0,0 +1,67 @@
+package com.example.pathfinder.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+// Growable byte buffer with the varint and zigzag helpers shared by the binary encoders
+final class ByteWriter {
+    private byte[] buffer;
+    private int size;
+
+    ByteWriter(int capacity) {
+        buffer = new byte[Math.max(capacity, 16)];
+    }
+
+    void write(int b) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, size * 2);
+        }
+        buffer[size++] = (byte) b;
+    }
+
+    void bytes(byte[] bytes) {
+        for (byte b : bytes) write(b);
+    }
+
+    void int32(int value) {
+        write(value >>> 24);
+        write(value >>> 16);
+        write(value >>> 8);
+        write(value);
+    }
+
+    void varint(int value) {
+        while ((value & ~0x7F) != 0) {
+            write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        write(value);
+    }
+
+    void zigzag(int value) {
+        varint((value << 1) ^ (value >> 31));
+    }
+
+    void deltas(int[] cells) {
+        int previous = 0;
+        for (int cell : cells) {
+            zigzag(cell - previous);
+            previous = cell;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Writes the buffered bytes to out and empties the buffer
+    void drainTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, size);
+        size = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// HPA*-style abstraction of a static maze. The grid is cut into square clusters; every open
+// crossing between neighboring clusters contributes entrance nodes, which are joined by
+// inter-cluster edges (cost 1) and intra-cluster edges (BFS distance inside the cluster).
+// The graph holds no reference to the MazeGrid itself so it can be cached against it weakly.
+final class ClusterGraph {
+    private static final int NONE = -1;
+    // Crossings at least this long get an entrance at both ends instead of one in the middle
+    private static final int LONG_ENTRANCE = 6;
+
+    final int clusterSize;
+    final int clusterRows;
+    final int clusterCols;
+    final int[] nodeCell;          // abstract node -> grid cell
+    final int[] clusterNodeStart;  // cluster -> range in clusterNodes
+    final int[] clusterNodes;
+    final int[] edgeStart;         // node -> range in edgeTarget / edgeCost
+    final int[] edgeTarget;
+    final int[] edgeCost;
+    final long buildNanos;
+
+    private ClusterGraph(int clusterSize, int clusterRows, int clusterCols, int[] nodeCell,
+                         int[] clusterNodeStart, int[] clusterNodes, int[] edgeStart,
+                         int[] edgeTarget, int[] edgeCost, long buildNanos) {
+        this.clusterSize = clusterSize;
+        this.clusterRows = clusterRows;
+        this.clusterCols = clusterCols;
+        this.nodeCell = nodeCell;
+        this.clusterNodeStart = clusterNodeStart;
+        this.clusterNodes = clusterNodes;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeCost = edgeCost;
+        this.buildNanos = buildNanos;
+    }
+
+    static ClusterGraph build(MazeGrid grid, int clusterSize) {
+        long began = System.nanoTime();
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int clusterRows = (rows + clusterSize - 1) / clusterSize;
+        int clusterCols = (cols + clusterSize - 1) / clusterSize;
+
+        Map<Integer, Integer> nodeOfCell = new HashMap<>();
+        IntList cells = new IntList();
+        IntList edgeFrom = new IntList();
+        IntList edgeTo = new IntList();
+        IntList edgeWeight = new IntList();
+
+        // Entrances across vertical cluster borders (between columns x - 1 and x)
+        for (int x = clusterSize; x < cols; x += clusterSize) {
+            for (int top = 0; top < rows; top += clusterSize) {
+                int bottom = Math.min(top + clusterSize, rows);
+                int run = 0;
+                for (int r = top; r <= bottom; r++) {
+                    if (r < bottom && !grid.isWall(r, x - 1) && !grid.isWall(r, x)) {
+                        run++;
+                        continue;
+                    }
+                    for (int entrance : entrances(r - run, run)) {
+                        link(grid.index(entrance, x - 1), grid.index(entrance, x), nodeOfCell, cells, edgeFrom, edgeTo, edgeWeight);
+                    }
+                    run = 0;
+                }
+            }
+        }
+        // Entrances across horizontal cluster borders (between rows y - 1 and y)
+        for (int y = clusterSize; y < rows; y += clusterSize) {
+            for (int left = 0; left < cols; left += clusterSize) {
+                int right = Math.min(left + clusterSize, cols);
+                int run = 0;
+                for (int c = left; c <= right; c++) {
+                    if (c < right && !grid.isWall(y - 1, c) && !grid.isWall(y, c)) {
+                        run++;
+                        continue;
+                    }
+                    for (int entrance : entrances(c - run, run)) {
+                        link(grid.index(y - 1, entrance), grid.index(y, entrance), nodeOfCell, cells, edgeFrom, edgeTo, edgeWeight);
+                    }
+                    run = 0;
+                }
+            }
+        }
+
+        // Group nodes by cluster
+        int nodeCount = cells.size();
+        int[] nodeCell = cells.toArray();
+        int[] clusterNodeStart = new int[clusterRows * clusterCols + 1];
+        for (int cell : nodeCell) {
+            clusterNodeStart[clusterOf(cell, cols, clusterSize, clusterCols) + 1]++;
+        }
+        for (int c = 0; c < clusterRows * clusterCols; c++) {
+            clusterNodeStart[c + 1] += clusterNodeStart[c];
+        }
+        int[] clusterNodes = new int[nodeCount];
+        int[] fill = Arrays.copyOf(clusterNodeStart, clusterNodeStart.length - 1);
+        for (int node = 0; node < nodeCount; node++) {
+            clusterNodes[fill[clusterOf(nodeCell[node], cols, clusterSize, clusterCols)]++] = node;
+        }
+
+        // Intra-cluster edges from one bounded BFS per entrance node
+        ClusterBfs bfs = new ClusterBfs(clusterSize);
+        for (int cluster = 0; cluster < clusterRows * clusterCols; cluster++) {
+            int from = clusterNodeStart[cluster];
+            int to = clusterNodeStart[cluster + 1];
+            if (to - from < 2) continue;
+            bfs.bounds(grid, cluster / clusterCols, cluster % clusterCols);
+            for (int i = from; i < to; i++) {
+                int source = clusterNodes[i];
+                bfs.run(grid, nodeCell[source], NONE, NONE);
+                for (int j = from; j < to; j++) {
+                    int target = clusterNodes[j];
+                    int cost = bfs.distance(nodeCell[target]);
+                    if (target != source && cost != Integer.MAX_VALUE) {
+                        edgeFrom.add(source);
+                        edgeTo.add(target);
+                        edgeWeight.add(cost);
+                    }
+                }
+            }
+        }
+
+        // Compress to CSR adjacency
+        int[] edgeStart = new int[nodeCount + 1];
+        for (int i = 0; i < edgeFrom.size(); i++) {
+            edgeStart[edgeFrom.get(i) + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            edgeStart[node + 1] += edgeStart[node];
+        }
+        int[] edgeTarget = new int[edgeFrom.size()];
+        int[] edgeCost = new int[edgeFrom.size()];
+        int[] next = Arrays.copyOf(edgeStart, nodeCount);
+        for (int i = 0; i < edgeFrom.size(); i++) {
+            int slot = next[edgeFrom.get(i)]++;
+            edgeTarget[slot] = edgeTo.get(i);
+            edgeCost[slot] = edgeWeight.get(i);
+        }
+
+        return new ClusterGraph(clusterSize, clusterRows, clusterCols, nodeCell, clusterNodeStart,
+                clusterNodes, edgeStart, edgeTarget, edgeCost, System.nanoTime() - began);
+    }
+
+    int nodeCount() {
+        return nodeCell.length;
+    }
+
+    int edgeCount() {
+        return edgeTarget.length;
+    }
+
+    int clusterOf(int cell, int cols) {
+        return clusterOf(cell, cols, clusterSize, clusterCols);
+    }
+
+    long estimatedBytes() {
+        long ints = (long) nodeCell.length + clusterNodeStart.length + clusterNodes.length
+                + edgeStart.length + edgeTarget.length + edgeCost.length;
+        return ints * Integer.BYTES + 6L * 16; // array headers
+    }
+
+    private static int clusterOf(int cell, int cols, int clusterSize, int clusterCols) {
+        int row = cell / cols;
+        int col = cell - row * cols;
+        return (row / clusterSize) * clusterCols + col / clusterSize;
+    }
+
+    // Transition offsets for an open crossing [first, first + length)
+    private static int[] entrances(int first, int length) {
+        if (length == 0) return new int[0];
+        if (length < LONG_ENTRANCE) return new int[] {first + length / 2};
+        return new int[] {first, first + length - 1};
+    }
+
+    private static void link(int a, int b, Map<Integer, Integer> nodeOfCell, IntList cells,
+                             IntList edgeFrom, IntList edgeTo, IntList edgeWeight) {
+        int nodeA = nodeOfCell.computeIfAbsent(a, cell -> { cells.add(cell); return cells.size() - 1; });
+        int nodeB = nodeOfCell.computeIfAbsent(b, cell -> { cells.add(cell); return cells.size() - 1; });
+        edgeFrom.add(nodeA);
+        edgeTo.add(nodeB);
+        edgeWeight.add(1);
+        edgeFrom.add(nodeB);
+        edgeTo.add(nodeA);
+        edgeWeight.add(1);
+    }
+
+    // BFS confined to one cluster, on buffers sized to a single cluster
+    static final class ClusterBfs {
+        private final int clusterSize;
+        private final int[] distance;
+        private final int[] parent;
+        private final int[] queue;
+        private int top;
+        private int left;
+        private int height;
+        private int width;
+        private int cols;
+
+        ClusterBfs(int clusterSize) {
+            this.clusterSize = clusterSize;
+            int size = clusterSize * clusterSize;
+            distance = new int[size];
+            parent = new int[size];
+            queue = new int[size];
+        }
+
+        void bounds(MazeGrid grid, int clusterRow, int clusterCol) {
+            top = clusterRow * clusterSize;
+            left = clusterCol * clusterSize;
+            height = Math.min(clusterSize, grid.getRows() - top);
+            width = Math.min(clusterSize, grid.getCols() - left);
+            cols = grid.getCols();
+        }
+
+        // Floods the cluster from source; open1 and open2 count as open even if walled
+        void run(MazeGrid grid, int source, int open1, int open2) {
+            Arrays.fill(distance, 0, height * width, Integer.MAX_VALUE);
+            int head = 0;
+            int tail = 0;
+            int local = local(source);
+            distance[local] = 0;
+            parent[local] = NONE;
+            queue[tail++] = local;
+            while (head < tail) {
+                int current = queue[head++];
+                int r = current / width;
+                int c = current - r * width;
+                int next = distance[current] + 1;
+                if (c + 1 < width) tail = visit(grid, current, current + 1, next, tail, open1, open2);
+                if (r + 1 < height) tail = visit(grid, current, current + width, next, tail, open1, open2);
+                if (c > 0) tail = visit(grid, current, current - 1, next, tail, open1, open2);
+                if (r > 0) tail = visit(grid, current, current - width, next, tail, open1, open2);
+            }
+        }
+
+        private int visit(MazeGrid grid, int from, int local, int dist, int tail, int open1, int open2) {
+            if (distance[local] != Integer.MAX_VALUE) return tail;
+            int cell = global(local);
+            if (grid.isWall(cell / cols, cell % cols) && cell != open1 && cell != open2) return tail;
+            distance[local] = dist;
+            parent[local] = from;
+            queue[tail] = local;
+            return tail + 1;
+        }
+
+        int distance(int cell) {
+            return distance[local(cell)];
+        }
+
+        // Cells from the BFS source (unless skipped) to target inclusive, appended to out
+        void appendPath(int target, IntList out, boolean skipSource) {
+            int length = distance(target) + (skipSource ? 0 : 1);
+            int at = out.size();
+            out.grow(length);
+            int i = at + length - 1;
+            for (int local = local(target); i >= at; local = parent[local]) {
+                out.set(i--, global(local));
+            }
+        }
+
+        // Cells after target back to the BFS source inclusive, appended to out
+        void appendPathBack(int target, IntList out) {
+            for (int local = parent[local(target)]; local != NONE; local = parent[local]) {
+                out.add(global(local));
+            }
+        }
+
+        private int local(int cell) {
+            int row = cell / cols;
+            return (row - top) * width + (cell - row * cols - left);
+        }
+
+        private int global(int local) {
+            int r = local / width;
+            return (top + r) * cols + left + (local - r * width);
+        }
+    }
+}
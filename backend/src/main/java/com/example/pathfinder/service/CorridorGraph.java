@@ -0,0 +1,242 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+
+import java.util.Arrays;
+
+// Corridor compression of a static maze. Every open cell without exactly two open neighbors
+// (junctions, dead ends, isolated cells) becomes a node, and every corridor of two-neighbor
+// cells between two nodes becomes an edge weighted by its length in steps; generated mazes
+// keep a small fraction of their cells as nodes. Corridor cells aren't stored: an edge keeps
+// the direction it leaves its node in, and a corridor never branches, so walking it again
+// gives its cells back. With dead-end pruning, every node outside the graph's cycles is
+// marked pruned and points toward the rest of the graph; perfect mazes have no cycles, so
+// all their nodes form one pruned tree. Mazes where more than half the open cells would be
+// nodes (open areas) compress too little to be worth it; for them only the counts are kept.
+// Holds no reference to the MazeGrid, like ClusterGraph.
+final class CorridorGraph {
+    static final int NONE = -1;
+    // Edge directions: up, right, down, left; (d + 2) % 4 is the opposite of d
+    private static final int[] ROW_STEP = {-1, 0, 1, 0};
+    private static final int[] COL_STEP = {0, 1, 0, -1};
+
+    final int[] nodeCell;       // ascending, so cells find their node by binary search
+    final int[] edgeStart;      // node -> range in edgeTarget / edgeCost / edgeDirection
+    final int[] edgeTarget;
+    final int[] edgeCost;
+    final byte[] edgeDirection;
+    final boolean[] pruned;     // null when dead ends weren't pruned
+    final int[] toward;         // pruned node -> node it hangs off, NONE at the root of a pruned tree
+    final int openCells;
+    final int nodes;
+    final boolean compressed;
+    final long buildNanos;
+
+    private CorridorGraph(int[] nodeCell, int[] edgeStart, int[] edgeTarget, int[] edgeCost,
+                          byte[] edgeDirection, boolean[] pruned, int[] toward, int openCells, long buildNanos) {
+        this.nodeCell = nodeCell;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeCost = edgeCost;
+        this.edgeDirection = edgeDirection;
+        this.pruned = pruned;
+        this.toward = toward;
+        this.openCells = openCells;
+        this.nodes = nodeCell.length;
+        this.compressed = true;
+        this.buildNanos = buildNanos;
+    }
+
+    // Counts only, for a maze that isn't worth compressing
+    private CorridorGraph(int openCells, int nodes, long buildNanos) {
+        this.nodeCell = new int[0];
+        this.edgeStart = new int[] {0};
+        this.edgeTarget = new int[0];
+        this.edgeCost = new int[0];
+        this.edgeDirection = new byte[0];
+        this.pruned = null;
+        this.toward = null;
+        this.openCells = openCells;
+        this.nodes = nodes;
+        this.compressed = false;
+        this.buildNanos = buildNanos;
+    }
+
+    static CorridorGraph build(MazeGrid grid, boolean pruneDeadEnds) {
+        long began = System.nanoTime();
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        // Counted before anything is allocated, so open areas cost a scan and nothing more
+        int openCells = 0;
+        int nodeCount = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (grid.isWall(r, c)) continue;
+                openCells++;
+                if (exits(grid, r, c) != 2) nodeCount++;
+            }
+        }
+        if (2L * nodeCount > openCells) {
+            return new CorridorGraph(openCells, nodeCount, System.nanoTime() - began);
+        }
+        int[] cells = new int[nodeCount];
+        int found = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!grid.isWall(r, c) && exits(grid, r, c) != 2) cells[found++] = r * cols + c;
+            }
+        }
+
+        // One edge per corridor end, in node order, so the adjacency comes out in CSR form.
+        // Corridors leading back to their own node can't shorten a path and are left out.
+        int[] nodeCell = cells;
+        int nodes = nodeCell.length;
+        int[] edgeStart = new int[nodes + 1];
+        IntList targets = new IntList();
+        IntList costs = new IntList();
+        IntList directions = new IntList();
+        for (int node = 0; node < nodes; node++) {
+            edgeStart[node] = targets.size();
+            int cell = nodeCell[node];
+            for (int d = 0; d < 4; d++) {
+                if (!isOpen(grid, cell / cols + ROW_STEP[d], cell % cols + COL_STEP[d])) continue;
+                long reached = walk(grid, cell, d, NONE, null);
+                int target = Arrays.binarySearch(nodeCell, cellOf(reached));
+                if (target == node) continue;
+                targets.add(target);
+                costs.add(stepsOf(reached));
+                directions.add(d);
+            }
+        }
+        edgeStart[nodes] = targets.size();
+        byte[] edgeDirection = new byte[directions.size()];
+        for (int i = 0; i < edgeDirection.length; i++) {
+            edgeDirection[i] = (byte) directions.get(i);
+        }
+
+        int[] edgeTarget = targets.toArray();
+        boolean[] pruned = null;
+        int[] toward = null;
+        if (pruneDeadEnds) {
+            pruned = new boolean[nodes];
+            toward = new int[nodes];
+            prune(edgeStart, edgeTarget, pruned, toward);
+        }
+        return new CorridorGraph(nodeCell, edgeStart, edgeTarget, costs.toArray(), edgeDirection,
+                pruned, toward, openCells, System.nanoTime() - began);
+    }
+
+    // Peels off nodes with at most one edge left until only cycles remain. Each peeled node
+    // records the neighbor it still had, so following toward leads out of its branch.
+    private static void prune(int[] edgeStart, int[] edgeTarget, boolean[] pruned, int[] toward) {
+        int nodes = pruned.length;
+        int[] degree = new int[nodes];
+        IntList leaves = new IntList();
+        for (int node = 0; node < nodes; node++) {
+            degree[node] = edgeStart[node + 1] - edgeStart[node];
+            if (degree[node] <= 1) leaves.add(node);
+        }
+        for (int i = 0; i < leaves.size(); i++) {
+            int node = leaves.get(i);
+            pruned[node] = true;
+            toward[node] = NONE;
+            for (int e = edgeStart[node]; e < edgeStart[node + 1]; e++) {
+                int next = edgeTarget[e];
+                if (pruned[next]) continue;
+                toward[node] = next;
+                if (--degree[next] == 1) leaves.add(next);
+            }
+        }
+    }
+
+    int nodeCount() {
+        return nodeCell.length;
+    }
+
+    // Corridors, each stored once per end
+    int edgeCount() {
+        return edgeTarget.length / 2;
+    }
+
+    int prunedCount() {
+        if (pruned == null) return 0;
+        int count = 0;
+        for (boolean p : pruned) {
+            if (p) count++;
+        }
+        return count;
+    }
+
+    // The node at cell, or a negative value if cell is inside a corridor
+    int nodeAt(int cell) {
+        return Arrays.binarySearch(nodeCell, cell);
+    }
+
+    long estimatedBytes() {
+        long ints = (long) nodeCell.length + edgeStart.length + 2L * edgeTarget.length
+                + (toward == null ? 0 : toward.length);
+        return ints * Integer.BYTES + edgeDirection.length + (pruned == null ? 0 : pruned.length) + 7L * 16; // array headers
+    }
+
+    // Follows the corridor leaving cell in direction until a node, stop, or cell again (a loop
+    // without nodes). Cells after cell up to the one reached are appended to out, if given.
+    // Returns the cell reached and the steps taken, packed into a long.
+    static long walk(MazeGrid grid, int cell, int direction, int stop, IntList out) {
+        int cols = grid.getCols();
+        int row = cell / cols;
+        int col = cell % cols;
+        int steps = 0;
+        while (true) {
+            row += ROW_STEP[direction];
+            col += COL_STEP[direction];
+            steps++;
+            int at = row * cols + col;
+            if (out != null) out.add(at);
+            if (at == stop || at == cell) return pack(at, steps);
+            int exits = 0;
+            int next = NONE;
+            for (int d = 0; d < 4; d++) {
+                if (isOpen(grid, row + ROW_STEP[d], col + COL_STEP[d])) {
+                    exits++;
+                    if (d != (direction + 2) % 4) next = d;
+                }
+            }
+            if (exits != 2) return pack(at, steps);
+            direction = next;
+        }
+    }
+
+    // Directions out of cell that lead to open cells, as a bit mask
+    static int openDirections(MazeGrid grid, int cell) {
+        int cols = grid.getCols();
+        int mask = 0;
+        for (int d = 0; d < 4; d++) {
+            if (isOpen(grid, cell / cols + ROW_STEP[d], cell % cols + COL_STEP[d])) mask |= 1 << d;
+        }
+        return mask;
+    }
+
+    static int cellOf(long walked) {
+        return (int) walked;
+    }
+
+    static int stepsOf(long walked) {
+        return (int) (walked >>> 32);
+    }
+
+    private static long pack(int cell, int steps) {
+        return (long) steps << 32 | (cell & 0xFFFFFFFFL);
+    }
+
+    private static int exits(MazeGrid grid, int row, int col) {
+        int exits = 0;
+        for (int d = 0; d < 4; d++) {
+            if (isOpen(grid, row + ROW_STEP[d], col + COL_STEP[d])) exits++;
+        }
+        return exits;
+    }
+
+    private static boolean isOpen(MazeGrid grid, int row, int col) {
+        return grid.inBounds(row, col) && !grid.isWall(row, col);
+    }
+}
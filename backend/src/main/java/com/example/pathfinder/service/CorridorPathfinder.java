@@ -0,0 +1,326 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.CorridorStats;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.service.queue.IndexedMinHeap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+
+// Exact shortest paths on mazes by A* over a CorridorGraph instead of the grid: one expansion
+// per junction rather than per cell. Start and end are linked to the nodes at the ends of
+// their corridors for each query, and the node path is walked back out into grid cells.
+// With pruned dead ends the search only leaves a pruned branch toward the rest of the graph
+// and only enters one on the way to end, since a shortest path never goes in and back out.
+// On mazes where most cells are junctions (open areas) there is little to compress, and the
+// grid A* runs instead.
+@Service
+public class CorridorPathfinder {
+    public static final boolean DEFAULT_PRUNE_DEAD_ENDS = true;
+    private static final Logger logger = LoggerFactory.getLogger(CorridorPathfinder.class);
+
+    // Keyed by the immutable snapshot, so a graph goes away together with its maze. The map's
+    // lock only guards the futures; graphs are built outside it, once per maze.
+    private final Map<MazeGrid, CompletableFuture<CorridorGraph>> graphs = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public CorridorStats preprocess(MazeGrid grid, boolean pruneDeadEnds) {
+        CorridorGraph graph = build(grid, pruneDeadEnds);
+        graphs.put(grid, CompletableFuture.completedFuture(graph));
+        return stats(graph);
+    }
+
+    public Optional<CorridorStats> getStats(MazeGrid grid) {
+        CompletableFuture<CorridorGraph> graph = graphs.get(grid);
+        return graph == null || !graph.isDone() || graph.isCompletedExceptionally()
+                ? Optional.empty() : Optional.of(stats(graph.join()));
+    }
+
+    SearchResult search(MazeGrid grid, int start, int end) {
+        // Walled endpoints are opened per query, which changes the corridors around them
+        if (grid.isWall(start) || grid.isWall(end)) {
+            return GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0);
+        }
+        CorridorGraph graph = graph(grid);
+        if (!graph.compressed) {
+            return GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0);
+        }
+        int cols = grid.getCols();
+        int nodes = graph.nodeCount();
+        int source = nodes;
+        int target = nodes + 1;
+        Link fromStart = new Link(grid, graph, start, end);
+        Link fromEnd = new Link(grid, graph, end, start);
+        int[] endBranch = endBranch(graph, fromEnd);
+
+        // A* over the graph plus temporary source and target nodes
+        SearchScratch s = SearchScratch.acquire(nodes + 2);
+        IndexedMinHeap open = s.heap;
+        open.reset(nodes + 2);
+        s.discover(source, 0, -1);
+        open.insertOrDecrease(source, estimate(start, end, cols));
+        while (!open.isEmpty() && open.minKey() < fromStart.direct && s.halted == null) {
+            int node = open.pollMin();
+            s.traverse(node);
+            if (node == target) break;
+
+            int g = s.distance[node];
+            if (node == source) {
+                for (int i = 0; i < fromStart.count; i++) {
+                    relax(s, open, graph, node, fromStart.node[i], g + fromStart.cost[i], end, cols);
+                }
+                continue;
+            }
+            for (int e = graph.edgeStart[node]; e < graph.edgeStart[node + 1]; e++) {
+                int next = graph.edgeTarget[e];
+                if (mayEnter(graph, node, next, endBranch)) {
+                    relax(s, open, graph, node, next, g + graph.edgeCost[e], end, cols);
+                }
+            }
+            for (int i = 0; i < fromEnd.count; i++) {
+                if (fromEnd.node[i] == node) relax(s, open, graph, node, target, g + fromEnd.cost[i], end, cols);
+            }
+        }
+
+        SearchLimit limit = s.isTraversed(target) ? null : s.halted;
+        int graphCost = s.isTraversed(target) ? s.distance[target] : Integer.MAX_VALUE;
+        IntList path = new IntList();
+        path.add(start);
+        if (fromStart.direct != Integer.MAX_VALUE && fromStart.direct <= graphCost) {
+            if (start != end) CorridorGraph.walk(grid, start, fromStart.directDirection, end, path);
+            limit = null;
+        } else if (graphCost != Integer.MAX_VALUE) {
+            int last = s.parent[target];
+            expand(grid, graph, s, last, fromStart, path);
+            fromEnd.appendFrom(grid, last, s.distance[target] - s.distance[last], path);
+        } else if (limit != null) {
+            // Stopped by the budget: path to the traversed node nearest to end
+            int nearest = nearest(graph, s, end, cols);
+            if (nearest >= 0) expand(grid, graph, s, nearest, fromStart, path);
+        } else {
+            path.clear();
+        }
+        return toResult(graph, s, start, end, cols, path, limit);
+    }
+
+    // Concurrent first queries of a maze wait for one build; queries of other mazes don't wait
+    private CorridorGraph graph(MazeGrid grid) {
+        CompletableFuture<CorridorGraph> existing = graphs.get(grid);
+        if (existing == null) {
+            CompletableFuture<CorridorGraph> building = new CompletableFuture<>();
+            existing = graphs.putIfAbsent(grid, building);
+            if (existing == null) {
+                try {
+                    building.complete(build(grid, DEFAULT_PRUNE_DEAD_ENDS));
+                } catch (RuntimeException | Error e) {
+                    graphs.remove(grid, building);
+                    building.completeExceptionally(e);
+                    throw e;
+                }
+                return building.join();
+            }
+        }
+        return existing.join();
+    }
+
+    private static CorridorGraph build(MazeGrid grid, boolean pruneDeadEnds) {
+        CorridorGraph graph = CorridorGraph.build(grid, pruneDeadEnds);
+        CorridorStats stats = stats(graph);
+        logger.info("Corridor graph built for {}x{} maze: compressed={}, openCells={}, nodes={}, corridors={}, pruned={}, bytes={}, time={} ms",
+                grid.getRows(), grid.getCols(), stats.isCompressed(), stats.getOpenCells(), stats.getNodes(), stats.getCorridors(),
+                stats.getPrunedNodes(), stats.getEstimatedBytes(), stats.getBuildMillis());
+        return graph;
+    }
+
+    // Pruned nodes are entered only toward the rest of the graph or on the way to end
+    private static boolean mayEnter(CorridorGraph graph, int from, int node, int[] endBranch) {
+        if (graph.pruned == null || !graph.pruned[node]) return true;
+        return (graph.pruned[from] && graph.toward[from] == node) || Arrays.binarySearch(endBranch, node) >= 0;
+    }
+
+    // Pruned nodes between end's corridor and the rest of the graph, sorted
+    private static int[] endBranch(CorridorGraph graph, Link fromEnd) {
+        if (graph.pruned == null) return new int[0];
+        IntList branch = new IntList();
+        for (int i = 0; i < fromEnd.count; i++) {
+            for (int node = fromEnd.node[i]; node != CorridorGraph.NONE && graph.pruned[node]; node = graph.toward[node]) {
+                branch.add(node);
+            }
+        }
+        int[] nodes = branch.toArray();
+        Arrays.sort(nodes);
+        return nodes;
+    }
+
+    private static void relax(SearchScratch s, IndexedMinHeap open, CorridorGraph graph, int from,
+                              int node, int g, int end, int cols) {
+        if (s.isTraversed(node) || g >= s.distanceOf(node)) return;
+        s.discover(node, g, from);
+        int cell = node < graph.nodeCount() ? graph.nodeCell[node] : end;
+        open.insertOrDecrease(node, g + estimate(cell, end, cols));
+    }
+
+    // Appends the cells after start up to node (a graph node reached from the source)
+    private static void expand(MazeGrid grid, CorridorGraph graph, SearchScratch s, int node,
+                               Link fromStart, IntList path) {
+        int source = graph.nodeCount();
+        if (node == source) return;
+        IntList chain = new IntList();
+        for (int at = node; at != source; at = s.parent[at]) {
+            chain.add(at);
+        }
+        int first = chain.get(chain.size() - 1);
+        fromStart.appendTo(grid, first, s.distance[first], path);
+        for (int i = chain.size() - 2; i >= 0; i--) {
+            int from = chain.get(i + 1);
+            int to = chain.get(i);
+            int cost = s.distance[to] - s.distance[from];
+            // Of parallel corridors, the one the search took has exactly the cost difference
+            for (int e = graph.edgeStart[from]; e < graph.edgeStart[from + 1]; e++) {
+                if (graph.edgeTarget[e] == to && graph.edgeCost[e] == cost) {
+                    CorridorGraph.walk(grid, graph.nodeCell[from], graph.edgeDirection[e], CorridorGraph.NONE, path);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static int nearest(CorridorGraph graph, SearchScratch s, int end, int cols) {
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < s.traversedCount; i++) {
+            int node = s.traversed[i];
+            if (node >= graph.nodeCount()) continue;
+            int distance = estimate(graph.nodeCell[node], end, cols);
+            if (distance < bestDistance) {
+                best = node;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private static SearchResult toResult(CorridorGraph graph, SearchScratch s, int start, int end, int cols,
+                                         IntList path, SearchLimit limit) {
+        int nodes = graph.nodeCount();
+        int count = s.traversedCount;
+        int[] traversed = new int[count];
+        int[] traversedDistance = new int[count];
+        int[] traversedParent = new int[count];
+        for (int i = 0; i < count; i++) {
+            int node = s.traversed[i];
+            int from = s.parent[node];
+            traversed[i] = node < nodes ? graph.nodeCell[node] : node == nodes ? start : end;
+            traversedDistance[i] = s.distance[node];
+            traversedParent[i] = from < 0 ? -1 : s.order[from];
+        }
+        boolean reached = path.size() > 0 && path.get(path.size() - 1) == end;
+        if (path.size() == 0) {
+            return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                    new int[] {end}, new int[] {Integer.MAX_VALUE}, false, s.heap.getPushes(), s.heap.getPops(), limit);
+        }
+        int[] pathDistance = new int[path.size()];
+        for (int i = 0; i < pathDistance.length; i++) {
+            pathDistance[i] = i;
+        }
+        return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                path.toArray(), pathDistance, reached, s.heap.getPushes(), s.heap.getPops(), reached ? null : limit);
+    }
+
+    private static int estimate(int cell, int goal, int cols) {
+        return Heuristic.MANHATTAN.estimate(Math.abs(cell / cols - goal / cols), Math.abs(cell % cols - goal % cols));
+    }
+
+    private static CorridorStats stats(CorridorGraph graph) {
+        return new CorridorStats(graph.compressed, graph.openCells, graph.nodes, graph.edgeCount(), graph.prunedCount(),
+                graph.estimatedBytes(), graph.buildNanos / 1_000_000.0);
+    }
+
+    // The nodes at the ends of cell's corridor (or cell itself, if it's a node) and their
+    // distances from cell. direct is the distance to other when it's on the same corridor.
+    private static final class Link {
+        final int cell;
+        final int[] node = new int[2];
+        final int[] cost = new int[2];
+        final int[] direction = new int[2];
+        int count;
+        int direct = Integer.MAX_VALUE;
+        int directDirection;
+
+        Link(MazeGrid grid, CorridorGraph graph, int cell, int other) {
+            this.cell = cell;
+            if (cell == other) {
+                direct = 0;
+            }
+            int self = graph.nodeAt(cell);
+            if (self >= 0) {
+                add(self, 0, CorridorGraph.NONE);
+                return;
+            }
+            int directions = CorridorGraph.openDirections(grid, cell);
+            for (int d = 0; d < 4; d++) {
+                if ((directions & 1 << d) == 0) continue;
+                long reached = CorridorGraph.walk(grid, cell, d, other, null);
+                int at = CorridorGraph.cellOf(reached);
+                int steps = CorridorGraph.stepsOf(reached);
+                if (at == other) {
+                    if (steps < direct) {
+                        direct = steps;
+                        directDirection = d;
+                    }
+                    // A node's own Link has no corridors, so the search needs this one to reach it
+                    if (graph.nodeAt(at) >= 0) add(graph.nodeAt(at), steps, d);
+                } else if (at != cell) { // not a loop without nodes
+                    add(graph.nodeAt(at), steps, d);
+                }
+            }
+        }
+
+        private void add(int node, int cost, int direction) {
+            this.node[count] = node;
+            this.cost[count] = cost;
+            this.direction[count++] = direction;
+        }
+
+        // Appends the cells after this link's cell up to node, reached at distance cost
+        void appendTo(MazeGrid grid, int node, int cost, IntList path) {
+            for (int i = 0; i < count; i++) {
+                if (this.node[i] == node && this.cost[i] == cost) {
+                    if (direction[i] != CorridorGraph.NONE) {
+                        CorridorGraph.walk(grid, cell, direction[i], CorridorGraph.NONE, path);
+                    }
+                    return;
+                }
+            }
+        }
+
+        // Appends the cells after node (cost away from this link's cell, and last on path) up
+        // to and including this link's cell
+        void appendFrom(MazeGrid grid, int node, int cost, IntList path) {
+            for (int i = 0; i < count; i++) {
+                if (this.node[i] == node && this.cost[i] == cost) {
+                    if (direction[i] == CorridorGraph.NONE) return;
+                    // Walked from this link's cell to node, so reversed, without node itself
+                    int at = path.size();
+                    CorridorGraph.walk(grid, cell, direction[i], CorridorGraph.NONE, path);
+                    path.truncate(path.size() - 1);
+                    for (int lo = at, hi = path.size() - 1; lo < hi; lo++, hi--) {
+                        int swap = path.get(lo);
+                        path.set(lo, path.get(hi));
+                        path.set(hi, swap);
+                    }
+                    path.add(cell);
+                    return;
+                }
+            }
+        }
+    }
+}
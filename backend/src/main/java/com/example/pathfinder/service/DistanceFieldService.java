@@ -0,0 +1,64 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.DistanceField;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.SearchResult;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Single-source distance fields, cached per (maze, source) so queries that share a start
+// cell cost one flood in total. The cache is bounded by the cells it holds (about 5 bytes
+// each) and drops the least recently used fields first.
+@Service
+public class DistanceFieldService {
+    private static final long MAX_CACHED_CELLS = 1L << 24;
+
+    private record FieldKey(MazeGrid grid, int source) {}
+
+    private final LinkedHashMap<FieldKey, DistanceField> fields = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedCells;
+
+    public DistanceField field(MazeGrid grid, Position source) {
+        return field(grid, source, SearchBudget.UNLIMITED);
+    }
+
+    // A field has no useful partial form: one that would flood more open cells than the
+    // budget's maxNodes is refused unless it is already cached
+    public DistanceField field(MazeGrid grid, Position source, SearchBudget budget) {
+        FieldKey key = new FieldKey(grid, grid.index(source.getRow(), source.getCol()));
+        synchronized (this) {
+            DistanceField field = fields.get(key);
+            if (field != null) return field;
+        }
+        int open = grid.openCells();
+        if (open > budget.getMaxNodes()) {
+            throw new IllegalArgumentException("A distance field of this maze floods " + open
+                    + " cells, more than the limit of " + budget.getMaxNodes() + ".");
+        }
+        // Flood outside the lock; two racing requests at worst both compute the same field
+        DistanceField field = GridSearchEngine.distanceField(grid, key.source());
+        synchronized (this) {
+            if (fields.putIfAbsent(key, field) == null) {
+                cachedCells += grid.size();
+                evict();
+            }
+        }
+        return field;
+    }
+
+    public SearchResult pathTo(DistanceField field, Position target) {
+        return field.pathTo(field.getGrid().index(target.getRow(), target.getCol()));
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<FieldKey, DistanceField>> eldest = fields.entrySet().iterator();
+        while (cachedCells > MAX_CACHED_CELLS && fields.size() > 1) {
+            cachedCells -= eldest.next().getKey().grid().size();
+            eldest.remove();
+        }
+    }
+}
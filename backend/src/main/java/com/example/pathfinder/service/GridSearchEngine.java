@@ -0,0 +1,346 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.DistanceField;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.service.queue.IntPriorityQueue;
+
+import java.util.Arrays;
+
+// Allocation-free search core shared by every algorithm in PathfindingService. Works on the
+// packed MazeGrid and the calling thread's SearchScratch; only the SearchResult is allocated.
+final class GridSearchEngine {
+    // Same neighbor order as before: right, down, left, up, then the diagonals
+    private static final int[] ROW_STEPS = {0, 1, 0, -1, 1, 1, -1, -1};
+    private static final int[] COL_STEPS = {1, 0, -1, 0, 1, -1, -1, 1};
+    // Widest key window worth covering with buckets before the heap is cheaper
+    private static final int MAX_BUCKET_SPAN = 1 << 12;
+    // 8-connected costs are in tenths of a step so diagonals stay integral
+    static final int STRAIGHT_STEP = 10;
+    static final int DIAGONAL_STEP = 14;
+
+    private GridSearchEngine() {}
+
+    static SearchResult dijkstra(MazeGrid grid, int start, int end) {
+        return dijkstra(grid, start, end, Movement.FOUR);
+    }
+
+    // Distances are the summed cell costs of the cells entered, times STRAIGHT_STEP or
+    // DIAGONAL_STEP per move with EIGHT
+    static SearchResult dijkstra(MazeGrid grid, int start, int end, Movement movement) {
+        SearchScratch s = SearchScratch.acquire(grid.size());
+        IntPriorityQueue queue = queueFor(s, grid.size(), maxStepCost(grid, movement));
+        s.discover(start, 0, -1);
+        queue.insertOrDecrease(start, 0);
+
+        while (!queue.isEmpty() && s.halted == null) {
+            int cell = queue.pollMin();
+            s.traverse(cell);
+            if (cell == end) break;
+
+            int count = untraversedNeighbors(grid, s, cell, end, movement);
+            for (int i = 0; i < count; i++) {
+                int neighbor = s.neighbors[i];
+                int next = s.distance[cell] + s.stepCost[i];
+                if (next < s.distanceOf(neighbor)) {
+                    s.discover(neighbor, next, cell);
+                    queue.insertOrDecrease(neighbor, next);
+                }
+            }
+        }
+        return toResult(grid, s, end, queue.getPushes(), queue.getPops());
+    }
+
+    static SearchResult aStar(MazeGrid grid, int start, int end, Heuristic heuristic, double weight) {
+        return aStar(grid, start, end, heuristic, weight, Movement.FOUR);
+    }
+
+    // Weighted A*: f = g + weight * h, with h evaluated only for cells that get discovered.
+    // A weight above 1 trades optimality for fewer expansions.
+    static SearchResult aStar(MazeGrid grid, int start, int end, Heuristic heuristic, double weight, Movement movement) {
+        SearchScratch s = SearchScratch.acquire(grid.size());
+        int cols = grid.getCols();
+        int endRow = end / cols;
+        int endCol = end - endRow * cols;
+        // A consistent heuristic lets f grow by at most the step cost plus the most h can change
+        // in one move; weights break that
+        int maxIncrease = maxStepCost(grid, movement) + (movement == Movement.EIGHT ? DIAGONAL_STEP : 1);
+        IntPriorityQueue queue = queueFor(s, grid.size(), weight == 1.0 ? maxIncrease : Integer.MAX_VALUE);
+        s.discover(start, 0, -1);
+        queue.insertOrDecrease(start, estimate(heuristic, weight, movement, start, cols, endRow, endCol));
+
+        while (!queue.isEmpty() && s.halted == null) {
+            int cell = queue.pollMin();
+            s.traverse(cell);
+            if (cell == end) break;
+
+            int count = untraversedNeighbors(grid, s, cell, end, movement);
+            for (int i = 0; i < count; i++) {
+                int neighbor = s.neighbors[i];
+                int next = s.distance[cell] + s.stepCost[i];
+                if (next < s.distanceOf(neighbor)) {
+                    s.discover(neighbor, next, cell);
+                    queue.insertOrDecrease(neighbor, key(next, estimate(heuristic, weight, movement, neighbor, cols, endRow, endCol)));
+                }
+            }
+        }
+        return toResult(grid, s, end, queue.getPushes(), queue.getPops());
+    }
+
+    static SearchResult bfs(MazeGrid grid, int start, int end) {
+        SearchScratch s = SearchScratch.acquire(grid.size());
+        int[] queue = s.queue;
+        int head = 0;
+        int tail = 0;
+        s.discover(start, 0, -1);
+        queue[tail++] = start;
+
+        while (head < tail && s.halted == null) {
+            int cell = queue[head++];
+            s.traverse(cell);
+            if (cell == end) break;
+
+            int next = s.distance[cell] + 1;
+            int count = untraversedNeighbors(grid, s, cell, end, Movement.FOUR);
+            for (int i = 0; i < count; i++) {
+                int neighbor = s.neighbors[i];
+                if (!s.isDiscovered(neighbor)) { // each cell enters the queue once
+                    s.discover(neighbor, next, cell);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return toResult(grid, s, end, tail, head);
+    }
+
+    static SearchResult dfs(MazeGrid grid, int start, int end) {
+        SearchScratch s = SearchScratch.acquire(grid.size());
+        int[] stack = s.queue;
+        int top = 0;
+        int pushes = 1;
+        int pops = 0;
+        s.discover(start, 0, -1);
+        stack[top++] = start;
+
+        while (top > 0 && s.halted == null) {
+            int cell = stack[--top];
+            pops++;
+            if (s.isTraversed(cell)) continue; // pushed again by a later neighbor
+            s.traverse(cell);
+            if (cell == end) break;
+
+            int next = s.distance[cell] + 1;
+            int count = untraversedNeighbors(grid, s, cell, end, Movement.FOUR);
+            stack = s.stack(top + count);
+            for (int i = 0; i < count; i++) {
+                int neighbor = s.neighbors[i];
+                s.discover(neighbor, next, cell);
+                stack[top++] = neighbor;
+            }
+            pushes += count;
+        }
+        return toResult(grid, s, end, pushes, pops);
+    }
+
+    // Floods the whole maze from source, 4-connected; each cell remembers the direction it was
+    // entered from. With unit costs BFS order gives exact distances, otherwise the flood is
+    // Dijkstra over the cost of each cell entered, like dijkstra() with Movement.FOUR.
+    static DistanceField distanceField(MazeGrid grid, int source) {
+        if (grid.isWeighted()) return costField(grid, source);
+        SearchScratch s = SearchScratch.acquire(grid.size());
+        int cols = grid.getCols();
+        int[] distance = new int[grid.size()];
+        byte[] arrivedBy = new byte[grid.size()];
+        Arrays.fill(distance, DistanceField.UNREACHABLE);
+        int[] queue = s.queue;
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        arrivedBy[source] = -1;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int row = cell / cols;
+            int col = cell - row * cols;
+            int next = distance[cell] + 1;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + ROW_STEPS[d];
+                int newCol = col + COL_STEPS[d];
+                if (grid.inBounds(newRow, newCol) && !grid.isWall(newRow, newCol)) {
+                    int neighbor = newRow * cols + newCol;
+                    if (distance[neighbor] == DistanceField.UNREACHABLE) {
+                        distance[neighbor] = next;
+                        arrivedBy[neighbor] = (byte) d;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        return new DistanceField(grid, source, distance, arrivedBy, distance[queue[tail - 1]]);
+    }
+
+    private static DistanceField costField(MazeGrid grid, int source) {
+        SearchScratch s = SearchScratch.acquire(grid.size());
+        int cols = grid.getCols();
+        int[] distance = new int[grid.size()];
+        byte[] arrivedBy = new byte[grid.size()];
+        Arrays.fill(distance, DistanceField.UNREACHABLE);
+        IntPriorityQueue queue = queueFor(s, grid.size(), grid.getMaxCost());
+        distance[source] = 0;
+        arrivedBy[source] = -1;
+        queue.insertOrDecrease(source, 0);
+
+        int maxDistance = 0;
+        while (!queue.isEmpty()) {
+            int cell = queue.pollMin();
+            maxDistance = distance[cell]; // polled in distance order, so the last is the farthest
+            int row = cell / cols;
+            int col = cell - row * cols;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + ROW_STEPS[d];
+                int newCol = col + COL_STEPS[d];
+                if (grid.inBounds(newRow, newCol) && !grid.isWall(newRow, newCol)) {
+                    int neighbor = newRow * cols + newCol;
+                    int next = distance[cell] + grid.cost(neighbor);
+                    if (next < distance[neighbor]) {
+                        distance[neighbor] = next;
+                        arrivedBy[neighbor] = (byte) d;
+                        queue.insertOrDecrease(neighbor, next);
+                    }
+                }
+            }
+        }
+        return new DistanceField(grid, source, distance, arrivedBy, maxDistance);
+    }
+
+    // Dial's buckets when keys can only grow by a small bounded step, otherwise the indexed heap
+    private static IntPriorityQueue queueFor(SearchScratch s, int size, int maxKeyIncrease) {
+        if (maxKeyIncrease <= MAX_BUCKET_SPAN) {
+            s.buckets.reset(size, maxKeyIncrease);
+            return s.buckets;
+        }
+        s.heap.reset(size);
+        return s.heap;
+    }
+
+    private static int maxStepCost(MazeGrid grid, Movement movement) {
+        return movement == Movement.EIGHT ? DIAGONAL_STEP * grid.getMaxCost() : grid.getMaxCost();
+    }
+
+    // Fills s.neighbors with open, not yet traversed neighbors and s.stepCost with the cost of
+    // moving to each, and returns how many there are. The end cell counts as open even when the
+    // stored maze has a wall there. Diagonal moves need both cells beside the move open.
+    private static int untraversedNeighbors(MazeGrid grid, SearchScratch s, int cell, int end, Movement movement) {
+        int cols = grid.getCols();
+        int row = cell / cols;
+        int col = cell - row * cols;
+        boolean eight = movement == Movement.EIGHT;
+        int count = 0;
+        for (int d = 0; d < (eight ? 8 : 4); d++) {
+            int newRow = row + ROW_STEPS[d];
+            int newCol = col + COL_STEPS[d];
+            if (!grid.inBounds(newRow, newCol)) continue;
+            int neighbor = newRow * cols + newCol;
+            if ((grid.isWall(newRow, newCol) && neighbor != end) || s.isTraversed(neighbor)) continue;
+            int step = STRAIGHT_STEP;
+            if (d >= 4) {
+                if (!open(grid, row, newCol, end) || !open(grid, newRow, col, end)) continue;
+                step = DIAGONAL_STEP;
+            }
+            s.neighbors[count] = neighbor;
+            s.stepCost[count++] = eight ? step * grid.cost(neighbor) : grid.cost(neighbor);
+        }
+        return count;
+    }
+
+    private static boolean open(MazeGrid grid, int row, int col, int end) {
+        return !grid.isWall(row, col) || grid.index(row, col) == end;
+    }
+
+    private static int estimate(Heuristic heuristic, double weight, Movement movement, int cell, int cols, int endRow, int endCol) {
+        int row = cell / cols;
+        int rowDelta = Math.abs(row - endRow);
+        int colDelta = Math.abs(cell - row * cols - endCol);
+        int h = movement == Movement.EIGHT
+                ? heuristic.diagonalEstimate(rowDelta, colDelta)
+                : heuristic.estimate(rowDelta, colDelta);
+        return weight == 1.0 ? h : (int) Math.min(Integer.MAX_VALUE, weight * h);
+    }
+
+    // g + h, saturating rather than wrapping around on huge costs or weights
+    private static int key(int distance, int estimate) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) distance + estimate);
+    }
+
+    // Parents may be several cells away in a straight line (jump points); the cells in between
+    // are filled in so the path is always contiguous. A search stopped by its budget before
+    // reaching end gets the path to the traversed cell nearest to end instead.
+    static SearchResult toResult(MazeGrid grid, SearchScratch s, int end, int pushes, int pops) {
+        int cols = grid.getCols();
+        int count = s.drain();
+        int[] traversed = new int[count];
+        int[] traversedDistance = new int[count];
+        int[] traversedParent = new int[count];
+        for (int i = 0; i < count; i++) {
+            int cell = s.traversed[i];
+            int from = s.parent[cell];
+            traversed[i] = cell;
+            traversedDistance[i] = s.distance[cell];
+            traversedParent[i] = from < 0 ? -1 : s.order[from];
+        }
+
+        boolean reached = s.isTraversed(end);
+        SearchLimit limit = reached ? null : s.halted;
+        int target = reached ? end : limit != null ? nearest(s, traversed, cols, end) : -1;
+        int[] path;
+        int[] pathDistance;
+        if (target >= 0) {
+            int length = 1;
+            for (int cell = target; s.parent[cell] >= 0; cell = s.parent[cell]) {
+                length += steps(cols, s.parent[cell], cell);
+            }
+            path = new int[length];
+            pathDistance = new int[length];
+            int i = length - 1;
+            for (int cell = target; cell >= 0; cell = s.parent[cell]) {
+                path[i] = cell;
+                pathDistance[i--] = s.distance[cell];
+                int from = s.parent[cell];
+                if (from < 0) break;
+                int gap = steps(cols, from, cell);
+                int stride = (from / cols - cell / cols) / gap * cols + (from % cols - cell % cols) / gap;
+                for (int k = 1; k < gap; k++) {
+                    path[i] = cell + k * stride;
+                    pathDistance[i--] = s.distance[from] + gap - k;
+                }
+            }
+        } else {
+            path = new int[] {end};
+            pathDistance = new int[] {Integer.MAX_VALUE};
+        }
+        return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                path, pathDistance, reached, pushes, pops, limit);
+    }
+
+    // Traversed cell closest to end by Manhattan distance, or -1 if none (all streamed out)
+    private static int nearest(SearchScratch s, int[] traversed, int cols, int end) {
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int cell : traversed) {
+            int distance = Math.abs(cell / cols - end / cols) + Math.abs(cell % cols - end % cols);
+            if (distance < bestDistance) {
+                best = cell;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    // Number of single moves between two cells on a common row, column or diagonal
+    private static int steps(int cols, int from, int to) {
+        return Math.max(Math.abs(from / cols - to / cols), Math.abs(from % cols - to % cols));
+    }
+}
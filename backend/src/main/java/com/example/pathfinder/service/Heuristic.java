@@ -0,0 +1,45 @@
+package com.example.pathfinder.service;
+
+// A* distance estimates in unit steps, given the absolute row and column offsets to the goal.
+// All three are consistent on the unit-cost grid, so A* with weight 1 stays optimal. Cell costs
+// are at least 1, so they stay consistent on weighted grids too.
+public enum Heuristic {
+    MANHATTAN {
+        @Override
+        public int estimate(int rowDelta, int colDelta) {
+            return rowDelta + colDelta;
+        }
+    },
+    OCTILE {
+        @Override
+        public int estimate(int rowDelta, int colDelta) {
+            int max = Math.max(rowDelta, colDelta);
+            int min = Math.min(rowDelta, colDelta);
+            return max + (int) (SQRT2_MINUS_ONE * min);
+        }
+    },
+    EUCLIDEAN {
+        @Override
+        public int estimate(int rowDelta, int colDelta) {
+            return (int) Math.sqrt((double) rowDelta * rowDelta + (double) colDelta * colDelta);
+        }
+    };
+
+    private static final double SQRT2_MINUS_ONE = Math.sqrt(2) - 1;
+    // Just under 14 / sqrt(2), so rounding can't push a diagonal step's estimate past 14
+    private static final double EUCLIDEAN_SCALE = 9.899;
+
+    public abstract int estimate(int rowDelta, int colDelta);
+
+    // Estimate for 8-connected movement, in the engine's tenths of a step (10 straight, 14
+    // diagonal). Manhattan overestimates once diagonals are allowed, so it falls back to octile;
+    // Euclidean is scaled so a diagonal step never counts for more than 14.
+    public int diagonalEstimate(int rowDelta, int colDelta) {
+        if (this == EUCLIDEAN) {
+            return (int) (EUCLIDEAN_SCALE * Math.sqrt((double) rowDelta * rowDelta + (double) colDelta * colDelta));
+        }
+        int max = Math.max(rowDelta, colDelta);
+        int min = Math.min(rowDelta, colDelta);
+        return GridSearchEngine.STRAIGHT_STEP * max + (GridSearchEngine.DIAGONAL_STEP - GridSearchEngine.STRAIGHT_STEP) * min;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.HierarchyStats;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.repository.MazeEditedEvent;
+import com.example.pathfinder.service.ClusterGraph.ClusterBfs;
+import com.example.pathfinder.service.queue.IndexedMinHeap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+
+// Hierarchical (HPA*) routing for static mazes that answer many queries. Each maze is
+// preprocessed once into a ClusterGraph; a query links start and end into it, runs A* over
+// the abstract graph and refines each abstract hop with a BFS bounded to one cluster.
+// Paths are near-optimal: detours are limited to how entrances were placed on cluster borders.
+@Service
+public class HierarchicalPathfinder {
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+    // Each cluster BFS holds clusterSize squared distances
+    public static final int MAX_CLUSTER_SIZE = 256;
+    private static final Logger logger = LoggerFactory.getLogger(HierarchicalPathfinder.class);
+
+    // Keyed by the immutable snapshot, so a graph goes away together with its maze. The map's
+    // lock only guards the futures; graphs are built outside it, once per maze.
+    private final Map<MazeGrid, CompletableFuture<ClusterGraph>> graphs = Collections.synchronizedMap(new WeakHashMap<>());
+    // Cluster size each maze was preprocessed with, carried over to its edited snapshots
+    private final Map<MazeGrid, Integer> clusterSizes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static void checkClusterSize(int clusterSize) {
+        if (clusterSize < 2 || clusterSize > MAX_CLUSTER_SIZE) {
+            throw new IllegalArgumentException("Cluster size must be between 2 and " + MAX_CLUSTER_SIZE + ".");
+        }
+    }
+
+    // Clusters larger than the maze are the same single cluster, so the size is capped to it
+    public HierarchyStats preprocess(MazeGrid grid, int clusterSize) {
+        checkClusterSize(clusterSize);
+        int size = Math.max(2, Math.min(clusterSize, Math.max(grid.getRows(), grid.getCols())));
+        ClusterGraph graph = build(grid, size);
+        clusterSizes.put(grid, size);
+        graphs.put(grid, CompletableFuture.completedFuture(graph));
+        return stats(graph);
+    }
+
+    // Size of the clusters the maze's queries are answered with; results differ between sizes
+    public int clusterSize(MazeGrid grid) {
+        Integer size = clusterSizes.get(grid);
+        return size != null ? size : DEFAULT_CLUSTER_SIZE;
+    }
+
+    // The edited snapshot's graph is built on its first query, with the size the maze had
+    @EventListener
+    public void onMazeEdited(MazeEditedEvent event) {
+        Integer size = clusterSizes.get(event.getPrevious());
+        if (size != null) clusterSizes.put(event.getCurrent(), size);
+    }
+
+    // Empty while the graph is still being built
+    public Optional<HierarchyStats> getStats(MazeGrid grid) {
+        CompletableFuture<ClusterGraph> graph = graphs.get(grid);
+        return graph == null || !graph.isDone() || graph.isCompletedExceptionally()
+                ? Optional.empty() : Optional.of(stats(graph.join()));
+    }
+
+    SearchResult search(MazeGrid grid, int start, int end) {
+        // Walled endpoints are opened per query, which the precomputed entrances can't reflect
+        if (grid.isWall(start) || grid.isWall(end)) {
+            return GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0);
+        }
+        ClusterGraph graph = graph(grid);
+        int cols = grid.getCols();
+        int nodes = graph.nodeCount();
+        int source = nodes;
+        int target = nodes + 1;
+        int startCluster = graph.clusterOf(start, cols);
+        int endCluster = graph.clusterOf(end, cols);
+
+        ClusterBfs fromStart = new ClusterBfs(graph.clusterSize);
+        fromStart.bounds(grid, startCluster / graph.clusterCols, startCluster % graph.clusterCols);
+        fromStart.run(grid, start, start, end);
+        ClusterBfs fromEnd = new ClusterBfs(graph.clusterSize);
+        fromEnd.bounds(grid, endCluster / graph.clusterCols, endCluster % graph.clusterCols);
+        fromEnd.run(grid, end, start, end);
+        int direct = startCluster == endCluster ? fromStart.distance(end) : Integer.MAX_VALUE;
+
+        // A* over the abstract graph plus the temporary source and target nodes
+        SearchScratch s = SearchScratch.acquire(nodes + 2);
+        IndexedMinHeap open = s.heap;
+        open.reset(nodes + 2);
+        s.discover(source, 0, -1);
+        open.insertOrDecrease(source, estimate(start, end, cols));
+        while (!open.isEmpty() && open.minKey() < direct) {
+            int node = open.pollMin();
+            s.traverse(node);
+            if (node == target) break;
+
+            int g = s.distance[node];
+            if (node == source) {
+                for (int i = graph.clusterNodeStart[startCluster]; i < graph.clusterNodeStart[startCluster + 1]; i++) {
+                    int next = graph.clusterNodes[i];
+                    int cost = fromStart.distance(graph.nodeCell[next]);
+                    if (cost != Integer.MAX_VALUE) relax(s, open, graph, node, next, g + cost, end, cols);
+                }
+                continue;
+            }
+            for (int e = graph.edgeStart[node]; e < graph.edgeStart[node + 1]; e++) {
+                relax(s, open, graph, node, graph.edgeTarget[e], g + graph.edgeCost[e], end, cols);
+            }
+            if (graph.clusterOf(graph.nodeCell[node], cols) == endCluster) {
+                int cost = fromEnd.distance(graph.nodeCell[node]);
+                if (cost != Integer.MAX_VALUE) relax(s, open, graph, node, target, g + cost, end, cols);
+            }
+        }
+
+        int abstractCost = s.isTraversed(target) ? s.distance[target] : Integer.MAX_VALUE;
+        IntList path = new IntList();
+        if (direct != Integer.MAX_VALUE && direct <= abstractCost) {
+            fromStart.appendPath(end, path, false);
+        } else if (abstractCost != Integer.MAX_VALUE) {
+            refine(grid, graph, s, target, fromStart, fromEnd, start, end, path);
+        }
+        return toResult(graph, s, start, end, cols, path);
+    }
+
+    // Concurrent first queries of a maze wait for one build; queries of other mazes don't wait
+    private ClusterGraph graph(MazeGrid grid) {
+        CompletableFuture<ClusterGraph> existing = graphs.get(grid);
+        if (existing == null) {
+            CompletableFuture<ClusterGraph> building = new CompletableFuture<>();
+            existing = graphs.putIfAbsent(grid, building);
+            if (existing == null) {
+                try {
+                    building.complete(build(grid, clusterSize(grid)));
+                } catch (RuntimeException | Error e) {
+                    graphs.remove(grid, building);
+                    building.completeExceptionally(e);
+                    throw e;
+                }
+                return building.join();
+            }
+        }
+        return existing.join();
+    }
+
+    private static ClusterGraph build(MazeGrid grid, int clusterSize) {
+        ClusterGraph graph = ClusterGraph.build(grid, clusterSize);
+        HierarchyStats stats = stats(graph);
+        logger.info("Cluster graph built for {}x{} maze: clusterSize={}, nodes={}, edges={}, bytes={}, time={} ms",
+                grid.getRows(), grid.getCols(), clusterSize, stats.getNodes(), stats.getEdges(),
+                stats.getEstimatedBytes(), stats.getBuildMillis());
+        return graph;
+    }
+
+    private static void relax(SearchScratch s, IndexedMinHeap open, ClusterGraph graph, int from,
+                              int node, int g, int end, int cols) {
+        if (s.isTraversed(node) || g >= s.distanceOf(node)) return;
+        s.discover(node, g, from);
+        int cell = node < graph.nodeCount() ? graph.nodeCell[node] : end;
+        open.insertOrDecrease(node, g + estimate(cell, end, cols));
+    }
+
+    // Expands source -> entrance nodes -> target into grid cells
+    private static void refine(MazeGrid grid, ClusterGraph graph, SearchScratch s, int target,
+                               ClusterBfs fromStart, ClusterBfs fromEnd, int start, int end, IntList path) {
+        IntList chain = new IntList();
+        for (int node = s.parent[target]; node != graph.nodeCount(); node = s.parent[node]) {
+            chain.add(node);
+        }
+        int cols = grid.getCols();
+        ClusterBfs hop = new ClusterBfs(graph.clusterSize);
+        int previous = graph.nodeCell[chain.get(chain.size() - 1)];
+        fromStart.appendPath(previous, path, false);
+        for (int i = chain.size() - 2; i >= 0; i--) {
+            int cell = graph.nodeCell[chain.get(i)];
+            if (Math.abs(cell / cols - previous / cols) + Math.abs(cell % cols - previous % cols) == 1) {
+                path.add(cell);
+            } else {
+                int cluster = graph.clusterOf(previous, cols);
+                hop.bounds(grid, cluster / graph.clusterCols, cluster % graph.clusterCols);
+                hop.run(grid, previous, start, end);
+                hop.appendPath(cell, path, true);
+            }
+            previous = cell;
+        }
+        fromEnd.appendPathBack(previous, path);
+    }
+
+    private static SearchResult toResult(ClusterGraph graph, SearchScratch s, int start, int end, int cols, IntList path) {
+        int nodes = graph.nodeCount();
+        int count = s.traversedCount;
+        int[] traversed = new int[count];
+        int[] traversedDistance = new int[count];
+        int[] traversedParent = new int[count];
+        for (int i = 0; i < count; i++) {
+            int node = s.traversed[i];
+            int from = s.parent[node];
+            traversed[i] = node < nodes ? graph.nodeCell[node] : node == nodes ? start : end;
+            traversedDistance[i] = s.distance[node];
+            traversedParent[i] = from < 0 ? -1 : s.order[from];
+        }
+        if (path.size() == 0) {
+            return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                    new int[] {end}, new int[] {Integer.MAX_VALUE}, false, s.heap.getPushes(), s.heap.getPops());
+        }
+        int[] pathDistance = new int[path.size()];
+        for (int i = 0; i < pathDistance.length; i++) {
+            pathDistance[i] = i;
+        }
+        return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                path.toArray(), pathDistance, true, s.heap.getPushes(), s.heap.getPops());
+    }
+
+    private static int estimate(int cell, int goal, int cols) {
+        return Heuristic.MANHATTAN.estimate(Math.abs(cell / cols - goal / cols), Math.abs(cell % cols - goal % cols));
+    }
+
+    private static HierarchyStats stats(ClusterGraph graph) {
+        return new HierarchyStats(graph.clusterSize, graph.nodeCount(), graph.edgeCount(),
+                graph.estimatedBytes(), graph.buildNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.repository.MazeEditedEvent;
+import com.example.pathfinder.repository.MazeRemovedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps an LPA* planner per (maze snapshot, start, end). When a stored maze is edited, its
+// planners move over to the new snapshot with just the flipped cells marked, so the next
+// query repairs the previous search instead of starting over. Bounded by total planner cells
+// (roughly 24 bytes each), least recently used first. Mazes too large for a share of that get
+// plain A* instead, so one huge planner can't push out all the others.
+@Service
+public class IncrementalPlanner {
+    private static final long MAX_PLANNER_CELLS = 1L << 23;
+    static final long MAX_CELLS_PER_PLANNER = MAX_PLANNER_CELLS / 4;
+
+    private record PlannerKey(MazeGrid grid, int start, int end) {}
+
+    private final LinkedHashMap<PlannerKey, LifelongPlanner> planners = new LinkedHashMap<>(16, 0.75f, true);
+    private long plannerCells;
+
+    SearchResult search(MazeGrid grid, int start, int end) {
+        if (grid.size() > MAX_CELLS_PER_PLANNER) {
+            return GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0);
+        }
+        PlannerKey key = new PlannerKey(grid, start, end);
+        LifelongPlanner planner;
+        synchronized (this) {
+            planner = planners.get(key);
+        }
+        if (planner == null) {
+            // Allocated outside the lock, which edits and every other lookup need
+            LifelongPlanner created = new LifelongPlanner(grid, start, end);
+            synchronized (this) {
+                planner = planners.get(key); // another request may have added one meanwhile
+                if (planner == null) {
+                    planner = created;
+                    planners.put(key, planner);
+                    plannerCells += planner.size();
+                    evict();
+                }
+            }
+        }
+        synchronized (planner) {
+            // An edit may have moved the planner on since it was looked up
+            if (planner.getGrid() != grid) {
+                return new LifelongPlanner(grid, start, end).plan();
+            }
+            return planner.plan();
+        }
+    }
+
+    @EventListener
+    public void onMazeEdited(MazeEditedEvent event) {
+        List<LifelongPlanner> moved = new ArrayList<>();
+        synchronized (this) {
+            List<PlannerKey> keys = new ArrayList<>();
+            Iterator<Map.Entry<PlannerKey, LifelongPlanner>> entries = planners.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<PlannerKey, LifelongPlanner> entry = entries.next();
+                if (entry.getKey().grid() == event.getPrevious()) {
+                    keys.add(new PlannerKey(event.getCurrent(), entry.getKey().start(), entry.getKey().end()));
+                    moved.add(entry.getValue());
+                    entries.remove();
+                }
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                planners.put(keys.get(i), moved.get(i));
+            }
+        }
+        // A query that finds a planner before its update lands just plans from scratch
+        for (LifelongPlanner planner : moved) {
+            synchronized (planner) {
+                planner.update(event.getCurrent(), event.getChangedCells());
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onMazeRemoved(MazeRemovedEvent event) {
+        Iterator<Map.Entry<PlannerKey, LifelongPlanner>> entries = planners.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<PlannerKey, LifelongPlanner> entry = entries.next();
+            if (entry.getKey().grid() == event.getGrid()) {
+                plannerCells -= entry.getValue().size();
+                entries.remove();
+            }
+        }
+    }
+
+    synchronized int plannerCount() {
+        return planners.size();
+    }
+
+    private void evict() {
+        Iterator<LifelongPlanner> eldest = planners.values().iterator();
+        while (plannerCells > MAX_PLANNER_CELLS && planners.size() > 1) {
+            plannerCells -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.service.queue.IndexedMinHeap;
+
+// Jump Point Search for uniform-cost, 4-connected grids. Straight runs are skipped by jumping
+// until a cell where the search has to branch (a forced neighbor, or a turn that leads to one),
+// so only those jump points enter the open list. Paths are optimal, like Dijkstra's.
+// Jumps are plain loops rather than recursion so long corridors can't overflow the stack.
+final class JumpPointSearch {
+    private static final int NONE = -1;
+
+    private final MazeGrid grid;
+    private final int cols;
+    private final int end;
+    private final int endRow;
+    private final int endCol;
+
+    private JumpPointSearch(MazeGrid grid, int end) {
+        this.grid = grid;
+        this.cols = grid.getCols();
+        this.end = end;
+        this.endRow = end / cols;
+        this.endCol = end % cols;
+    }
+
+    static SearchResult search(MazeGrid grid, int start, int end) {
+        return new JumpPointSearch(grid, end).run(start);
+    }
+
+    private SearchResult run(int start) {
+        SearchScratch s = SearchScratch.acquire(grid.size());
+        IndexedMinHeap open = s.heap;
+        open.reset(grid.size());
+        s.discover(start, 0, NONE);
+        open.insertOrDecrease(start, estimate(start / cols, start % cols));
+
+        while (!open.isEmpty() && s.halted == null) {
+            int cell = open.pollMin();
+            s.traverse(cell);
+            if (cell == end) break;
+
+            int row = cell / cols;
+            int col = cell - row * cols;
+            int from = s.parent[cell];
+            if (from == NONE) {
+                tryJump(s, open, cell, row, col, 0, 1);
+                tryJump(s, open, cell, row, col, 1, 0);
+                tryJump(s, open, cell, row, col, 0, -1);
+                tryJump(s, open, cell, row, col, -1, 0);
+                continue;
+            }
+
+            // Only continue straight on or turn sideways; going back is never shorter
+            int fromRow = from / cols;
+            int dr = Integer.signum(row - fromRow);
+            int dc = Integer.signum(col - (from - fromRow * cols));
+            if (dc != 0) {
+                tryJump(s, open, cell, row, col, -1, 0);
+                tryJump(s, open, cell, row, col, 1, 0);
+            } else {
+                tryJump(s, open, cell, row, col, 0, -1);
+                tryJump(s, open, cell, row, col, 0, 1);
+            }
+            tryJump(s, open, cell, row, col, dr, dc);
+        }
+        return GridSearchEngine.toResult(grid, s, end, open.getPushes(), open.getPops());
+    }
+
+    private void tryJump(SearchScratch s, IndexedMinHeap open, int cell, int row, int col, int dr, int dc) {
+        int target = dc != 0 ? jumpHorizontal(row, col + dc, dc) : jumpVertical(row + dr, col, dr);
+        if (target == NONE || s.isTraversed(target)) return;
+
+        int targetRow = target / cols;
+        int targetCol = target - targetRow * cols;
+        int g = s.distance[cell] + Math.abs(targetRow - row) + Math.abs(targetCol - col);
+        if (g < s.distanceOf(target)) {
+            s.discover(target, g, cell);
+            open.insertOrDecrease(target, g + estimate(targetRow, targetCol));
+        }
+    }
+
+    // Walks along the row until the goal, a dead end, or a cell where a vertical branch opens up
+    private int jumpHorizontal(int row, int col, int dc) {
+        while (walkable(row, col)) {
+            if (row == endRow && col == endCol) return grid.index(row, col);
+            if ((walkable(row - 1, col) && !walkable(row - 1, col - dc))
+                    || (walkable(row + 1, col) && !walkable(row + 1, col - dc))) {
+                return grid.index(row, col);
+            }
+            col += dc;
+        }
+        return NONE;
+    }
+
+    // Walks along the column; any cell with a forced neighbor or a productive sideways jump stops it
+    private int jumpVertical(int row, int col, int dr) {
+        while (walkable(row, col)) {
+            if (row == endRow && col == endCol) return grid.index(row, col);
+            if ((walkable(row, col - 1) && !walkable(row - dr, col - 1))
+                    || (walkable(row, col + 1) && !walkable(row - dr, col + 1))) {
+                return grid.index(row, col);
+            }
+            if (jumpHorizontal(row, col + 1, 1) != NONE || jumpHorizontal(row, col - 1, -1) != NONE) {
+                return grid.index(row, col);
+            }
+            row += dr;
+        }
+        return NONE;
+    }
+
+    private boolean walkable(int row, int col) {
+        return grid.inBounds(row, col) && (!grid.isWall(row, col) || (row == endRow && col == endCol));
+    }
+
+    private int estimate(int row, int col) {
+        return Heuristic.MANHATTAN.estimate(Math.abs(row - endRow), Math.abs(col - endCol));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.service.queue.IndexedMinHeap;
+
+import java.util.Arrays;
+
+// Lifelong Planning A* (Koenig & Likhachev) for one start/end pair on an editable maze.
+// g and rhs survive between plans, so after a few walls change only the cells whose distance
+// actually changed are expanded again. Keys pack (min(g, rhs) + h, min(g, rhs)) into a long.
+// Not thread-safe; IncrementalPlanner serializes access per planner.
+final class LifelongPlanner {
+    private static final int INF = Integer.MAX_VALUE / 2;
+    private static final int[] ROW_STEPS = {0, 1, 0, -1};
+    private static final int[] COL_STEPS = {1, 0, -1, 0};
+
+    private MazeGrid grid;
+    private final int rows;
+    private final int cols;
+    private final int start;
+    private final int end;
+    private final int[] g;
+    private final int[] rhs;
+    private final IndexedMinHeap open = new IndexedMinHeap();
+    private final IntList expanded = new IntList(); // cells expanded by the latest plan
+
+    LifelongPlanner(MazeGrid grid, int start, int end) {
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.start = start;
+        this.end = end;
+        this.g = new int[grid.size()];
+        this.rhs = new int[grid.size()];
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        open.reset(grid.size());
+        rhs[start] = 0;
+        open.insertOrDecrease(start, key(start));
+    }
+
+    MazeGrid getGrid() {
+        return grid;
+    }
+
+    int size() {
+        return g.length;
+    }
+
+    // Moves to an edited snapshot of the same maze. Only the toggled cells and their
+    // neighbors are touched here; the repair itself happens in the next plan().
+    void update(MazeGrid edited, int[] changedCells) {
+        grid = edited;
+        for (int cell : changedCells) {
+            updateVertex(cell);
+            int row = cell / cols;
+            int col = cell - row * cols;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + ROW_STEPS[d];
+                int newCol = col + COL_STEPS[d];
+                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                    updateVertex(newRow * cols + newCol);
+                }
+            }
+        }
+    }
+
+    SearchResult plan() {
+        expanded.clear();
+        int pushes = open.getPushes();
+        int pops = open.getPops();
+        while (!open.isEmpty() && (open.minKey() < key(end) || rhs[end] != g[end])) {
+            int cell = open.pollMin();
+            expanded.add(cell);
+            if (g[cell] > rhs[cell]) {
+                g[cell] = rhs[cell];
+            } else {
+                g[cell] = INF;
+                updateVertex(cell);
+            }
+            int row = cell / cols;
+            int col = cell - row * cols;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + ROW_STEPS[d];
+                int newCol = col + COL_STEPS[d];
+                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                    updateVertex(newRow * cols + newCol);
+                }
+            }
+        }
+        return toResult(open.getPushes() - pushes, open.getPops() - pops);
+    }
+
+    // rhs is the best one-step lookahead over open neighbors; cells with g != rhs are queued
+    private void updateVertex(int cell) {
+        if (cell != start) {
+            int best = INF;
+            if (passable(cell)) {
+                int row = cell / cols;
+                int col = cell - row * cols;
+                for (int d = 0; d < 4; d++) {
+                    int newRow = row + ROW_STEPS[d];
+                    int newCol = col + COL_STEPS[d];
+                    if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                        int neighbor = newRow * cols + newCol;
+                        if (passable(neighbor) && g[neighbor] + 1 < best) {
+                            best = g[neighbor] + 1;
+                        }
+                    }
+                }
+            }
+            rhs[cell] = best;
+        }
+        if (g[cell] != rhs[cell]) {
+            open.update(cell, key(cell));
+        } else {
+            open.remove(cell);
+        }
+    }
+
+    // Start and end always count as open, as in the other searches
+    private boolean passable(int cell) {
+        return cell == end || cell == start || !grid.isWall(cell);
+    }
+
+    private long key(int cell) {
+        int k2 = Math.min(g[cell], rhs[cell]);
+        int row = cell / cols;
+        int h = Heuristic.MANHATTAN.estimate(Math.abs(row - end / cols), Math.abs(cell - row * cols - end % cols));
+        return ((long) (k2 + h) << 32) | k2;
+    }
+
+    private SearchResult toResult(int pushes, int pops) {
+        int count = expanded.size();
+        int[] traversed = expanded.toArray();
+        int[] traversedDistance = new int[count];
+        int[] traversedParent = new int[count];
+        for (int i = 0; i < count; i++) {
+            int dist = Math.min(g[traversed[i]], rhs[traversed[i]]);
+            traversedDistance[i] = dist >= INF ? Integer.MAX_VALUE : dist;
+            traversedParent[i] = -1; // expansions of a repair don't form a tree
+        }
+        if (g[end] >= INF) {
+            return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                    new int[] {end}, new int[] {Integer.MAX_VALUE}, false, pushes, pops);
+        }
+        // Walk back from the end along neighbors whose g is exactly one less
+        int length = g[end] + 1;
+        int[] path = new int[length];
+        int[] pathDistance = new int[length];
+        int cell = end;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = cell;
+            pathDistance[i] = i;
+            if (i == 0) break;
+            int row = cell / cols;
+            int col = cell - row * cols;
+            for (int d = 0; d < 4; d++) {
+                int newRow = row + ROW_STEPS[d];
+                int newCol = col + COL_STEPS[d];
+                if (newRow >= 0 && newRow < rows && newCol >= 0 && newCol < cols) {
+                    int neighbor = newRow * cols + newCol;
+                    if (g[neighbor] == i - 1 && passable(neighbor)) {
+                        cell = neighbor;
+                        break;
+                    }
+                }
+            }
+        }
+        return new SearchResult(cols, traversed, traversedDistance, traversedParent,
+                path, pathDistance, true, pushes, pops);
+    }
+}
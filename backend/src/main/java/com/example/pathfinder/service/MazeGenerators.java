@@ -0,0 +1,351 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Perfect-maze generators writing straight into a MazeGrid.Builder. Rooms sit on odd rows and
+// columns, room (i, j) at cell (2i + 1, 2j + 1), with walls in between; a trailing even row or
+// column stays solid wall. Everything is iterative with flat int/byte state so huge grids
+// can't overflow the stack, and each one reports its steps to a MazeStepSink.
+final class MazeGenerators {
+    private static final int NONE = -1;
+    // Room directions: right, down, left, up
+    private static final int[] ROW_STEPS = {0, 1, 0, -1};
+    private static final int[] COL_STEPS = {1, 0, -1, 0};
+
+    private MazeGenerators() {}
+
+    // Starts from an open field and keeps splitting chambers with a wall that has one gap
+    static void recursiveDivision(MazeGrid.Builder grid, RandomGenerator random, MazeStepSink sink) {
+        int roomRows = roomRows(grid);
+        int roomCols = roomCols(grid);
+        layout(grid, sink, roomRows, roomCols, true);
+        if (roomRows == 0 || roomCols == 0) return;
+
+        // Pending chambers as (top, left, bottom, right) in room coordinates, inclusive
+        IntList chambers = new IntList();
+        push(chambers, 0, 0, roomRows - 1, roomCols - 1);
+        while (chambers.size() > 0) {
+            int at = chambers.size() - 4;
+            int top = chambers.get(at);
+            int left = chambers.get(at + 1);
+            int bottom = chambers.get(at + 2);
+            int right = chambers.get(at + 3);
+            chambers.truncate(at);
+            int height = bottom - top + 1;
+            int width = right - left + 1;
+            if (height < 2 && width < 2) continue;
+
+            boolean horizontal = height > width || (height == width && random.nextBoolean());
+            if (horizontal) {
+                // Wall below room row split, open at one room column
+                int split = top + random.nextInt(height - 1);
+                int gap = left + random.nextInt(width);
+                int row = 2 * split + 2;
+                for (int col = 2 * left + 1; col <= 2 * right + 1; col++) {
+                    if (col != 2 * gap + 1) wall(grid, sink, row, col);
+                }
+                push(chambers, split + 1, left, bottom, right);
+                push(chambers, top, left, split, right);
+            } else {
+                int split = left + random.nextInt(width - 1);
+                int gap = top + random.nextInt(height);
+                int col = 2 * split + 2;
+                for (int row = 2 * top + 1; row <= 2 * bottom + 1; row++) {
+                    if (row != 2 * gap + 1) wall(grid, sink, row, col);
+                }
+                push(chambers, top, split + 1, bottom, right);
+                push(chambers, top, left, bottom, split);
+            }
+        }
+    }
+
+    // Randomized Prim's: grows one tree by attaching a random frontier room to a random
+    // neighbor already in the maze
+    static void prim(MazeGrid.Builder grid, RandomGenerator random, MazeStepSink sink) {
+        int roomRows = roomRows(grid);
+        int roomCols = roomCols(grid);
+        layout(grid, sink, roomRows, roomCols, false);
+        int rooms = roomRows * roomCols;
+        if (rooms == 0) return;
+
+        byte[] state = new byte[rooms]; // 0 untouched, 1 frontier, 2 in the maze
+        int[] frontier = new int[rooms];
+        int[] inMaze = new int[4];
+        int size = 0;
+        int first = random.nextInt(rooms);
+        state[first] = 2;
+        size = addFrontier(first, roomRows, roomCols, state, frontier, size);
+        while (size > 0) {
+            int pick = random.nextInt(size);
+            int room = frontier[pick];
+            frontier[pick] = frontier[--size];
+            int count = 0;
+            for (int d = 0; d < 4; d++) {
+                int neighbor = neighbor(room, d, roomRows, roomCols);
+                if (neighbor != NONE && state[neighbor] == 2) inMaze[count++] = neighbor;
+            }
+            connect(grid, sink, room, inMaze[random.nextInt(count)], roomCols);
+            state[room] = 2;
+            size = addFrontier(room, roomRows, roomCols, state, frontier, size);
+        }
+    }
+
+    // Kruskal's: shuffles every wall between two rooms and opens it when the rooms are still in
+    // different trees, tracked with a union-find
+    static void kruskal(MazeGrid.Builder grid, RandomGenerator random, MazeStepSink sink) {
+        int roomRows = roomRows(grid);
+        int roomCols = roomCols(grid);
+        layout(grid, sink, roomRows, roomCols, false);
+        int rooms = roomRows * roomCols;
+        if (rooms == 0) return;
+
+        // Edge e joins room e / 2 to its right (even e) or lower (odd e) neighbor
+        int[] edges = new int[2 * rooms];
+        int count = 0;
+        for (int room = 0; room < rooms; room++) {
+            if (room % roomCols + 1 < roomCols) edges[count++] = 2 * room;
+            if (room / roomCols + 1 < roomRows) edges[count++] = 2 * room + 1;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = edges[i];
+            edges[i] = edges[j];
+            edges[j] = swap;
+        }
+
+        // Roots hold minus the tree size, other rooms their parent
+        int[] parent = new int[rooms];
+        Arrays.fill(parent, -1);
+        int joined = 1;
+        for (int i = 0; i < count && joined < rooms; i++) {
+            int a = edges[i] >>> 1;
+            int b = (edges[i] & 1) == 0 ? a + 1 : a + roomCols;
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            if (rootA == rootB) continue;
+            if (parent[rootA] > parent[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+            parent[rootA] += parent[rootB];
+            parent[rootB] = rootA;
+            connect(grid, sink, a, b, roomCols);
+            joined++;
+        }
+    }
+
+    // Wilson's: loop-erased random walks from each room not yet in the maze until they hit it,
+    // giving a uniformly random spanning tree. Loop erasure is implicit: a walk only remembers
+    // the last direction it left each room by.
+    static void wilson(MazeGrid.Builder grid, RandomGenerator random, MazeStepSink sink) {
+        int roomRows = roomRows(grid);
+        int roomCols = roomCols(grid);
+        layout(grid, sink, roomRows, roomCols, false);
+        int rooms = roomRows * roomCols;
+        if (rooms == 0) return;
+
+        boolean[] inMaze = new boolean[rooms];
+        byte[] exit = new byte[rooms];
+        inMaze[random.nextInt(rooms)] = true;
+        for (int origin = 0; origin < rooms; origin++) {
+            if (inMaze[origin]) continue;
+            for (int room = origin; !inMaze[room]; ) {
+                int d;
+                int next;
+                do {
+                    d = random.nextInt(4);
+                    next = neighbor(room, d, roomRows, roomCols);
+                } while (next == NONE);
+                exit[room] = (byte) d;
+                room = next;
+            }
+            for (int room = origin; !inMaze[room]; ) {
+                int next = neighbor(room, exit[room], roomRows, roomCols);
+                connect(grid, sink, room, next, roomCols);
+                inMaze[room] = true;
+                room = next;
+            }
+        }
+    }
+
+    // Eller's: one room row at a time, keeping only the current row's set labels, so working
+    // memory is O(cols) however tall the maze is. Each grid row is final once written and goes
+    // to the sink whole.
+    static void eller(MazeGrid.Builder grid, RandomGenerator random, MazeStepSink sink) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int roomRows = roomRows(grid);
+        int roomCols = roomCols(grid);
+        int[] runs = new int[cols + 1];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                grid.setWall(row, col, true);
+            }
+        }
+        emitRow(grid, sink, 0, runs);
+        if (roomRows == 0 || roomCols == 0) {
+            for (int row = 1; row < rows; row++) emitRow(grid, sink, row, runs);
+            return;
+        }
+
+        // Labels are always below roomCols; parent is a union-find over the labels of one row
+        int[] label = new int[roomCols];
+        int[] parent = new int[roomCols];
+        int[] nextLabel = new int[roomCols];
+        int[] lastColumn = new int[roomCols];
+        boolean[] hasDown = new boolean[roomCols];
+        boolean[] down = new boolean[roomCols];
+        for (int j = 0; j < roomCols; j++) label[j] = j;
+
+        for (int i = 0; i < roomRows; i++) {
+            int row = 2 * i + 1;
+            boolean last = i == roomRows - 1;
+            for (int j = 0; j < roomCols; j++) {
+                parent[j] = j;
+                grid.setWall(row, 2 * j + 1, false);
+            }
+            // Join neighbors in different sets at random; the last row joins them all
+            for (int j = 0; j + 1 < roomCols; j++) {
+                int a = findLabel(parent, label[j]);
+                int b = findLabel(parent, label[j + 1]);
+                if (a != b && (last || random.nextBoolean())) {
+                    parent[b] = a;
+                    grid.setWall(row, 2 * j + 2, false);
+                }
+            }
+            emitRow(grid, sink, row, runs);
+            if (last) break;
+
+            // Each set continues down through at least one room, its last one if none chosen
+            for (int j = 0; j < roomCols; j++) {
+                label[j] = findLabel(parent, label[j]);
+                lastColumn[label[j]] = j;
+                hasDown[label[j]] = false;
+            }
+            for (int j = 0; j < roomCols; j++) {
+                int set = label[j];
+                down[j] = random.nextBoolean() || (lastColumn[set] == j && !hasDown[set]);
+                hasDown[set] |= down[j];
+                if (down[j]) grid.setWall(row + 1, 2 * j + 1, false);
+            }
+            emitRow(grid, sink, row + 1, runs);
+
+            // Relabel compactly: rooms below a passage keep their set, the rest get new ones
+            Arrays.fill(nextLabel, NONE);
+            int labels = 0;
+            for (int j = 0; j < roomCols; j++) {
+                if (down[j] && nextLabel[label[j]] == NONE) nextLabel[label[j]] = labels++;
+            }
+            for (int j = 0; j < roomCols; j++) {
+                label[j] = down[j] ? nextLabel[label[j]] : labels++;
+            }
+        }
+        for (int row = 2 * roomRows; row < rows; row++) emitRow(grid, sink, row, runs);
+    }
+
+    // Opens a single cell and reports it
+    static void carve(MazeGrid.Builder grid, MazeStepSink sink, int row, int col) {
+        grid.setWall(row, col, false);
+        sink.cell(row, col, MazeStepSink.PASSAGE);
+    }
+
+    private static void wall(MazeGrid.Builder grid, MazeStepSink sink, int row, int col) {
+        grid.setWall(row, col, true);
+        sink.cell(row, col, MazeStepSink.WALL);
+    }
+
+    // Lays out the starting grid row by row: rooms open and everything else wall, or with
+    // openField the whole room area open inside a solid border
+    private static void layout(MazeGrid.Builder grid, MazeStepSink sink, int roomRows, int roomCols, boolean openField) {
+        int[] runs = new int[grid.getCols() + 1];
+        int lastRoomRow = 2 * roomRows - 1;
+        int lastRoomCol = 2 * roomCols - 1;
+        for (int row = 0; row < grid.getRows(); row++) {
+            boolean roomRow = row >= 1 && row <= lastRoomRow && (openField || row % 2 == 1);
+            for (int col = 0; col < grid.getCols(); col++) {
+                boolean open = roomRow && col >= 1 && col <= lastRoomCol && (openField || col % 2 == 1);
+                grid.setWall(row, col, !open);
+            }
+            emitRow(grid, sink, row, runs);
+        }
+    }
+
+    // Reports a finished row as alternating wall / passage run lengths
+    private static void emitRow(MazeGrid.Builder grid, MazeStepSink sink, int row, int[] runs) {
+        int count = 0;
+        int run = 0;
+        boolean wall = true;
+        for (int col = 0; col < grid.getCols(); col++) {
+            boolean isWall = grid.isWall(row, col);
+            if (isWall != wall) {
+                runs[count++] = run;
+                run = 0;
+                wall = isWall;
+            }
+            run++;
+        }
+        runs[count++] = run;
+        sink.row(row, runs, count);
+    }
+
+    // Opens the wall cell between two adjacent rooms
+    private static void connect(MazeGrid.Builder grid, MazeStepSink sink, int a, int b, int roomCols) {
+        int rowA = a / roomCols;
+        int rowB = b / roomCols;
+        carve(grid, sink, rowA + rowB + 1, a - rowA * roomCols + b - rowB * roomCols + 1);
+    }
+
+    private static int addFrontier(int room, int roomRows, int roomCols, byte[] state, int[] frontier, int size) {
+        for (int d = 0; d < 4; d++) {
+            int neighbor = neighbor(room, d, roomRows, roomCols);
+            if (neighbor != NONE && state[neighbor] == 0) {
+                state[neighbor] = 1;
+                frontier[size++] = neighbor;
+            }
+        }
+        return size;
+    }
+
+    private static int neighbor(int room, int d, int roomRows, int roomCols) {
+        int row = room / roomCols + ROW_STEPS[d];
+        int col = room % roomCols + COL_STEPS[d];
+        if (row < 0 || row >= roomRows || col < 0 || col >= roomCols) return NONE;
+        return row * roomCols + col;
+    }
+
+    // Root of a room's tree, halving the path on the way
+    private static int find(int[] parent, int room) {
+        while (parent[room] >= 0) {
+            if (parent[parent[room]] >= 0) parent[room] = parent[parent[room]];
+            room = parent[room];
+        }
+        return room;
+    }
+
+    private static int findLabel(int[] parent, int label) {
+        while (parent[label] != label) {
+            parent[label] = parent[parent[label]];
+            label = parent[label];
+        }
+        return label;
+    }
+
+    private static void push(IntList chambers, int top, int left, int bottom, int right) {
+        chambers.add(top);
+        chambers.add(left);
+        chambers.add(bottom);
+        chambers.add(right);
+    }
+
+    private static int roomRows(MazeGrid.Builder grid) {
+        return (grid.getRows() - 1) / 2;
+    }
+
+    private static int roomCols(MazeGrid.Builder grid) {
+        return (grid.getCols() - 1) / 2;
+    }
+}
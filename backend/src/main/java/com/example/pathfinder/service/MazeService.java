@@ -1,14 +1,34 @@
 package com.example.pathfinder.service;
 
+import com.example.pathfinder.model.CostChange;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.MazeType;
 import com.example.pathfinder.model.Tile;
 import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.WallChange;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class MazeService {
-    private final Random random = new Random();
+    // Largest maze generated, 4096x4096
+    public static final int MAX_CELLS = 1 << 24;
+    // Below this many cells a binary tree maze is generated on the calling thread
+    private static final long PARALLEL_MIN_CELLS = 1 << 20;
+
+    @Autowired
+    private ForkJoinPool searchPool;
+
+    @Autowired
+    private PathfinderMetrics metrics;
     
     // Step class to represent animation steps
     public static class MazeStep {
@@ -33,74 +53,279 @@ public class MazeService {
     
     // Response class for maze generation
     public static class MazeGenerationResult {
+        private final MazeGrid grid;
         private Tile[][] finalMaze;
         private List<MazeStep> animationSteps;
+        private final long seed;
+        private String mazeId; // set once the maze is stored
         
-        public MazeGenerationResult(Tile[][] finalMaze, List<MazeStep> animationSteps) {
-            this.finalMaze = finalMaze;
+        public MazeGenerationResult(MazeGrid grid, List<MazeStep> animationSteps, long seed) {
+            this.grid = grid;
             this.animationSteps = animationSteps;
+            this.seed = seed;
         }
         
-        public Tile[][] getFinalMaze() { return finalMaze; }
+        @JsonIgnore
+        public MazeGrid getGrid() { return grid; }
+        // Tile view built on first access, i.e. only when the result is serialized
+        public Tile[][] getFinalMaze() {
+            if (finalMaze == null) finalMaze = grid.toTiles();
+            return finalMaze;
+        }
         public List<MazeStep> getAnimationSteps() { return animationSteps; }
+        public long getSeed() { return seed; }
+        public String getMazeId() { return mazeId; }
+        public void setMazeId(String mazeId) { this.mazeId = mazeId; }
     }
 
 
+    // Edited snapshot of a maze plus the cells that flipped
+    public static class WallEditResult {
+        private final MazeGrid grid;
+        private final int[] changedCells;
+
+        public WallEditResult(MazeGrid grid, int[] changedCells) {
+            this.grid = grid;
+            this.changedCells = changedCells;
+        }
+
+        public MazeGrid getGrid() { return grid; }
+        public int[] getChangedCells() { return changedCells; }
+    }
+
+    // Full result with one MazeStep per animation step, as the frontend animates it
     public MazeGenerationResult generateBinaryTreeMaze(int rows, int cols, Position start, Position end) {
-    Tile[][] grid = new Tile[rows][cols];
-    List<MazeStep> steps = new ArrayList<>();
+        return generateMaze(MazeType.BINARY_TREE, rows, cols, start, end, newSeed());
+    }
 
-    // Step 1: Set all even-indexed cells as walls (outer boundary too)
-    for (int i = 0; i < rows; i++) {
-        for (int j = 0; j < cols; j++) {
-            grid[i][j] = new Tile();
-            boolean isEven = i % 2 == 0 || j % 2 == 0;
-            grid[i][j].setWall(isEven);
-            steps.add(new MazeStep(i, j, isEven, isEven ? "wall" : "passage"));
+    // Final maze only; no animation steps are recorded
+    public MazeGenerationResult generateBinaryTreeMazeOnly(int rows, int cols, Position start, Position end) {
+        return generateMazeOnly(MazeType.BINARY_TREE, rows, cols, start, end, newSeed());
+    }
+
+    public MazeGrid generateBinaryTreeMaze(int rows, int cols, Position start, Position end, MazeStepSink sink) {
+        return generateMaze(MazeType.BINARY_TREE, rows, cols, start, end, newSeed(), sink);
+    }
+
+    // Any maze type, with one MazeStep per animation step. The same type, size and seed always
+    // give the same maze.
+    public MazeGenerationResult generateMaze(MazeType type, int rows, int cols, Position start, Position end, long seed) {
+        List<MazeStep> steps = new ArrayList<>();
+        MazeGrid grid = generateMaze(type, rows, cols, start, end, seed, new StepCollector(steps));
+        return new MazeGenerationResult(grid, steps, seed);
+    }
+
+    public MazeGenerationResult generateMazeOnly(MazeType type, int rows, int cols, Position start, Position end, long seed) {
+        return new MazeGenerationResult(generateMaze(type, rows, cols, start, end, seed, MazeStepSink.NONE), new ArrayList<>(), seed);
+    }
+
+    public MazeGrid generateMaze(MazeType type, int rows, int cols, Position start, Position end, long seed, MazeStepSink sink) {
+        checkSize(rows, cols);
+        if (metrics == null || !metrics.sample()) {
+            return generate(type, rows, cols, start, end, seed, sink);
         }
+        long allocated = metrics.allocatedBytes();
+        long started = System.nanoTime();
+        MazeGrid grid = generate(type, rows, cols, start, end, seed, sink);
+        long nanos = System.nanoTime() - started;
+        metrics.recordGeneration(type, grid.size(), nanos, metrics.allocatedBytes() - allocated);
+        return grid;
     }
 
-    // Step 2: For each odd cell, remove wall to the right or down
-    for (int r = 1; r < rows; r += 2) {
-        for (int c = 1; c < cols; c += 2) {
-            if (r == rows - 2 && c == cols - 2) continue; // bottom-right skip
+    private MazeGrid generate(MazeType type, int rows, int cols, Position start, Position end, long seed, MazeStepSink sink) {
+        MazeGrid.Builder grid = MazeGrid.builder(rows, cols);
+        SplittableRandom random = new SplittableRandom(seed);
+        switch (type) {
+            case BINARY_TREE -> binaryTree(grid, seed, sink);
+            case RECURSIVE_DIVISION -> MazeGenerators.recursiveDivision(grid, random, sink);
+            case PRIM -> MazeGenerators.prim(grid, random, sink);
+            case KRUSKAL -> MazeGenerators.kruskal(grid, random, sink);
+            case WILSON -> MazeGenerators.wilson(grid, random, sink);
+            case ELLER -> MazeGenerators.eller(grid, random, sink);
+        }
 
-            if (r == rows - 2) {
-                // last row — destroy right
-                if (c + 1 < cols) {
-                    grid[r][c + 1].setWall(false);
-                    steps.add(new MazeStep(r, c + 1, false, "passage"));
-                }
-            } else if (c == cols - 2) {
-                // last col — destroy down
-                if (r + 1 < rows) {
-                    grid[r + 1][c].setWall(false);
-                    steps.add(new MazeStep(r + 1, c, false, "passage"));
+        // Ensure start and end are passages
+        carve(grid, sink, start.getRow(), start.getCol());
+        carve(grid, sink, end.getRow(), end.getCol());
+        return grid.build();
+    }
+
+    // Generators keep a few ints per cell on top of the maze itself, so sizes are bounded well
+    // below what MazeGrid can address
+    public static void checkSize(int rows, int cols) {
+        MazeGrid.checkSize(rows, cols);
+        if ((long) rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Generated mazes are limited to " + MAX_CELLS + " cells.");
+        }
+    }
+
+    // For requests that don't pick a seed; returned with the maze so it can be regenerated
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    // Every room row draws from its own generator, seeded from the maze seed and the row mixed
+    // separately (seed + row would make seed s + 2 the maze of seed s shifted up a room row), so
+    // rows don't depend on each other. Large mazes without a step sink are split into bands of rows and generated in
+    // parallel; MazeGrid.Builder rows never share a word, so bands can write concurrently.
+    private void binaryTree(MazeGrid.Builder grid, long seed, MazeStepSink sink) {
+        int rows = grid.getRows();
+        if (sink != MazeStepSink.NONE || searchPool == null || (long) rows * grid.getCols() < PARALLEL_MIN_CELLS) {
+            binaryTreeLayout(grid, sink, 0, rows);
+            binaryTreeCarve(grid, sink, seed, 0, rows);
+            return;
+        }
+        // Bands after the first start on a room row, so the wall row each room row carves down
+        // into is always in the same band
+        int bands = Math.max(1, Math.min(searchPool.getParallelism() * 4, rows / 2));
+        int bandRows = Math.max(2, (rows / bands) & ~1);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < rows; ) {
+            int fromRow = from;
+            int toRow = Math.min(from == 0 ? bandRows + 1 : from + bandRows, rows);
+            tasks.add(() -> {
+                binaryTreeLayout(grid, MazeStepSink.NONE, fromRow, toRow);
+                binaryTreeCarve(grid, MazeStepSink.NONE, seed, fromRow, toRow);
+                return null;
+            });
+            from = toRow;
+        }
+        try {
+            for (Future<Void> band : searchPool.invokeAll(tasks)) {
+                band.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Maze generation was interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Maze generation failed.", e.getCause());
+        }
+    }
+
+    // Step 1: Set all even-indexed cells as walls (outer boundary too)
+    private static void binaryTreeLayout(MazeGrid.Builder grid, MazeStepSink sink, int fromRow, int toRow) {
+        int cols = grid.getCols();
+        int[] runs = new int[cols + 1];
+        for (int i = fromRow; i < toRow; i++) {
+            int count = 0;
+            int run = 0;
+            boolean wall = true;
+            for (int j = 0; j < cols; j++) {
+                boolean isEven = i % 2 == 0 || j % 2 == 0;
+                grid.setWall(i, j, isEven);
+                if (isEven != wall) {
+                    runs[count++] = run;
+                    run = 0;
+                    wall = isEven;
                 }
-            } else {
-                // randomly right or down
-                if (random.nextBoolean()) {
-                    if (c + 1 < cols) {
-                        grid[r][c + 1].setWall(false);
-                        steps.add(new MazeStep(r, c + 1, false, "passage"));
-                    }
+                run++;
+            }
+            runs[count++] = run;
+            sink.row(i, runs, count);
+        }
+    }
+
+    // Step 2: For each odd cell in the rows, remove wall to the right or down
+    private static void binaryTreeCarve(MazeGrid.Builder grid, MazeStepSink sink, long seed, int fromRow, int toRow) {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        for (int r = fromRow | 1; r < toRow; r += 2) {
+            SplittableRandom random = new SplittableRandom(mix(seed) ^ mix(r));
+            for (int c = 1; c < cols; c += 2) {
+                if (r == rows - 2 && c == cols - 2) continue; // bottom-right skip
+
+                if (r == rows - 2) {
+                    // last row — destroy right
+                    if (c + 1 < cols) carve(grid, sink, r, c + 1);
+                } else if (c == cols - 2) {
+                    // last col — destroy down
+                    if (r + 1 < rows) carve(grid, sink, r + 1, c);
                 } else {
-                    if (r + 1 < rows) {
-                        grid[r + 1][c].setWall(false);
-                        steps.add(new MazeStep(r + 1, c, false, "passage"));
+                    // randomly right or down
+                    if (random.nextBoolean()) {
+                        if (c + 1 < cols) carve(grid, sink, r, c + 1);
+                    } else {
+                        if (r + 1 < rows) carve(grid, sink, r + 1, c);
                     }
                 }
             }
         }
     }
 
-    // Ensure start and end are passages
-    grid[start.getRow()][start.getCol()].setWall(false);
-    grid[end.getRow()][end.getCol()].setWall(false);
-    steps.add(new MazeStep(start.getRow(), start.getCol(), false, "passage"));
-    steps.add(new MazeStep(end.getRow(), end.getCol(), false, "passage"));
+    // Applies wall changes to a copy of grid; the result lists the cells whose state differs
+    // from grid afterwards (a cell set and reset in one request is not a change)
+    public WallEditResult applyWallChanges(MazeGrid grid, List<WallChange> changes) {
+        MazeGrid.Builder builder = grid.toBuilder();
+        for (WallChange change : changes) {
+            if (!grid.inBounds(change.getRow(), change.getCol())) {
+                throw new IllegalArgumentException("Wall change out of bounds: (" + change.getRow() + ", " + change.getCol() + ")");
+            }
+            builder.setWall(change.getRow(), change.getCol(), change.isWall());
+        }
+        Set<Integer> changed = new LinkedHashSet<>();
+        for (WallChange change : changes) {
+            if (builder.isWall(change.getRow(), change.getCol()) != grid.isWall(change.getRow(), change.getCol())) {
+                changed.add(grid.index(change.getRow(), change.getCol()));
+            }
+        }
+        return new WallEditResult(builder.build(), changed.stream().mapToInt(Integer::intValue).toArray());
+    }
 
-    return new MazeGenerationResult(grid, steps);
-}
+    public WallEditResult applyCostChanges(MazeGrid grid, List<CostChange> changes) {
+        MazeGrid.Builder builder = grid.toBuilder();
+        for (CostChange change : changes) {
+            if (!grid.inBounds(change.getRow(), change.getCol())) {
+                throw new IllegalArgumentException("Cost change out of bounds: (" + change.getRow() + ", " + change.getCol() + ")");
+            }
+            builder.setCost(change.getRow(), change.getCol(), change.getCost());
+        }
+        Set<Integer> changed = new LinkedHashSet<>();
+        for (CostChange change : changes) {
+            int index = grid.index(change.getRow(), change.getCol());
+            if (builder.cost(change.getRow(), change.getCol()) != grid.cost(index)) {
+                changed.add(index);
+            }
+        }
+        return new WallEditResult(builder.build(), changed.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // MurmurHash3's 64-bit finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static void carve(MazeGrid.Builder grid, MazeStepSink sink, int row, int col) {
+        MazeGenerators.carve(grid, sink, row, col);
+    }
+
+    // Expands coded steps back into MazeStep objects, one per cell
+    private static final class StepCollector implements MazeStepSink {
+        private static final String[] TYPE_NAMES = {"wall", "passage", "border"};
+        private final List<MazeStep> steps;
+
+        StepCollector(List<MazeStep> steps) {
+            this.steps = steps;
+        }
+
+        @Override
+        public void row(int row, int[] runs, int count) {
+            int col = 0;
+            for (int i = 0; i < count; i++) {
+                boolean wall = i % 2 == 0;
+                for (int end = col + runs[i]; col < end; col++) {
+                    steps.add(new MazeStep(row, col, wall, wall ? "wall" : "passage"));
+                }
+            }
+        }
 
-}
\ No newline at end of file
+        @Override
+        public void cell(int row, int col, byte type) {
+            steps.add(new MazeStep(row, col, type == WALL, TYPE_NAMES[type]));
+        }
+    }
+}
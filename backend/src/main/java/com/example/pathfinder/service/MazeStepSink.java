@@ -0,0 +1,24 @@
+package com.example.pathfinder.service;
+
+// Receives maze generation steps as the generator makes them. Step types are byte codes
+// rather than strings; rows that are laid out in one go arrive run-length encoded.
+public interface MazeStepSink {
+    byte WALL = 0;
+    byte PASSAGE = 1;
+    byte BORDER = 2;
+
+    // For callers that only want the final maze
+    MazeStepSink NONE = new MazeStepSink() {
+        @Override
+        public void row(int row, int[] runs, int count) {}
+
+        @Override
+        public void cell(int row, int col, byte type) {}
+    };
+
+    // A whole row set at once: run lengths alternate walls, passages, walls, ... starting
+    // with walls (so the first run is 0 when the row starts with a passage)
+    void row(int row, int[] runs, int count);
+
+    void cell(int row, int col, byte type);
+}
@@ -0,0 +1,116 @@
+package com.example.pathfinder.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Streams maze generation steps in a compact binary form while the maze is generated.
+//
+// Layout: "PFMZ", version byte, rows and cols as big-endian int32, then frames, each
+// starting with a tag byte:
+//   ROW   row, run count, runs...           (varints; runs alternate walls/passages, walls first)
+//   CELLS count, then per step: type byte, zigzag-varint delta of row * cols + col
+//   END   maze id as varint length + UTF-8 bytes
+// Output is flushed whenever enough bytes have built up, so clients can animate as it arrives.
+public final class MazeStepStreamWriter implements MazeStepSink {
+    public static final byte ROW_FRAME = 1;
+    public static final byte CELLS_FRAME = 2;
+    public static final byte END_FRAME = 3;
+    private static final byte[] MAGIC = {'P', 'F', 'M', 'Z'};
+    private static final byte VERSION = 1;
+    private static final int FLUSH_BYTES = 8 << 10;
+
+    private final OutputStream out;
+    private final int cols;
+    private final ByteWriter frames = new ByteWriter(FLUSH_BYTES * 2);
+    private final byte[] batchTypes;
+    private final int[] batchCells;
+    private int batched;
+
+    public MazeStepStreamWriter(OutputStream out, int rows, int cols, int batchSize) {
+        this.out = out;
+        this.cols = cols;
+        this.batchTypes = new byte[batchSize];
+        this.batchCells = new int[batchSize];
+        frames.bytes(MAGIC);
+        frames.write(VERSION);
+        frames.int32(rows);
+        frames.int32(cols);
+    }
+
+    @Override
+    public void row(int row, int[] runs, int count) {
+        writeCells();
+        frames.write(ROW_FRAME);
+        frames.varint(row);
+        frames.varint(count);
+        for (int i = 0; i < count; i++) {
+            frames.varint(runs[i]);
+        }
+        flushIfFull();
+    }
+
+    @Override
+    public void cell(int row, int col, byte type) {
+        batchTypes[batched] = type;
+        batchCells[batched++] = row * cols + col;
+        if (batched == batchCells.length) {
+            writeCells();
+            flushIfFull();
+        }
+    }
+
+    public void finish(String mazeId) {
+        writeCells();
+        endFrame(frames, mazeId);
+        flush();
+    }
+
+    // Writes out everything but the END frame, for when the maze id is only known later
+    public void finishSteps() {
+        writeCells();
+        flush();
+    }
+
+    // The END frame that completes a stream ended with finishSteps
+    public static void writeEnd(OutputStream out, String mazeId) throws IOException {
+        ByteWriter frame = new ByteWriter(64);
+        endFrame(frame, mazeId);
+        frame.drainTo(out);
+        out.flush();
+    }
+
+    private static void endFrame(ByteWriter frames, String mazeId) {
+        byte[] id = mazeId.getBytes(StandardCharsets.UTF_8);
+        frames.write(END_FRAME);
+        frames.varint(id.length);
+        frames.bytes(id);
+    }
+
+    private void writeCells() {
+        if (batched == 0) return;
+        frames.write(CELLS_FRAME);
+        frames.varint(batched);
+        int previous = 0;
+        for (int i = 0; i < batched; i++) {
+            frames.write(batchTypes[i]);
+            frames.zigzag(batchCells[i] - previous);
+            previous = batchCells[i];
+        }
+        batched = 0;
+    }
+
+    private void flushIfFull() {
+        if (frames.size() >= FLUSH_BYTES) flush();
+    }
+
+    private void flush() {
+        try {
+            frames.drainTo(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Level-synchronous BFS for very large grids. Each frontier is split into slices expanded on
+// searchPool; a cell is claimed by whichever slice sets its bit in a shared atomic visited
+// bitset first, and every slice collects the cells it claimed in its own buffer. The buffers
+// are appended in slice order to form the next frontier, so traversed stays ordered by
+// distance and distances and path length equal the sequential BFS (the path may differ
+// between equally short ones). Open areas have wide frontiers and scale with cores; mazes
+// are mostly corridors with a handful of frontier cells, and those levels run on the caller.
+// The calling thread's SearchScratch budget is checked between levels.
+@Service
+public class ParallelBreadthFirstSearch {
+    // Smaller grids, or a single-threaded pool, use the sequential BFS
+    static final int PARALLEL_MIN_CELLS = 1 << 20;
+    // Frontiers narrower than this are expanded on the calling thread
+    private static final int MIN_SLICE = 2048;
+
+    @Autowired
+    private ForkJoinPool searchPool;
+
+    SearchResult search(MazeGrid grid, int start, int end) {
+        if (grid.size() < PARALLEL_MIN_CELLS || searchPool == null || searchPool.getParallelism() < 2) {
+            return GridSearchEngine.bfs(grid, start, end);
+        }
+        return search(searchPool, grid, start, end);
+    }
+
+    static SearchResult search(ForkJoinPool pool, MazeGrid grid, int start, int end) {
+        return new Run(grid, end, pool.getParallelism() * 4).search(pool, start);
+    }
+
+    // State of one search. The cells of each level are appended to traversed, which doubles as
+    // the queue; parentOrder[cell] is the parent's position in traversed, written once by the
+    // slice that claimed the cell and read only in later levels.
+    private static final class Run {
+        final MazeGrid grid;
+        final int end;
+        final int cols;
+        final AtomicLongArray visited;
+        final int[] parentOrder;
+        final int[][] out;
+        final int[] outCount;
+        int[] traversed;
+        int[] levelStart = new int[64];
+        int levels;
+
+        Run(MazeGrid grid, int end, int slices) {
+            this.grid = grid;
+            this.end = end;
+            this.cols = grid.getCols();
+            this.visited = new AtomicLongArray((grid.size() + 63) >>> 6);
+            this.parentOrder = new int[grid.size()];
+            this.out = new int[slices][64];
+            this.outCount = new int[slices];
+            this.traversed = new int[Math.min(grid.size(), 1 << 16)];
+        }
+
+        SearchResult search(ForkJoinPool pool, int start) {
+            claim(start);
+            parentOrder[start] = -1;
+            traversed[0] = start;
+            int from = 0;
+            int to = 1;
+            int count = start == end ? 1 : -1; // cells traversed once end is found
+            SearchBudget budget = SearchScratch.budget();
+            int maxTraversed = budget.getMaxNodes();
+            SearchLimit limit = null;
+            while (count < 0 && from < to) {
+                if (to >= maxTraversed) {
+                    limit = SearchLimit.NODES;
+                    break;
+                }
+                if (budget.isPastDeadline()) {
+                    limit = SearchLimit.DEADLINE;
+                    break;
+                }
+                addLevel(from);
+                int width = to - from;
+                int slices = Math.min(out.length, (width + MIN_SLICE - 1) / MIN_SLICE);
+                if (slices <= 1) {
+                    expand(0, from, to);
+                    slices = 1;
+                } else {
+                    pool.invoke(new Expand(this, from, width, slices, 0, slices));
+                }
+                from = to;
+                to = append(from, slices);
+                if (isVisited(end)) {
+                    int position = from;
+                    while (traversed[position] != end) position++;
+                    count = position + 1;
+                }
+            }
+            if (count > maxTraversed) {
+                limit = SearchLimit.NODES;
+                count = -1;
+            }
+            if (count < 0) {
+                if (limit != null) addLevel(from); // the frontier it stopped at
+                count = Math.min(to, maxTraversed);
+            } else {
+                addLevel(from); // the level end is in, traversed up to end
+            }
+            return toResult(count, to, limit);
+        }
+
+        // Expands traversed[from, to) into slice's output buffer
+        void expand(int slice, int from, int to) {
+            int[] buffer = out[slice];
+            int size = 0;
+            for (int i = from; i < to; i++) {
+                int cell = traversed[i];
+                int row = cell / cols;
+                int col = cell - row * cols;
+                if (buffer.length - size < 4) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                size = visit(row - 1, col, i, buffer, size);
+                size = visit(row, col + 1, i, buffer, size);
+                size = visit(row + 1, col, i, buffer, size);
+                size = visit(row, col - 1, i, buffer, size);
+            }
+            out[slice] = buffer;
+            outCount[slice] = size;
+        }
+
+        private int visit(int row, int col, int parent, int[] buffer, int size) {
+            if (!grid.inBounds(row, col)) return size;
+            int cell = row * cols + col;
+            if ((grid.isWall(row, col) && cell != end) || !claim(cell)) return size;
+            parentOrder[cell] = parent;
+            buffer[size] = cell;
+            return size + 1;
+        }
+
+        // Appends the slices' buffers after traversed[from - 1]; returns the new end
+        private int append(int from, int slices) {
+            int total = 0;
+            for (int s = 0; s < slices; s++) {
+                total += outCount[s];
+            }
+            if (traversed.length < from + total) {
+                traversed = Arrays.copyOf(traversed, (int) Math.min(grid.size(), Math.max(from + total, 2L * traversed.length)));
+            }
+            int to = from;
+            for (int s = 0; s < slices; s++) {
+                System.arraycopy(out[s], 0, traversed, to, outCount[s]);
+                to += outCount[s];
+            }
+            return to;
+        }
+
+        private boolean claim(int cell) {
+            int word = cell >>> 6;
+            long bit = 1L << cell;
+            long current = visited.get(word);
+            while ((current & bit) == 0) {
+                if (visited.compareAndSet(word, current, current | bit)) return true;
+                current = visited.get(word);
+            }
+            return false;
+        }
+
+        private boolean isVisited(int cell) {
+            return (visited.get(cell >>> 6) & (1L << cell)) != 0;
+        }
+
+        private void addLevel(int from) {
+            if (levels == levelStart.length) {
+                levelStart = Arrays.copyOf(levelStart, levels * 2);
+            }
+            levelStart[levels++] = from;
+        }
+
+        private SearchResult toResult(int count, int discovered, SearchLimit limit) {
+            int[] cells = Arrays.copyOf(traversed, count);
+            int[] distance = new int[count];
+            int[] parent = new int[count];
+            for (int level = 0; level < levels; level++) {
+                int levelEnd = level + 1 < levels ? levelStart[level + 1] : count;
+                for (int i = levelStart[level]; i < levelEnd; i++) {
+                    distance[i] = level;
+                    parent[i] = parentOrder[cells[i]];
+                }
+            }
+
+            boolean reached = limit == null && count > 0 && cells[count - 1] == end;
+            // Stopped by the budget: path to the traversed cell nearest to end
+            int target = reached ? count - 1 : limit != null ? nearest(cells) : -1;
+            int[] path;
+            int[] pathDistance;
+            if (target >= 0) {
+                int length = distance[target] + 1;
+                path = new int[length];
+                pathDistance = new int[length];
+                for (int i = target, k = length - 1; i >= 0; i = parent[i], k--) {
+                    path[k] = cells[i];
+                    pathDistance[k] = k;
+                }
+            } else {
+                path = new int[] {end};
+                pathDistance = new int[] {Integer.MAX_VALUE};
+            }
+            return new SearchResult(cols, cells, distance, parent, path, pathDistance, reached, discovered, count, limit);
+        }
+
+        private int nearest(int[] cells) {
+            int best = -1;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < cells.length; i++) {
+                int distance = Math.abs(cells[i] / cols - end / cols) + Math.abs(cells[i] % cols - end % cols);
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+            return best;
+        }
+    }
+
+    // Splits slices [lo, hi) of the frontier traversed[from, from + width) in halves
+    private static final class Expand extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Run run; // tasks never leave the pool, so are never serialized
+        private final int from;
+        private final int width;
+        private final int slices;
+        private final int lo;
+        private final int hi;
+
+        Expand(Run run, int from, int width, int slices, int lo, int hi) {
+            this.run = run;
+            this.from = from;
+            this.width = width;
+            this.slices = slices;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                run.expand(lo, from + (int) ((long) width * lo / slices), from + (int) ((long) width * hi / slices));
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Expand(run, from, width, slices, lo, mid), new Expand(run, from, width, slices, mid, hi));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.CacheStats;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.repository.MazeEditedEvent;
+import com.example.pathfinder.repository.MazeRemovedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Finished search results, keyed by the maze's content hash plus the query, so a repeated
+// query is a hash lookup. Bounded by the estimated size of the cached results, evicting the
+// least recently used first. Results are immutable and shared between hits.
+@Service
+public class PathResultCache {
+    private static final int ENTRY_OVERHEAD = 160; // key, map entry, SearchResult and array headers
+
+    private record QueryKey(long mazeHash, int rows, int cols, Algorithm algorithm, int start, int end,
+                            Heuristic heuristic, double weight, Movement movement, int clusterSize) {}
+
+    private final long maxBytes;
+    private final LinkedHashMap<QueryKey, SearchResult> results = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired(required = false)
+    private HierarchicalPathfinder hierarchicalPathfinder;
+
+    public PathResultCache(@Value("${pathfinder.cache.max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public SearchResult getOrCompute(MazeGrid grid, SearchQuery query, Supplier<SearchResult> search) {
+        QueryKey key = key(grid, query);
+        synchronized (this) {
+            SearchResult cached = results.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        SearchResult result = search.get();
+        long size = sizeOf(result);
+        if (size <= maxBytes && result.getLimitReached() == null) { // partial results depend on the budget
+            synchronized (this) {
+                if (results.putIfAbsent(key, result) == null) {
+                    bytes += size;
+                    evict();
+                }
+            }
+        }
+        return result;
+    }
+
+    // A dropped maze's results can't be asked for by id any more
+    @EventListener
+    public void onMazeRemoved(MazeRemovedEvent event) {
+        invalidate(event.getGrid());
+    }
+
+    // The edited maze has a new content hash; the old snapshot's results are unreachable by id
+    @EventListener
+    public void onMazeEdited(MazeEditedEvent event) {
+        invalidate(event.getPrevious());
+    }
+
+    public synchronized void invalidate(MazeGrid grid) {
+        long hash = grid.contentHash();
+        Iterator<Map.Entry<QueryKey, SearchResult>> entries = results.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<QueryKey, SearchResult> entry = entries.next();
+            if (entry.getKey().mazeHash() == hash) {
+                bytes -= sizeOf(entry.getValue());
+                entries.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations.add(results.size());
+        results.clear();
+        bytes = 0;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(),
+                results.size(), bytes, maxBytes);
+    }
+
+    private void evict() {
+        Iterator<SearchResult> eldest = results.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= sizeOf(eldest.next());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // The heuristic and weight only matter to A*-based searches, the cluster size only to HPA*
+    private QueryKey key(MazeGrid grid, SearchQuery query) {
+        Algorithm algorithm = query.getAlgorithm();
+        boolean informed = algorithm == Algorithm.A_STAR || algorithm == Algorithm.BIDIRECTIONAL_A_STAR;
+        return new QueryKey(grid.contentHash(), grid.getRows(), grid.getCols(), algorithm,
+                grid.index(query.getStart().getRow(), query.getStart().getCol()),
+                grid.index(query.getEnd().getRow(), query.getEnd().getCol()),
+                informed ? query.getHeuristic() : null,
+                algorithm == Algorithm.A_STAR ? query.getWeight() : 1.0,
+                query.getMovement(),
+                algorithm == Algorithm.HPA_STAR ? clusterSize(grid) : 0);
+    }
+
+    private int clusterSize(MazeGrid grid) {
+        return hierarchicalPathfinder != null ? hierarchicalPathfinder.clusterSize(grid) : HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE;
+    }
+
+    private static long sizeOf(SearchResult result) {
+        return ENTRY_OVERHEAD + 4L * (3L * result.getTraversed().length + 2L * result.getPath().length);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.MazeType;
+import com.example.pathfinder.model.SearchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Micrometer meters for searches, maze generation and response sizes, tagged by algorithm or
+// maze type and a coarse grid-size bucket so the series stay few. Only a sample of calls is
+// measured (pathfinder.metrics.sample-rate, 0 to 1); unsampled calls cost one random draw.
+// Meters are looked up once per tag combination and cached in flat arrays.
+@Component
+public class PathfinderMetrics {
+    // Upper bounds of the grid-size buckets, in cells, and their tag values
+    private static final int[] CELL_BOUNDS = {1 << 10, 1 << 14, 1 << 18, 1 << 22, 1 << 26};
+    private static final String[] CELL_TAGS = {"1K", "16K", "256K", "4M", "64M", "2G"};
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final MeterRegistry registry;
+    private final double sampleRate;
+    private final SearchMeters[] searchMeters = new SearchMeters[Algorithm.values().length * CELL_TAGS.length];
+    private final GenerationMeters[] generationMeters = new GenerationMeters[MazeType.values().length * CELL_TAGS.length];
+    private final ConcurrentMap<String, DistributionSummary> responseMeters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> limitedMeters = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public PathfinderMetrics(MeterRegistry registry, @Value("${pathfinder.metrics.sample-rate:1.0}") double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("pathfinder.metrics.sample-rate must be between 0 and 1.");
+        }
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+        this.rejected = Counter.builder("pathfinder.admission.rejected")
+                .description("Search requests turned away at capacity")
+                .register(registry);
+    }
+
+    // Whether to measure the current call
+    public boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    // Bytes allocated by the current thread so far, or 0 where the JVM can't tell
+    public long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    public void recordSearch(Algorithm algorithm, int cells, SearchResult result, long nanos, long allocated) {
+        int slot = algorithm.ordinal() * CELL_TAGS.length + bucket(cells);
+        SearchMeters meters = searchMeters[slot];
+        if (meters == null) {
+            meters = new SearchMeters(registry, algorithm.name(), CELL_TAGS[bucket(cells)]);
+            searchMeters[slot] = meters; // racy but idempotent: the registry returns the same meters
+        }
+        meters.latency.record(nanos, TimeUnit.NANOSECONDS);
+        meters.cells.record(cells);
+        meters.pushes.record(result.getQueuePushes());
+        meters.pops.record(result.getQueuePops());
+        if (result.isReached()) {
+            meters.pathLength.record(result.getPath().length);
+        }
+        if (THREADS != null) {
+            meters.allocated.record(allocated);
+        }
+        if (result.getLimitReached() != null) {
+            limitedMeters.computeIfAbsent(algorithm.name() + ' ' + result.getLimitReached(), key -> Counter.builder("pathfinder.search.limited")
+                            .description("Sampled searches cut short by their budget")
+                            .tag("algorithm", algorithm.name())
+                            .tag("limit", result.getLimitReached().name())
+                            .register(registry))
+                    .increment();
+        }
+    }
+
+    // Counted whether or not the request is sampled
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    public void recordGeneration(MazeType type, int cells, long nanos, long allocated) {
+        int slot = type.ordinal() * CELL_TAGS.length + bucket(cells);
+        GenerationMeters meters = generationMeters[slot];
+        if (meters == null) {
+            meters = new GenerationMeters(registry, type.name(), CELL_TAGS[bucket(cells)]);
+            generationMeters[slot] = meters;
+        }
+        meters.latency.record(nanos, TimeUnit.NANOSECONDS);
+        if (THREADS != null) {
+            meters.allocated.record(allocated);
+        }
+    }
+
+    // uri is the matched route pattern and algorithm an Algorithm name or "none", so both are bounded
+    public void recordResponse(String uri, String algorithm, long bytes) {
+        responseMeters.computeIfAbsent(uri + ' ' + algorithm, key -> DistributionSummary.builder("pathfinder.response.bytes")
+                        .description("Response payload size")
+                        .baseUnit("bytes")
+                        .tag("uri", uri)
+                        .tag("algorithm", algorithm)
+                        .register(registry))
+                .record(bytes);
+    }
+
+    private static int bucket(int cells) {
+        int bucket = 0;
+        while (bucket < CELL_BOUNDS.length && cells > CELL_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    private static final class SearchMeters {
+        final Timer latency;
+        final DistributionSummary cells;
+        final DistributionSummary pushes;
+        final DistributionSummary pops;
+        final DistributionSummary pathLength;
+        final DistributionSummary allocated;
+
+        SearchMeters(MeterRegistry registry, String algorithm, String cells) {
+            latency = Timer.builder("pathfinder.search")
+                    .description("Search latency, excluding cache hits and response encoding")
+                    .tag("algorithm", algorithm).tag("cells", cells)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.cells = summary(registry, "pathfinder.search.grid.cells", "Cells in the searched grid", null, algorithm, cells);
+            pushes = summary(registry, "pathfinder.search.queue.pushes", "Queue inserts and decrease-keys", null, algorithm, cells);
+            pops = summary(registry, "pathfinder.search.queue.pops", "Nodes expanded (queue pops)", null, algorithm, cells);
+            pathLength = summary(registry, "pathfinder.search.path.length", "Cells on the path when the end was reached", null, algorithm, cells);
+            allocated = summary(registry, "pathfinder.search.allocated", "Heap allocated by the searching thread", "bytes", algorithm, cells);
+        }
+
+        private static DistributionSummary summary(MeterRegistry registry, String name, String description,
+                                                   String unit, String algorithm, String cells) {
+            return DistributionSummary.builder(name).description(description).baseUnit(unit)
+                    .tag("algorithm", algorithm).tag("cells", cells)
+                    .register(registry);
+        }
+    }
+
+    private static final class GenerationMeters {
+        final Timer latency;
+        final DistributionSummary allocated;
+
+        GenerationMeters(MeterRegistry registry, String type, String cells) {
+            latency = Timer.builder("pathfinder.maze.generation")
+                    .description("Maze generation latency")
+                    .tag("type", type).tag("cells", cells)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            allocated = DistributionSummary.builder("pathfinder.maze.generation.allocated")
+                    .description("Heap allocated by the generating thread")
+                    .baseUnit("bytes")
+                    .tag("type", type).tag("cells", cells)
+                    .register(registry);
+        }
+    }
+}
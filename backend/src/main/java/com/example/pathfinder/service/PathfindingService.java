@@ -2,185 +2,314 @@ package com.example.pathfinder.service;
 
 import java.util.*;
 
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.Bitboard;
 import com.example.pathfinder.model.GridResponse;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.Reachability;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
 import com.example.pathfinder.model.Tile;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PathfindingService {
+    // Beyond this A* is greedy best-first search anyway, and keys would start to saturate
+    public static final double MAX_HEURISTIC_WEIGHT = 100.0;
+
+    @Autowired
+    private HierarchicalPathfinder hierarchicalPathfinder;
+
+    @Autowired
+    private IncrementalPlanner incrementalPlanner;
+
+    @Autowired
+    private ParallelBreadthFirstSearch parallelBreadthFirstSearch;
+
+    @Autowired
+    private CorridorPathfinder corridorPathfinder;
+
+    @Autowired
+    private PathfinderMetrics metrics;
 
     // Dijkstra Algorithm
-    public GridResponse runDijkstra(Tile[][] grid, Tile start, Tile end) {
-        initializeTiles(grid);
-        List<Tile> traversedTiles = new ArrayList<>();
-        PriorityQueue<Tile> untraversedTiles = new PriorityQueue<>(Comparator.comparingInt(t -> t.distance));
-        start.distance = 0;
-        start.isTraversed = true;
-        untraversedTiles.add(start);
-
-        while (!untraversedTiles.isEmpty()) {
-            Tile currentTile = untraversedTiles.poll();
-            if (currentTile.isWall) continue;
-            if (currentTile.distance == Integer.MAX_VALUE) break;
-            currentTile.isTraversed = true;
-            traversedTiles.add(currentTile);
-            if (currentTile.equals(end)) break;
-
-            for (Tile neighbor : getUntraversedNeighbors(grid, currentTile)) {
-                int distanceToNeighbor = currentTile.distance + 1;
-                if (distanceToNeighbor < neighbor.distance) {
-                    neighbor.distance = distanceToNeighbor;
-                    neighbor.parent = currentTile;
-                    untraversedTiles.add(neighbor);
-                }
+    public GridResponse runDijkstra(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(GridSearchEngine.dijkstra(grid, index(grid, start), index(grid, end)));
+    }
+
+    // A* Algorithm
+    public GridResponse runAStar(MazeGrid grid, Position start, Position end) {
+        return runAStar(grid, start, end, Heuristic.MANHATTAN, 1.0);
+    }
+
+    public GridResponse runAStar(MazeGrid grid, Position start, Position end, Heuristic heuristic, double weight) {
+        checkWeight(weight);
+        return toGridResponse(GridSearchEngine.aStar(grid, index(grid, start), index(grid, end), heuristic, weight));
+    }
+
+    // BFS Algorithm
+    public GridResponse runBFS(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(GridSearchEngine.bfs(grid, index(grid, start), index(grid, end)));
+    }
+
+    // BFS with each frontier expanded across searchPool; sequential below a size threshold
+    public GridResponse runParallelBFS(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(parallelBreadthFirstSearch.search(grid, index(grid, start), index(grid, end)));
+    }
+
+    // DFS Algorithm
+    public GridResponse runDFS(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(GridSearchEngine.dfs(grid, index(grid, start), index(grid, end)));
+    }
+
+    // Jump Point Search; traversed tiles are the jump points it examined
+    public GridResponse runJPS(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(JumpPointSearch.search(grid, index(grid, start), index(grid, end)));
+    }
+
+    // Bidirectional BFS; traversed tiles come from both frontiers, distances from their own origin
+    public GridResponse runBidirectionalBFS(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(BidirectionalSearch.bfs(grid, index(grid, start), index(grid, end)));
+    }
+
+    // Bidirectional A*
+    public GridResponse runBidirectionalAStar(MazeGrid grid, Position start, Position end, Heuristic heuristic) {
+        return toGridResponse(BidirectionalSearch.aStar(grid, index(grid, start), index(grid, end), heuristic));
+    }
+
+    // HPA* over the maze's precomputed cluster graph (built on first use if needed); near-optimal
+    public GridResponse runHPAStar(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(hierarchicalPathfinder.search(grid, index(grid, start), index(grid, end)));
+    }
+
+    // LPA*; after the maze is edited, repairs the previous search for the same start and end.
+    // Traversed tiles are the cells expanded by this query only.
+    public GridResponse runLPAStar(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(incrementalPlanner.search(grid, index(grid, start), index(grid, end)));
+    }
+
+    // A* over the maze's corridor graph (built on first use if needed); optimal, and traverses
+    // junctions instead of cells
+    public GridResponse runCorridorAStar(MazeGrid grid, Position start, Position end) {
+        return toGridResponse(corridorPathfinder.search(grid, index(grid, start), index(grid, end)));
+    }
+
+    // Runs any algorithm and returns the flat result, for callers that encode it themselves
+    public SearchResult search(Algorithm algorithm, MazeGrid grid, Position start, Position end,
+                               Heuristic heuristic, double weight) {
+        return search(algorithm, grid, start, end, heuristic, weight, Movement.FOUR);
+    }
+
+    public SearchResult search(Algorithm algorithm, MazeGrid grid, Position start, Position end,
+                               Heuristic heuristic, double weight, Movement movement) {
+        checkSupported(algorithm, grid, movement);
+        if (metrics == null || !metrics.sample()) {
+            return run(algorithm, grid, start, end, heuristic, weight, movement);
+        }
+        long allocated = metrics.allocatedBytes();
+        long started = System.nanoTime();
+        SearchResult result = run(algorithm, grid, start, end, heuristic, weight, movement);
+        long nanos = System.nanoTime() - started;
+        metrics.recordSearch(algorithm, grid.size(), result, nanos, metrics.allocatedBytes() - allocated);
+        return result;
+    }
+
+    private SearchResult run(Algorithm algorithm, MazeGrid grid, Position start, Position end,
+                             Heuristic heuristic, double weight, Movement movement) {
+        int from = index(grid, start);
+        int to = index(grid, end);
+        return switch (algorithm) {
+            case DIJKSTRA -> GridSearchEngine.dijkstra(grid, from, to, movement);
+            case A_STAR -> {
+                checkWeight(weight);
+                yield GridSearchEngine.aStar(grid, from, to, heuristic, weight, movement);
             }
+            case BFS -> GridSearchEngine.bfs(grid, from, to);
+            case DFS -> GridSearchEngine.dfs(grid, from, to);
+            case JPS -> JumpPointSearch.search(grid, from, to);
+            case BIDIRECTIONAL_BFS -> BidirectionalSearch.bfs(grid, from, to);
+            case BIDIRECTIONAL_A_STAR -> BidirectionalSearch.aStar(grid, from, to, heuristic);
+            case HPA_STAR -> hierarchicalPathfinder.search(grid, from, to);
+            case LPA_STAR -> incrementalPlanner.search(grid, from, to);
+            case PARALLEL_BFS -> parallelBreadthFirstSearch.search(grid, from, to);
+            case CORRIDOR_A_STAR -> corridorPathfinder.search(grid, from, to);
+        };
+    }
+
+    // Cells reachable from start through 4-connected open cells, flood-filled a word at a time
+    public Bitboard reachable(MazeGrid grid, Position start) {
+        Bitboard open = Bitboard.open(grid).set(start.getRow(), start.getCol()); // start counts as open, as in searches
+        return new Bitboard(grid.getRows(), grid.getCols()).set(start.getRow(), start.getCol()).fill(open);
+    }
+
+    // Answers without searching whether any algorithm would reach end. A walled end can still
+    // be entered from an open neighbor, as in searches.
+    public Reachability reachability(MazeGrid grid, Position start, Position end) {
+        Bitboard reached = reachable(grid, start);
+        int row = end.getRow();
+        int col = end.getCol();
+        boolean reachable = reached.get(row, col);
+        if (!reachable && grid.isWall(row, col)) {
+            reachable = (row > 0 && reached.get(row - 1, col)) || (row + 1 < grid.getRows() && reached.get(row + 1, col))
+                    || (col > 0 && reached.get(row, col - 1)) || (col + 1 < grid.getCols() && reached.get(row, col + 1));
         }
+        return new Reachability(reachable, reached.cardinality(), grid.openCells());
+    }
 
-        List<Tile> path = backtrackPath(end);
-        return new GridResponse(traversedTiles, path);
+    public SearchResult search(MazeGrid grid, SearchQuery query) {
+        return search(query.getAlgorithm(), grid, query.getStart(), query.getEnd(), query.getHeuristic(),
+                query.getWeight(), query.getMovement());
     }
 
-    // A* Algorithm
-    public GridResponse runAStar(Tile[][] grid, Tile start, Tile end) {
-        initializeTiles(grid);
-        List<Tile> traversedTiles = new ArrayList<>();
-        Map<Tile, Integer> heuristicCost = initHeuristicCost(grid, end);
-        Map<Tile, Integer> functionCost = new HashMap<>();
-        PriorityQueue<Tile> untraversedTiles = new PriorityQueue<>(Comparator.comparingInt(functionCost::get));
-
-        start.distance = 0;
-        functionCost.put(start, heuristicCost.getOrDefault(start, 0));
-        start.isTraversed = true;
-        untraversedTiles.add(start);
-
-        while (!untraversedTiles.isEmpty()) {
-            Tile currentTile = untraversedTiles.poll();
-            if (currentTile.isWall) continue;
-            if (currentTile.distance == Integer.MAX_VALUE) break;
-            currentTile.isTraversed = true;
-            traversedTiles.add(currentTile);
-            if (currentTile.equals(end)) break;
-
-            for (Tile neighbor : getUntraversedNeighbors(grid, currentTile)) {
-                int tentativeDistance = currentTile.distance + 1;
-                if (tentativeDistance < neighbor.distance) {
-                    neighbor.distance = tentativeDistance;
-                    functionCost.put(neighbor, tentativeDistance + heuristicCost.getOrDefault(neighbor, 0));
-                    neighbor.parent = currentTile;
-                    untraversedTiles.add(neighbor);
-                }
-            }
+    // Stops once the budget's node count or deadline runs out and returns what was found so far,
+    // marked with the limit it hit. HPA* and LPA* always finish: they work on their own graph
+    // and plan, whose size is bounded by preprocessing and the previous search.
+    public SearchResult search(MazeGrid grid, SearchQuery query, SearchBudget budget) {
+        if (!isBudgeted(query.getAlgorithm())) {
+            return search(grid, query);
         }
+        SearchScratch.limit(budget);
+        try {
+            return search(grid, query);
+        } finally {
+            SearchScratch.limit(null);
+        }
+    }
 
-        List<Tile> path = backtrackPath(end);
-        return new GridResponse(traversedTiles, path);
+    // Keeps the path and as many traversed cells, in traversal order, as fit in maxCells
+    public static SearchResult limitResponse(SearchResult result, int maxCells) {
+        int keep = Math.max(0, maxCells - result.getPath().length);
+        if (result.getTraversed().length <= keep) {
+            return result;
+        }
+        int[] traversedParent = Arrays.copyOf(result.getTraversedParent(), keep);
+        for (int i = 0; i < keep; i++) {
+            if (traversedParent[i] >= keep) traversedParent[i] = -1; // only possible for replayed orders
+        }
+        SearchLimit limit = result.getLimitReached() != null ? result.getLimitReached() : SearchLimit.RESPONSE_SIZE;
+        return new SearchResult(result.getCols(), Arrays.copyOf(result.getTraversed(), keep),
+                Arrays.copyOf(result.getTraversedDistance(), keep), traversedParent, result.getPath(),
+                result.getPathDistance(), result.isReached(), result.getQueuePushes(), result.getQueuePops(), limit);
     }
 
-    // BFS Algorithm
-    public GridResponse runBFS(Tile[][] grid, Tile start, Tile end) {
-        initializeTiles(grid);
-        List<Tile> traversedTiles = new ArrayList<>();
-        Queue<Tile> unTraversed = new LinkedList<>();
-        start.distance = 0;
-        start.isTraversed = true;
-        unTraversed.add(start);
-
-        while (!unTraversed.isEmpty()) {
-            Tile tile = unTraversed.poll();
-            if (tile.isWall) continue;
-            if (tile.distance == Integer.MAX_VALUE) break;
-            tile.isTraversed = true;
-            traversedTiles.add(tile);
-            if (tile.equals(end)) break;
+    private static boolean isBudgeted(Algorithm algorithm) {
+        return algorithm != Algorithm.HPA_STAR && algorithm != Algorithm.LPA_STAR;
+    }
 
-            for (Tile neighbor : getUntraversedNeighbors(grid, tile)) {
-                if (neighbor.distance == Integer.MAX_VALUE) {  // Only add unvisited neighbors
-                    neighbor.distance = tile.distance + 1;
-                    neighbor.parent = tile;
-                    unTraversed.add(neighbor);
+    // Like search, but hands traversed cells to sink in batches of batchSize while the search
+    // runs; the returned result then only carries the path. HPA* and corridor A* (graph nodes),
+    // LPA* (its own buffers) and parallel BFS (shared frontiers) don't traverse grid cells in
+    // SearchScratch, so their traversal is replayed afterwards.
+    public SearchResult stream(MazeGrid grid, SearchQuery query, int batchSize, TraversalSink sink) {
+        return stream(grid, query, batchSize, sink, SearchBudget.UNLIMITED);
     }
-}
+
+    // Streamed cells can't be taken back, so the response size budget caps traversed cells too
+    public SearchResult stream(MazeGrid grid, SearchQuery query, int batchSize, TraversalSink sink, SearchBudget budget) {
+        budget = budget.withMaxNodes(budget.getMaxResponseCells());
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
         }
+        if (query.getAlgorithm() == Algorithm.HPA_STAR || query.getAlgorithm() == Algorithm.LPA_STAR
+                || query.getAlgorithm() == Algorithm.PARALLEL_BFS || query.getAlgorithm() == Algorithm.CORRIDOR_A_STAR) {
+            SearchResult result = limitResponse(search(grid, query, budget), budget.getMaxResponseCells());
+            replay(result, batchSize, sink);
+            return result;
+        }
+        SearchScratch.streamTo(sink, batchSize);
+        try {
+            return search(grid, query, budget);
+        } finally {
+            SearchScratch.streamTo(null, 0);
+        }
+    }
 
-        List<Tile> path = backtrackPath(end);
-        return new GridResponse(traversedTiles, path);
+    // Tile-grid variants, packed into a MazeGrid first
+    public GridResponse runDijkstra(Tile[][] grid, Tile start, Tile end) {
+        return runDijkstra(MazeGrid.fromTiles(grid), position(start), position(end));
     }
 
-    // DFS Algorithm
-    public GridResponse runDFS(Tile[][] grid, Tile start, Tile end) {
-        initializeTiles(grid);
-        List<Tile> traversedTiles = new ArrayList<>();
-        Stack<Tile> unTraversed = new Stack<>();
-        start.distance = 0;
-        start.isTraversed = true;
-        unTraversed.push(start);
-
-        while (!unTraversed.isEmpty()) {
-            Tile currentTile = unTraversed.pop();
-            if (currentTile.isWall) continue;
-            if (currentTile.distance == Integer.MAX_VALUE) break;
-            currentTile.isTraversed = true;
-            traversedTiles.add(currentTile);
-            if (currentTile.equals(end)) break;
-
-            for (Tile neighbor : getUntraversedNeighbors(grid, currentTile)) {
-                neighbor.distance = currentTile.distance + 1;
-                neighbor.parent = currentTile;
-                unTraversed.push(neighbor);
-            }
-        }
+    public GridResponse runAStar(Tile[][] grid, Tile start, Tile end) {
+        return runAStar(MazeGrid.fromTiles(grid), position(start), position(end));
+    }
 
-        List<Tile> path = backtrackPath(end);
-        return new GridResponse(traversedTiles, path);
+    public GridResponse runBFS(Tile[][] grid, Tile start, Tile end) {
+        return runBFS(MazeGrid.fromTiles(grid), position(start), position(end));
+    }
+
+    public GridResponse runDFS(Tile[][] grid, Tile start, Tile end) {
+        return runDFS(MazeGrid.fromTiles(grid), position(start), position(end));
     }
 
     // Helper methods
-    private List<Tile> getUntraversedNeighbors(Tile[][] grid, Tile tile) {
-        List<Tile> neighbors = new ArrayList<>();
-        int[][] directions = {{0,1},{1,0},{0,-1},{-1,0}};
-        for (int[] d : directions) {
-            int newRow = tile.row + d[0];
-            int newCol = tile.col + d[1];
-            if (newRow >= 0 && newRow < grid.length && newCol >= 0 && newCol < grid[0].length) {
-                Tile neighbor = grid[newRow][newCol];
-                if (!neighbor.isTraversed && !neighbor.isWall) {
-                    neighbors.add(neighbor);
-                }
-            }
+    public static void checkWeight(double weight) {
+        if (!(weight >= 1.0 && weight <= MAX_HEURISTIC_WEIGHT)) { // also rejects NaN
+            throw new IllegalArgumentException("Heuristic weight must be between 1 and " + MAX_HEURISTIC_WEIGHT + ".");
         }
-        return neighbors;
     }
 
-    private Map<Tile, Integer> initHeuristicCost(Tile[][] grid, Tile end) {
-        Map<Tile, Integer> heuristicCost = new HashMap<>();
-        for (Tile[] row : grid) {
-            for (Tile tile : row) {
-                int cost = Math.abs(tile.row - end.row) + Math.abs(tile.col - end.col);
-                heuristicCost.put(tile, cost);
-            }
+    // Dijkstra and A* handle cell costs and diagonal moves. BFS, DFS and bidirectional BFS count
+    // steps and ignore costs; the others assume a uniform 4-connected grid.
+    public static void checkSupported(Algorithm algorithm, MazeGrid grid, Movement movement) {
+        boolean costAware = algorithm == Algorithm.DIJKSTRA || algorithm == Algorithm.A_STAR;
+        if (movement != Movement.FOUR && !costAware) {
+            throw new IllegalArgumentException(algorithm + " only supports FOUR movement.");
+        }
+        boolean stepCounting = algorithm == Algorithm.BFS || algorithm == Algorithm.DFS
+                || algorithm == Algorithm.BIDIRECTIONAL_BFS || algorithm == Algorithm.PARALLEL_BFS;
+        if (grid.isWeighted() && !costAware && !stepCounting) {
+            throw new IllegalArgumentException(algorithm + " does not support mazes with cell costs.");
         }
-        return heuristicCost;
     }
 
-    // Add this at the start of each pathfinding algorithm
-    private void initializeTiles(Tile[][] grid) {
-        for (Tile[] row : grid) {
-            for (Tile tile : row) {
-                tile.distance = Integer.MAX_VALUE;
-                tile.isTraversed = false;
-                tile.parent = null;
+    private static void replay(SearchResult result, int batchSize, TraversalSink sink) {
+        int[] traversed = result.getTraversed();
+        int[] traversedDistance = result.getTraversedDistance();
+        for (int from = 0; from < traversed.length; from += batchSize) {
+            int count = Math.min(batchSize, traversed.length - from);
+            sink.accept(Arrays.copyOfRange(traversed, from, from + count),
+                    Arrays.copyOfRange(traversedDistance, from, from + count), count);
         }
     }
-}
 
-    private List<Tile> backtrackPath(Tile endTile) {
-        List<Tile> path = new ArrayList<>();
-        Tile current = endTile;
-        while (current != null) {
-            path.add(current);
-            current = current.parent;
+    private static int index(MazeGrid grid, Position position) {
+        return grid.index(position.getRow(), position.getCol());
+    }
+
+    private static Position position(Tile tile) {
+        return new Position(tile.row, tile.col);
+    }
+
+    // Rebuilds the Tile view of a search result; only traversed and path cells become objects
+    public GridResponse toGridResponse(SearchResult result) {
+        int cols = result.getCols();
+        int[] traversed = result.getTraversed();
+        int[] traversedDistance = result.getTraversedDistance();
+        int[] traversedParent = result.getTraversedParent();
+        Tile[] traversedTiles = new Tile[traversed.length];
+        for (int i = 0; i < traversed.length; i++) {
+            Tile tile = new Tile(traversed[i] / cols, traversed[i] % cols);
+            tile.isTraversed = true;
+            tile.distance = traversedDistance[i];
+            tile.parent = traversedParent[i] < 0 ? null : traversedTiles[traversedParent[i]];
+            traversedTiles[i] = tile;
+        }
+
+        int[] path = result.getPath();
+        int[] pathDistance = result.getPathDistance();
+        List<Tile> pathTiles = new ArrayList<>(path.length);
+        Tile previous = null;
+        for (int i = 0; i < path.length; i++) {
+            Tile tile = new Tile(path[i] / cols, path[i] % cols);
+            tile.isTraversed = result.isReached();
+            tile.distance = pathDistance[i];
+            tile.parent = previous;
+            pathTiles.add(tile);
+            previous = tile;
         }
-        Collections.reverse(path);
-        return path;
+        return new GridResponse(Arrays.asList(traversedTiles), pathTiles, result.getLimitReached());
     }
 }
@@ -0,0 +1,74 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.CompactEncoding;
+import com.example.pathfinder.model.CompactGridResponse;
+import com.example.pathfinder.model.SearchResult;
+
+import java.util.Arrays;
+
+// Compact encodings of a SearchResult for large grids: flat int arrays for JSON, and a binary
+// form of zigzag-varint deltas (consecutive cells are usually 1 or cols apart, so most cells
+// take a single byte).
+//
+// Binary layout: "PFGR", version byte, flags byte (bit 0 = reached), rows and cols as
+// big-endian int32, then traversed count and path count as varints, then the traversed and
+// path cells, each list delta-encoded from 0.
+public final class ResponseEncoder {
+    public static final String COMPACT_JSON_VALUE = "application/vnd.pathfinder.compact+json";
+    private static final byte[] MAGIC = {'P', 'F', 'G', 'R'};
+    private static final byte VERSION = 1;
+
+    private ResponseEncoder() {}
+
+    public static CompactGridResponse toCompact(SearchResult result, int rows, CompactEncoding encoding) {
+        return new CompactGridResponse(rows, result.getCols(), encoding, result.isReached(),
+                encode(result.getTraversed(), encoding), encode(result.getPath(), encoding), result.getLimitReached());
+    }
+
+    public static byte[] toBinary(SearchResult result, int rows) {
+        int[] traversed = result.getTraversed();
+        int[] path = result.getPath();
+        ByteWriter out = new ByteWriter(16 + traversed.length + path.length);
+        out.bytes(MAGIC);
+        out.write(VERSION);
+        out.write(result.isReached() ? 1 : 0);
+        out.int32(rows);
+        out.int32(result.getCols());
+        out.varint(traversed.length);
+        out.varint(path.length);
+        out.deltas(traversed);
+        out.deltas(path);
+        return out.toByteArray();
+    }
+
+    static int[] encode(int[] cells, CompactEncoding encoding) {
+        return switch (encoding) {
+            case PLAIN -> cells;
+            case DELTA -> delta(cells);
+            case RLE -> runLength(delta(cells));
+        };
+    }
+
+    private static int[] delta(int[] cells) {
+        int[] out = new int[cells.length];
+        int previous = 0;
+        for (int i = 0; i < cells.length; i++) {
+            out[i] = cells[i] - previous;
+            previous = cells[i];
+        }
+        return out;
+    }
+
+    private static int[] runLength(int[] values) {
+        int[] out = new int[values.length * 2];
+        int size = 0;
+        for (int i = 0; i < values.length; ) {
+            int run = 1;
+            while (i + run < values.length && values[i + run] == values[i]) run++;
+            out[size++] = values[i];
+            out[size++] = run;
+            i += run;
+        }
+        return Arrays.copyOf(out, size);
+    }
+}
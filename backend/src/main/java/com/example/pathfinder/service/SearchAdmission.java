@@ -0,0 +1,122 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Admission control for search requests. At most pathfinder.admission.max-concurrent requests
+// search at once (default: twice the cores); up to max-queued more wait in arrival order for at
+// most queue-timeout-ms, and anything beyond that is turned away with a 503 right away, so a
+// burst can't pile up unbounded work. Streamed responses also take one of max-streams slots
+// (default: half the cores) for as long as they are written, so slow readers can't hold every
+// search worker. Also hands out each request's SearchBudget, where a request may tighten the
+// configured pathfinder.budget.* limits but never loosen them.
+@Component
+public class SearchAdmission {
+    private final Semaphore permits;
+    private final Semaphore streams;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final int maxNodes;
+    private final long timeoutMillis;
+    private final int maxResponseCells;
+
+    @Autowired(required = false)
+    private PathfinderMetrics metrics;
+
+    public SearchAdmission(@Value("${pathfinder.admission.max-concurrent:0}") int maxConcurrent,
+                           @Value("${pathfinder.admission.max-streams:0}") int maxStreams,
+                           @Value("${pathfinder.admission.max-queued:64}") int maxQueued,
+                           @Value("${pathfinder.admission.queue-timeout-ms:1000}") long queueTimeoutMillis,
+                           @Value("${pathfinder.budget.max-nodes:" + Integer.MAX_VALUE + "}") int maxNodes,
+                           @Value("${pathfinder.budget.timeout-ms:0}") long timeoutMillis,
+                           @Value("${pathfinder.budget.max-response-cells:" + Integer.MAX_VALUE + "}") int maxResponseCells) {
+        if (maxQueued < 0 || queueTimeoutMillis < 0 || maxNodes < 1 || timeoutMillis < 0 || maxResponseCells < 1) {
+            throw new IllegalArgumentException("Admission and budget settings must be positive.");
+        }
+        int concurrent = maxConcurrent > 0 ? maxConcurrent : 2 * Runtime.getRuntime().availableProcessors();
+        this.permits = new Semaphore(concurrent, true);
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.streams = new Semaphore(maxStreams > 0 ? maxStreams : Math.max(1, cores / 2));
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.maxNodes = maxNodes;
+        this.timeoutMillis = timeoutMillis;
+        this.maxResponseCells = maxResponseCells;
+    }
+
+    // Blocks until the request may search; close the permit when done
+    public Permit admit() {
+        acquire();
+        return new Permit(permits);
+    }
+
+    // Like admit(), but also takes a stream slot. Streams last as long as the client reads, so
+    // they don't queue for a slot: when all are taken the request is turned away right away.
+    public Permit admitStream() {
+        if (!streams.tryAcquire()) throw overloaded();
+        try {
+            acquire();
+        } catch (RuntimeException e) {
+            streams.release();
+            throw e;
+        }
+        return new Permit(permits, streams);
+    }
+
+    private void acquire() {
+        boolean admitted = false;
+        if (permits.tryAcquire()) {
+            admitted = true;
+        } else if (permits.getQueueLength() < maxQueued) {
+            try {
+                admitted = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!admitted) throw overloaded();
+    }
+
+    private ServiceOverloadedException overloaded() {
+        if (metrics != null) metrics.recordRejected();
+        return new ServiceOverloadedException("Too many searches in progress; try again shortly.");
+    }
+
+    // Configured limits, tightened by whichever of the request's limits are given
+    public SearchBudget budget(Integer maxNodes, Long timeoutMillis, Integer maxResponseCells) {
+        if ((maxNodes != null && maxNodes < 1) || (timeoutMillis != null && timeoutMillis < 1)
+                || (maxResponseCells != null && maxResponseCells < 1)) {
+            throw new IllegalArgumentException("maxNodes, timeoutMs and maxResponseCells must be at least 1.");
+        }
+        long timeout = this.timeoutMillis;
+        if (timeoutMillis != null) {
+            timeout = timeout == 0 ? timeoutMillis : Math.min(timeout, timeoutMillis);
+        }
+        return SearchBudget.of(maxNodes == null ? this.maxNodes : Math.min(this.maxNodes, maxNodes), timeout,
+                maxResponseCells == null ? this.maxResponseCells : Math.min(this.maxResponseCells, maxResponseCells));
+    }
+
+    // Released at most once, however often it's closed
+    public static final class Permit implements AutoCloseable {
+        private Semaphore[] held;
+
+        private Permit(Semaphore... held) {
+            this.held = held;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (held != null) {
+                for (Semaphore semaphore : held) {
+                    semaphore.release();
+                }
+                held = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.pathfinder.service;
+
+// Limits for one request's searches: at most maxNodes traversed cells per search, no work
+// past the deadline (a System.nanoTime() value, shared by every search of the request), and
+// at most maxResponseCells traversed plus path cells per returned result
+public final class SearchBudget {
+    public static final SearchBudget UNLIMITED = new SearchBudget(Integer.MAX_VALUE, 0, false, Integer.MAX_VALUE);
+
+    private final int maxNodes;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final int maxResponseCells;
+
+    private SearchBudget(int maxNodes, long deadline, boolean hasDeadline, int maxResponseCells) {
+        this.maxNodes = maxNodes;
+        this.deadline = deadline;
+        this.hasDeadline = hasDeadline;
+        this.maxResponseCells = maxResponseCells;
+    }
+
+    // timeoutMillis counts from now; 0 means no deadline
+    public static SearchBudget of(int maxNodes, long timeoutMillis, int maxResponseCells) {
+        if (maxNodes < 1 || timeoutMillis < 0 || maxResponseCells < 1) {
+            throw new IllegalArgumentException("Search budgets must be positive.");
+        }
+        long timeoutNanos = Math.min(timeoutMillis, 1L << 40) * 1_000_000; // decades; can't overflow
+        return new SearchBudget(maxNodes, System.nanoTime() + timeoutNanos, timeoutMillis > 0, maxResponseCells);
+    }
+
+    // Same deadline, at most maxNodes traversed cells
+    public SearchBudget withMaxNodes(int maxNodes) {
+        return new SearchBudget(Math.min(this.maxNodes, maxNodes), deadline, hasDeadline, maxResponseCells);
+    }
+
+    public int getMaxNodes() { return maxNodes; }
+    public int getMaxResponseCells() { return maxResponseCells; }
+
+    public boolean isPastDeadline() {
+        return hasDeadline && System.nanoTime() - deadline > 0;
+    }
+}
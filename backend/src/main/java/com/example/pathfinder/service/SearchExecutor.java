@@ -0,0 +1,194 @@
+package com.example.pathfinder.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+// Runs searches and maze generation on searchPool, one worker per core, while the request
+// thread (a virtual thread where the JDK has them) waits. However many requests are in flight,
+// at most that many threads are busy with CPU work, and SearchScratch buffers exist once per
+// worker rather than once per request thread.
+//
+// Streamed responses are produced on a worker too, but the worker only hands its output to the
+// request thread, which does the blocking socket writes. At most a few chunks wait between the
+// two; beyond that the worker waits for the socket, so a slow reader slows its own stream down
+// instead of piling the whole response up in memory. That wait goes through
+// ForkJoinPool.managedBlock, so the pool adds a spare worker meanwhile and other searches keep
+// running; SearchAdmission caps how many streams there are. Disk I/O, such as storing a maze,
+// belongs on the request thread, not in tasks run here.
+@Component
+public class SearchExecutor {
+
+    @Autowired
+    private ForkJoinPool searchPool;
+
+    // Writes a streamed response to out
+    @FunctionalInterface
+    public interface StreamTask {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    public <T> T call(Supplier<T> task) {
+        if (onWorker()) {
+            return task.get();
+        }
+        ForkJoinTask<T> submitted = searchPool.submit(task::get);
+        try {
+            return submitted.get();
+        } catch (InterruptedException e) {
+            submitted.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw rethrow(unwrap(e.getCause()));
+        }
+    }
+
+    // Runs task on a worker and copies what it writes to out on the calling thread, flushing
+    // where the task flushes. Returns once both are done.
+    public void stream(OutputStream out, StreamTask task) throws IOException {
+        if (onWorker()) {
+            task.writeTo(out);
+            return;
+        }
+        Handoff handoff = new Handoff();
+        ForkJoinTask<?> submitted = searchPool.submit(() -> {
+            try {
+                task.writeTo(handoff);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                handoff.end();
+            }
+        });
+        try {
+            for (byte[] chunk = handoff.chunks.take(); chunk != Handoff.END; chunk = handoff.chunks.take()) {
+                if (chunk == Handoff.FLUSH) {
+                    out.flush();
+                } else {
+                    out.write(chunk);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The client is gone: the worker fails on its next write, then the stream is over
+            handoff.abandoned = true;
+            submitted.quietlyJoin();
+            throw e;
+        } catch (InterruptedException e) {
+            handoff.abandoned = true;
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Streaming was interrupted.");
+        }
+        try {
+            submitted.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Streaming was interrupted.");
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e.getCause());
+            if (cause instanceof UncheckedIOException unchecked) throw unchecked.getCause();
+            throw rethrow(cause);
+        }
+    }
+
+    private boolean onWorker() {
+        return Thread.currentThread() instanceof ForkJoinWorkerThread worker && worker.getPool() == searchPool;
+    }
+
+    // ForkJoinTask rethrows a failure from another thread as a copy with the original as its
+    // cause, and with the original's toString() as its message; the original is what callers want
+    private static Throwable unwrap(Throwable cause) {
+        Throwable original = cause.getCause();
+        return original != null && original.getClass() == cause.getClass() ? original : cause;
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) throw runtime;
+        if (cause instanceof Error error) throw error;
+        throw new IllegalStateException("Search failed.", cause);
+    }
+
+    // Hands every write and flush to the request thread, waiting while CHUNKS are queued.
+    // Written by one worker only, which blocks as a ManagedBlocker while the queue is full.
+    private static final class Handoff extends OutputStream implements ForkJoinPool.ManagedBlocker {
+        static final byte[] FLUSH = new byte[0];
+        static final byte[] END = new byte[0];
+        private static final int CHUNKS = 16;
+
+        final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(CHUNKS);
+        volatile boolean abandoned;
+        private byte[] pending; // the chunk waiting for room in chunks
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) put(Arrays.copyOfRange(b, off, off + len));
+        }
+
+        @Override
+        public void flush() throws IOException {
+            put(FLUSH);
+        }
+
+        void end() {
+            try {
+                put(END);
+            } catch (IOException e) {
+                // Nobody is reading any more
+            }
+        }
+
+        private void put(byte[] chunk) throws IOException {
+            checkOpen();
+            if (chunks.offer(chunk)) return;
+            pending = chunk;
+            try {
+                ForkJoinPool.managedBlock(this);
+            } catch (InterruptedException e) {
+                pending = null;
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Streaming was interrupted.");
+            }
+            if (pending != null) {
+                pending = null;
+                checkOpen();
+            }
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (pending != null && chunks.offer(pending)) pending = null;
+            return pending == null || abandoned;
+        }
+
+        // Checks now and then whether the request thread gave up, which stops draining the queue
+        @Override
+        public boolean block() throws InterruptedException {
+            while (pending != null && !abandoned) {
+                if (chunks.offer(pending, 100, TimeUnit.MILLISECONDS)) pending = null;
+            }
+            return true;
+        }
+
+        private void checkOpen() throws IOException {
+            if (abandoned) throw new IOException("The client stopped reading the stream.");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.Position;
+
+// A validated query, ready to run against a MazeGrid
+public class SearchQuery {
+    private final Algorithm algorithm;
+    private final Position start;
+    private final Position end;
+    private final Heuristic heuristic;
+    private final double weight;
+    private final Movement movement;
+
+    public SearchQuery(Algorithm algorithm, Position start, Position end, Heuristic heuristic, double weight) {
+        this(algorithm, start, end, heuristic, weight, Movement.FOUR);
+    }
+
+    public SearchQuery(Algorithm algorithm, Position start, Position end, Heuristic heuristic, double weight,
+                       Movement movement) {
+        this.algorithm = algorithm;
+        this.start = start;
+        this.end = end;
+        this.heuristic = heuristic;
+        this.weight = weight;
+        this.movement = movement;
+    }
+
+    public Algorithm getAlgorithm() { return algorithm; }
+    public Position getStart() { return start; }
+    public Position getEnd() { return end; }
+    public Heuristic getHeuristic() { return heuristic; }
+    public double getWeight() { return weight; }
+    public Movement getMovement() { return movement; }
+}
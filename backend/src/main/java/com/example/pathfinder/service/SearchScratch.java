@@ -0,0 +1,199 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.service.queue.BucketQueue;
+import com.example.pathfinder.service.queue.IndexedMinHeap;
+
+import java.util.Arrays;
+
+// Per-thread working buffers for GridSearchEngine, grown to the largest grid seen and reused
+// across requests. A cell's distance/parent are only valid while state[cell] >= mark, so the
+// buffers never need clearing: bumping the mark invalidates every entry at once.
+final class SearchScratch {
+    private static final ThreadLocal<SearchScratch> LOCAL = ThreadLocal.withInitial(SearchScratch::new);
+    private static final int DEADLINE_CHECK = 1024;
+
+    int[] state = new int[0];      // mark = discovered, mark + 1 = traversed
+    int[] distance = new int[0];
+    int[] parent = new int[0];
+    int[] order = new int[0];      // position of a traversed cell within traversed
+    int[] queue = new int[0];
+    final IndexedMinHeap heap = new IndexedMinHeap();
+    final BucketQueue buckets = new BucketQueue();
+    int[] traversed = new int[64];
+    int traversedCount;
+    // While streaming, traversed only buffers one batch; earlier cells went to the sink
+    private TraversalSink sink;
+    private int batchSize;
+    private int flushed;
+    private int[] batchDistance = new int[0];
+    // Budget set with limit(); halted says which part of it ran out, and searches stop once
+    // it's set. The deadline is checked every DEADLINE_CHECK traversed cells.
+    private SearchBudget budget = SearchBudget.UNLIMITED;
+    SearchLimit halted;
+    final int[] neighbors = new int[8];
+    final int[] stepCost = new int[8]; // cost of moving to neighbors[i]
+    int mark;
+
+    // Second set of buffers for searches that also run backwards from the goal;
+    // allocated on first use and sharing mark with the forward state
+    int[] reverseState = new int[0];
+    int[] reverseDistance = new int[0];
+    int[] reverseParent = new int[0];
+    int[] reverseOrder = new int[0];
+    int[] reverseQueue = new int[0];
+    final IndexedMinHeap reverseHeap = new IndexedMinHeap();
+
+    // Routes this thread's traversed cells to sink in batches until called again with null
+    static void streamTo(TraversalSink sink, int batchSize) {
+        SearchScratch scratch = LOCAL.get();
+        scratch.sink = sink;
+        scratch.batchSize = batchSize;
+    }
+
+    // Applies budget to this thread's searches until called again with null
+    static void limit(SearchBudget budget) {
+        LOCAL.get().budget = budget == null ? SearchBudget.UNLIMITED : budget;
+    }
+
+    static SearchBudget budget() {
+        return LOCAL.get().budget;
+    }
+
+    static SearchScratch acquire(int size) {
+        SearchScratch scratch = LOCAL.get();
+        scratch.prepare(size);
+        return scratch;
+    }
+
+    private void prepare(int size) {
+        if (state.length < size) {
+            state = new int[size];
+            distance = new int[size];
+            parent = new int[size];
+            order = new int[size];
+            queue = new int[size];
+            mark = 0;
+        }
+        if (mark >= Integer.MAX_VALUE - 2) {
+            Arrays.fill(state, 0);
+            Arrays.fill(reverseState, 0);
+            mark = 0;
+        }
+        mark += 2;
+        traversedCount = 0;
+        flushed = 0;
+        halted = null;
+    }
+
+    void prepareReverse() {
+        if (reverseState.length < state.length) {
+            reverseState = new int[state.length];
+            reverseDistance = new int[state.length];
+            reverseParent = new int[state.length];
+            reverseOrder = new int[state.length];
+            reverseQueue = new int[state.length];
+        }
+    }
+
+    boolean isDiscovered(int cell) {
+        return state[cell] >= mark;
+    }
+
+    boolean isTraversed(int cell) {
+        return state[cell] == mark + 1;
+    }
+
+    int distanceOf(int cell) {
+        return state[cell] >= mark ? distance[cell] : Integer.MAX_VALUE;
+    }
+
+    void discover(int cell, int dist, int from) {
+        state[cell] = mark;
+        distance[cell] = dist;
+        parent[cell] = from;
+    }
+
+    void traverse(int cell) {
+        state[cell] = mark + 1;
+        order[cell] = traversedCount;
+        record(cell);
+    }
+
+    boolean isReverseDiscovered(int cell) {
+        return reverseState[cell] >= mark;
+    }
+
+    boolean isReverseTraversed(int cell) {
+        return reverseState[cell] == mark + 1;
+    }
+
+    int reverseDistanceOf(int cell) {
+        return reverseState[cell] >= mark ? reverseDistance[cell] : Integer.MAX_VALUE;
+    }
+
+    void discoverReverse(int cell, int dist, int from) {
+        reverseState[cell] = mark;
+        reverseDistance[cell] = dist;
+        reverseParent[cell] = from;
+    }
+
+    // Recorded in traversed as ~cell so the two frontiers can be told apart
+    void traverseReverse(int cell) {
+        reverseState[cell] = mark + 1;
+        reverseOrder[cell] = traversedCount;
+        record(~cell);
+    }
+
+    private void record(int entry) {
+        int slot = traversedCount - flushed;
+        if (slot == traversed.length) {
+            traversed = Arrays.copyOf(traversed, slot * 2);
+        }
+        traversed[slot] = entry;
+        traversedCount++;
+        if (traversedCount >= budget.getMaxNodes()) {
+            halted = SearchLimit.NODES;
+        } else if (traversedCount % DEADLINE_CHECK == 0 && budget.isPastDeadline()) {
+            halted = SearchLimit.DEADLINE;
+        }
+        if (sink != null && slot + 1 == batchSize) {
+            flush();
+        }
+    }
+
+    // Called once a search is done. Hands buffered cells to the sink, if any, and returns how
+    // many traversed entries are still held for the SearchResult.
+    int drain() {
+        if (sink == null) return traversedCount;
+        flush();
+        return 0;
+    }
+
+    // Traversed distances are final, so a batch can be sent as soon as it fills up
+    private void flush() {
+        int count = traversedCount - flushed;
+        if (count == 0) return;
+        if (batchDistance.length < count) {
+            batchDistance = new int[traversed.length];
+        }
+        for (int i = 0; i < count; i++) {
+            int entry = traversed[i];
+            if (entry >= 0) {
+                batchDistance[i] = distance[entry];
+            } else {
+                traversed[i] = ~entry;
+                batchDistance[i] = reverseDistance[~entry];
+            }
+        }
+        flushed = traversedCount;
+        sink.accept(traversed, batchDistance, count);
+    }
+
+    int[] stack(int minCapacity) {
+        if (queue.length < minCapacity) {
+            queue = Arrays.copyOf(queue, Math.max(minCapacity, queue.length * 2));
+        }
+        return queue;
+    }
+}
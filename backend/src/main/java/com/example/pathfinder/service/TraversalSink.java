@@ -0,0 +1,8 @@
+package com.example.pathfinder.service;
+
+// Receives traversed cells in search order while a search is still running. The arrays are
+// reused between calls; only the first count entries are valid and must be consumed at once.
+@FunctionalInterface
+public interface TraversalSink {
+    void accept(int[] cells, int[] distances, int count);
+}
@@ -0,0 +1,80 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.SearchResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Writes a running search as a stream of JSON events, either newline-delimited or as
+// server-sent events. Cells are flat indices (row * cols + col), as in the compact format:
+//   {"type":"grid","rows":R,"cols":C}
+//   {"type":"traversal","cells":[...],"distances":[...]}   (repeated, flushed per batch)
+//   {"type":"path","reached":true,"cells":[...],"distances":[...]}
+// The path event also has "limitReached":"NODES" (or another SearchLimit) when a budget
+// stopped the search.
+public final class TraversalStreamWriter implements TraversalSink {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final OutputStream out;
+    private final boolean serverSentEvents;
+    private final StringBuilder line = new StringBuilder(1024);
+
+    public TraversalStreamWriter(OutputStream out, boolean serverSentEvents) {
+        this.out = out;
+        this.serverSentEvents = serverSentEvents;
+    }
+
+    public void grid(int rows, int cols) {
+        line.append("{\"type\":\"grid\",\"rows\":").append(rows).append(",\"cols\":").append(cols).append('}');
+        send("grid");
+    }
+
+    @Override
+    public void accept(int[] cells, int[] distances, int count) {
+        line.append("{\"type\":\"traversal\",\"cells\":");
+        array(cells, count);
+        line.append(",\"distances\":");
+        array(distances, count);
+        line.append('}');
+        send("traversal");
+    }
+
+    public void path(SearchResult result) {
+        int[] path = result.isReached() ? result.getPath() : new int[0];
+        int[] pathDistance = result.isReached() ? result.getPathDistance() : new int[0];
+        line.append("{\"type\":\"path\",\"reached\":").append(result.isReached()).append(",\"cells\":");
+        array(path, path.length);
+        line.append(",\"distances\":");
+        array(pathDistance, pathDistance.length);
+        if (result.getLimitReached() != null) {
+            line.append(",\"limitReached\":\"").append(result.getLimitReached()).append('"');
+        }
+        line.append('}');
+        send("path");
+    }
+
+    private void array(int[] values, int count) {
+        line.append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) line.append(',');
+            line.append(values[i]);
+        }
+        line.append(']');
+    }
+
+    // Flushes every event so the client sees progress while the search is still running
+    private void send(String event) {
+        String frame = serverSentEvents
+                ? "event: " + event + "\ndata: " + line + "\n\n"
+                : line.append('\n').toString();
+        line.setLength(0);
+        try {
+            out.write(frame.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.pathfinder.service.queue;
+
+import java.util.Arrays;
+
+// Dial's bucket queue for monotone non-negative keys: every key inserted must lie within
+// [last minimum polled, last minimum polled + span]. Buckets form a ring of doubly linked lists
+// threaded through per-node arrays, so insert, decrease-key and poll are all O(1) amortised.
+public final class BucketQueue implements IntPriorityQueue {
+    private static final int NONE = -1;
+
+    private int[] heads = new int[0];
+    private int mask;
+    private int[] next = new int[0];
+    private int[] prev = new int[0];
+    private int[] keys = new int[0];
+    private int[] stamp = new int[0]; // stamp == epoch while a node is queued
+    private int epoch;
+    private int cursor;
+    private int size;
+    private int pushes;
+    private int pops;
+
+    @Override
+    public void reset(int capacity) {
+        reset(capacity, 1);
+    }
+
+    // span is the largest amount a new key may exceed the current minimum by
+    public void reset(int capacity, int span) {
+        if (stamp.length < capacity) {
+            next = new int[capacity];
+            prev = new int[capacity];
+            keys = new int[capacity];
+            stamp = new int[capacity];
+            epoch = 0;
+        }
+        int buckets = Integer.highestOneBit(Math.max(span, 1)) << 1; // power of two > span
+        if (heads.length != buckets) {
+            heads = new int[buckets];
+        }
+        Arrays.fill(heads, NONE);
+        mask = buckets - 1;
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        cursor = NONE; // set by the first insert
+        size = 0;
+        pushes = 0;
+        pops = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return stamp[node] == epoch;
+    }
+
+    @Override
+    public void insertOrDecrease(int node, int key) {
+        if (cursor == NONE || (size == 0 && key - cursor > mask)) {
+            cursor = key;
+        } else if (key < cursor || key - cursor > mask) {
+            throw new IllegalStateException("Key " + key + " outside bucket window starting at " + cursor);
+        }
+        if (contains(node)) {
+            if (key >= keys[node]) return;
+            unlink(node);
+        } else {
+            stamp[node] = epoch;
+            size++;
+        }
+        keys[node] = key;
+        int bucket = key & mask;
+        int head = heads[bucket];
+        next[node] = head;
+        prev[node] = NONE;
+        if (head != NONE) prev[head] = node;
+        heads[bucket] = node;
+        pushes++;
+    }
+
+    @Override
+    public int pollMin() {
+        while (heads[cursor & mask] == NONE) {
+            cursor++;
+        }
+        int node = heads[cursor & mask];
+        unlink(node);
+        stamp[node] = 0;
+        size--;
+        pops++;
+        return node;
+    }
+
+    @Override
+    public int getPushes() {
+        return pushes;
+    }
+
+    @Override
+    public int getPops() {
+        return pops;
+    }
+
+    private void unlink(int node) {
+        int before = prev[node];
+        int after = next[node];
+        if (before == NONE) {
+            heads[keys[node] & mask] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) prev[after] = before;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.pathfinder.service.queue;
+
+// Binary min-heap of node ids with a position index, giving O(log n) decrease-key.
+// Keys are longs so callers can pack composite priorities; positions are validated against
+// the heap itself (sparse-set style), so reset() never has to clear the index.
+public final class IndexedMinHeap implements IntPriorityQueue {
+    private int[] heap = new int[0];
+    private int[] position = new int[0];
+    private long[] keys = new long[0];
+    private int size;
+    private int pushes;
+    private int pops;
+
+    @Override
+    public void reset(int capacity) {
+        if (position.length < capacity) {
+            heap = new int[capacity];
+            position = new int[capacity];
+            keys = new long[capacity];
+        }
+        size = 0;
+        pushes = 0;
+        pops = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        int i = position[node];
+        return i < size && heap[i] == node;
+    }
+
+    @Override
+    public void insertOrDecrease(int node, int key) {
+        insertOrDecrease(node, (long) key);
+    }
+
+    public void insertOrDecrease(int node, long key) {
+        if (contains(node)) {
+            if (key >= keys[node]) return;
+            keys[node] = key;
+            siftUp(position[node]);
+        } else {
+            keys[node] = key;
+            heap[size] = node;
+            position[node] = size;
+            siftUp(size++);
+        }
+        pushes++;
+    }
+
+    // Inserts node or moves it to key in either direction
+    public void update(int node, long key) {
+        if (!contains(node)) {
+            insertOrDecrease(node, key);
+            return;
+        }
+        long old = keys[node];
+        keys[node] = key;
+        if (key < old) {
+            siftUp(position[node]);
+        } else {
+            siftDown(position[node]);
+        }
+        pushes++;
+    }
+
+    public void remove(int node) {
+        if (!contains(node)) return;
+        int i = position[node];
+        int last = heap[--size];
+        if (i < size) {
+            heap[i] = last;
+            position[last] = i;
+            siftDown(i);
+            siftUp(position[last]);
+        }
+    }
+
+    public int peekMin() {
+        return heap[0];
+    }
+
+    public long minKey() {
+        return keys[heap[0]];
+    }
+
+    public long keyOf(int node) {
+        return keys[node];
+    }
+
+    @Override
+    public int pollMin() {
+        int top = heap[0];
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        pops++;
+        return top;
+    }
+
+    @Override
+    public int getPushes() {
+        return pushes;
+    }
+
+    @Override
+    public int getPops() {
+        return pops;
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        long key = keys[node];
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            int parent = heap[up];
+            if (keys[parent] <= key) break;
+            heap[i] = parent;
+            position[parent] = i;
+            i = up;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        long key = keys[node];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) child = right;
+            if (key <= keys[heap[child]]) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+}
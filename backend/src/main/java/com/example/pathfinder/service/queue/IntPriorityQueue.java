@@ -0,0 +1,25 @@
+package com.example.pathfinder.service.queue;
+
+// Min-priority queue over node ids 0..capacity-1 with int keys and decrease-key.
+// Each node is held at most once, so there are never stale entries to skip.
+public interface IntPriorityQueue {
+
+    // Empties the queue and makes room for node ids below capacity
+    void reset(int capacity);
+
+    boolean isEmpty();
+
+    int size();
+
+    boolean contains(int node);
+
+    // Inserts node, or lowers its key if it is already queued with a larger one
+    void insertOrDecrease(int node, int key);
+
+    // Removes and returns the node with the smallest key
+    int pollMin();
+
+    int getPushes();
+
+    int getPops();
+}
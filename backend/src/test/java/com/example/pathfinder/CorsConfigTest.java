@@ -0,0 +1,28 @@
+package com.example.pathfinder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorsConfigTest {
+
+    @Test
+    void allowsTheMethodsTheApiMapsFromTheFrontend() {
+        Registry registry = new Registry();
+        new CorsConfig().corsConfigurer().addCorsMappings(registry);
+
+        CorsConfiguration api = registry.configurations().get("/api/**");
+        // PATCH is what the wall and cost edits are mapped to
+        assertThat(api.getAllowedMethods()).contains("GET", "POST", "PUT", "PATCH", "DELETE");
+    }
+
+    private static final class Registry extends CorsRegistry {
+        Map<String, CorsConfiguration> configurations() {
+            return getCorsConfigurations();
+        }
+    }
+}
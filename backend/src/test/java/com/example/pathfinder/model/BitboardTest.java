@@ -0,0 +1,123 @@
+package com.example.pathfinder.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BitboardTest {
+    private static final int[] ROW_STEPS = {-1, 1, 0, 0};
+    private static final int[] COL_STEPS = {0, 0, -1, 1};
+
+    private final Random random = new Random(22);
+
+    @Test
+    void fillMatchesBreadthFirstFlood() {
+        // Widths on both sides of word boundaries, densities from open fields to walled-in cells
+        for (int[] size : new int[][] {{1, 1}, {1, 130}, {130, 1}, {7, 63}, {9, 64}, {33, 65}, {64, 128}, {141, 141}, {50, 200}}) {
+            for (double density : new double[] {0.0, 0.2, 0.35, 0.45, 0.6}) {
+                MazeGrid grid = randomGrid(size[0], size[1], density);
+                Bitboard open = Bitboard.open(grid);
+                for (int i = 0; i < 5; i++) {
+                    int row = random.nextInt(grid.getRows());
+                    int col = random.nextInt(grid.getCols());
+                    Bitboard filled = new Bitboard(grid.getRows(), grid.getCols()).set(row, col).fill(open);
+
+                    int[] distance = flood(grid, grid.index(row, col));
+                    assertThat(filled).isEqualTo(reachedBy(grid, distance, Integer.MAX_VALUE - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void fillFollowsLongWindingCorridors() {
+        // A serpentine corridor turns back on itself every row, the worst case for the sweeps
+        int rows = 101;
+        int cols = 97;
+        MazeGrid.Builder builder = MazeGrid.builder(rows, cols);
+        for (int r = 1; r < rows; r += 2) {
+            for (int c = 0; c < cols; c++) {
+                builder.setWall(r, c, true);
+            }
+            builder.setWall(r, r % 4 == 1 ? cols - 1 : 0, false);
+        }
+        MazeGrid grid = builder.build();
+        Bitboard filled = new Bitboard(rows, cols).set(rows - 1, 0).fill(Bitboard.open(grid));
+
+        assertThat(filled).isEqualTo(Bitboard.open(grid));
+    }
+
+    @Test
+    void fillDropsSeedsOutsideOpen() {
+        MazeGrid grid = MazeGrid.builder(3, 70).setWall(1, 66, true).build();
+        Bitboard filled = new Bitboard(3, 70).set(1, 66).fill(Bitboard.open(grid));
+
+        assertThat(filled.isEmpty()).isTrue();
+    }
+
+    @Test
+    void stepAdvancesTheFrontierOneLevel() {
+        for (int[] size : new int[][] {{17, 63}, {40, 129}, {141, 141}}) {
+            MazeGrid grid = randomGrid(size[0], size[1], 0.3);
+            Bitboard open = Bitboard.open(grid);
+            int start = grid.index(random.nextInt(grid.getRows()), random.nextInt(grid.getCols()));
+            int[] distance = flood(grid, start);
+
+            Bitboard frontier = new Bitboard(grid.getRows(), grid.getCols()).set(start / grid.getCols(), start % grid.getCols());
+            Bitboard visited = frontier.copy();
+            for (int level = 1; !frontier.isEmpty(); level++) {
+                frontier = frontier.step(open, visited);
+                visited.or(frontier);
+                assertThat(frontier).isEqualTo(reachedBy(grid, distance, level).andNot(reachedBy(grid, distance, level - 1)));
+            }
+            assertThat(visited).isEqualTo(reachedBy(grid, distance, Integer.MAX_VALUE - 1));
+        }
+    }
+
+    private MazeGrid randomGrid(int rows, int cols, double density) {
+        MazeGrid.Builder builder = MazeGrid.builder(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (random.nextDouble() < density) builder.setWall(r, c, true);
+            }
+        }
+        return builder.build();
+    }
+
+    // Reference BFS over open 4-neighbors; unreached cells stay at Integer.MAX_VALUE
+    private static int[] flood(MazeGrid grid, int start) {
+        int[] distance = new int[grid.size()];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        if (grid.isWall(start)) return distance;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        distance[start] = 0;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            int row = cell / grid.getCols();
+            int col = cell % grid.getCols();
+            for (int d = 0; d < 4; d++) {
+                int r = row + ROW_STEPS[d];
+                int c = col + COL_STEPS[d];
+                if (!grid.inBounds(r, c) || grid.isWall(r, c)) continue;
+                int neighbor = grid.index(r, c);
+                if (distance[neighbor] != Integer.MAX_VALUE) continue;
+                distance[neighbor] = distance[cell] + 1;
+                queue.add(neighbor);
+            }
+        }
+        return distance;
+    }
+
+    private static Bitboard reachedBy(MazeGrid grid, int[] distance, int maxDistance) {
+        Bitboard reached = new Bitboard(grid.getRows(), grid.getCols());
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if (distance[cell] <= maxDistance) reached.set(cell / grid.getCols(), cell % grid.getCols());
+        }
+        return reached;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.pathfinder.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MazeGridTest {
+
+    @Test
+    void costsThatCollidedInTheOldHashHashDifferently() {
+        MazeGrid first = MazeGrid.builder(3, 3).setCost(1, 0, 1).setCost(1, 1, 32).build();
+        MazeGrid second = MazeGrid.builder(3, 3).setCost(1, 0, 2).setCost(1, 1, 1).build();
+
+        assertThat(first.contentHash()).isNotEqualTo(second.contentHash());
+    }
+
+    @Test
+    void gridsDifferingOnlyInCostsDontCollide() {
+        Random random = new Random(16);
+        Set<Long> hashes = new HashSet<>();
+        int grids = 0;
+        for (int size : new int[] {2, 3, 5, 9, 17}) {
+            for (int i = 0; i < 400; i++) {
+                MazeGrid.Builder builder = MazeGrid.builder(size, size);
+                builder.setWall(0, 0, true);
+                builder.setCost(random.nextInt(size), random.nextInt(size), 1 + random.nextInt(MazeGrid.MAX_COST));
+                builder.setCost(random.nextInt(size), random.nextInt(size), 1 + random.nextInt(MazeGrid.MAX_COST));
+                hashes.add(builder.build().contentHash());
+                grids++;
+            }
+        }
+        // Same walls everywhere, so any repeated hash comes from equal costs; allow only those
+        assertThat(hashes.size()).isGreaterThan(grids * 9 / 10);
+    }
+
+    @Test
+    void swappingTwoCostsChangesTheHash() {
+        MazeGrid first = MazeGrid.builder(4, 4).setCost(0, 1, 7).setCost(3, 2, 200).build();
+        MazeGrid second = MazeGrid.builder(4, 4).setCost(0, 1, 200).setCost(3, 2, 7).build();
+
+        assertThat(first.contentHash()).isNotEqualTo(second.contentHash());
+    }
+
+    @Test
+    void equalMazesHashEquallyWhetherOnHeapOrMapped() {
+        MazeGrid heap = MazeGrid.builder(5, 70).setWall(2, 65, true).setCost(4, 3, 9).build();
+        int words = heap.getRows() * heap.getWordsPerRow();
+        ByteBuffer walls = ByteBuffer.allocate(words * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < words; i++) {
+            walls.putLong(heap.wallWord(i));
+        }
+        ByteBuffer costs = ByteBuffer.allocate(heap.size());
+        for (int i = 0; i < heap.size(); i++) {
+            costs.put((byte) heap.cost(i));
+        }
+        MazeGrid mapped = MazeGrid.mapped(heap.getRows(), heap.getCols(), walls.flip().asLongBuffer(),
+                costs.flip(), heap.getMaxCost(), 0);
+
+        assertThat(mapped.contentHash()).isEqualTo(heap.contentHash());
+    }
+
+    @Test
+    void sizesWhoseCellCountOverflowsAreRejected() {
+        for (int[] size : new int[][] {{0, 5}, {5, -1}, {65536, 65536}, {Integer.MAX_VALUE, 2}}) {
+            assertThatThrownBy(() -> MazeGrid.builder(size[0], size[1]))
+                    .as("%dx%d", size[0], size[1]).isInstanceOf(IllegalArgumentException.class);
+        }
+        MazeGrid.checkSize(1, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.pathfinder.repository;
+
+import com.example.pathfinder.model.MazeGrid;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MazeFileStoreTest {
+    private static final String ID = "0f8e2b1c-1111-2222-3333-444455556666";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatItWrote() throws IOException {
+        Random random = new Random(19);
+        for (boolean compress : new boolean[] {false, true}) {
+            MazeFileStore store = new MazeFileStore(directory.toString(), compress);
+            for (boolean weighted : new boolean[] {false, true}) {
+                MazeGrid.Builder builder = MazeGrid.builder(37, 130);
+                for (int r = 0; r < 37; r++) {
+                    for (int c = 0; c < 130; c++) {
+                        builder.setWall(r, c, random.nextInt(3) == 0);
+                        if (weighted) builder.setCost(r, c, 1 + random.nextInt(MazeGrid.MAX_COST));
+                    }
+                }
+                MazeGrid grid = builder.build();
+                store.write(ID, grid);
+
+                MazeGrid read = store.read(ID);
+                assertThat(read.getRows()).isEqualTo(37);
+                assertThat(read.getCols()).isEqualTo(130);
+                assertThat(read.isWeighted()).isEqualTo(weighted);
+                assertThat(read.getMaxCost()).isEqualTo(grid.getMaxCost());
+                assertThat(read.contentHash()).isEqualTo(grid.contentHash());
+                for (int cell = 0; cell < grid.size(); cell++) {
+                    assertThat(read.isWall(cell)).as("cell %d", cell).isEqualTo(grid.isWall(cell));
+                    assertThat(read.cost(cell)).as("cell %d", cell).isEqualTo(grid.cost(cell));
+                }
+                assertThat(temporaryFiles()).isZero();
+            }
+        }
+    }
+
+    @Test
+    void corruptHeadersFailWithIOException() throws IOException {
+        for (boolean compress : new boolean[] {false, true}) {
+            MazeFileStore store = new MazeFileStore(directory.toString(), compress);
+            // rows, then cols, set to values that would overflow or exhaust the heap
+            for (int offset : new int[] {12, 16}) {
+                for (int value : new int[] {0, -5, Integer.MAX_VALUE, 1 << 20}) {
+                    store.write(ID, MazeGrid.builder(9, 9).build());
+                    overwriteInt(offset, value);
+                    assertThatThrownBy(() -> store.read(ID)).isInstanceOf(IOException.class);
+                }
+            }
+        }
+    }
+
+    @Test
+    void leftoverTemporaryFilesAreRemovedOnStartup() throws IOException {
+        Files.createFile(directory.resolve(ID + ".123.tmp"));
+        new MazeFileStore(directory.toString(), false);
+
+        assertThat(temporaryFiles()).isZero();
+    }
+
+    @Test
+    void listsStoredMazesOldestFirst() throws IOException {
+        MazeFileStore store = new MazeFileStore(directory.toString(), false);
+        String older = "aaaa-1";
+        String newer = "bbbb-2";
+        store.write(newer, MazeGrid.builder(2, 2).build());
+        store.write(older, MazeGrid.builder(2, 2).build());
+        Files.setLastModifiedTime(directory.resolve(older + ".maze"), FileTime.fromMillis(1_000));
+
+        assertThat(store.list()).extracting(Map.Entry::getKey).containsExactly(older, newer);
+        assertThat(store.contains(older)).isTrue();
+        assertThat(store.contains("cccc-3")).isFalse();
+    }
+
+    @Test
+    void idsThatAreNotPlainFileNamesAreRejected() throws IOException {
+        MazeFileStore store = new MazeFileStore(directory.toString(), false);
+
+        assertThat(store.contains("../escape")).isFalse();
+        assertThatThrownBy(() -> store.write("../escape", MazeGrid.builder(2, 2).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void disabledWithoutADirectory() throws IOException {
+        MazeFileStore store = new MazeFileStore("", false);
+
+        assertThat(store.isEnabled()).isFalse();
+        assertThat(store.contains(ID)).isFalse();
+    }
+
+    private void overwriteInt(int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(ID + ".maze"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), offset);
+        }
+    }
+
+    private long temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".tmp")).count();
+        }
+    }
+}
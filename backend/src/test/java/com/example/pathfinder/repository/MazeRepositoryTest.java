@@ -0,0 +1,190 @@
+package com.example.pathfinder.repository;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Tile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MazeRepositoryTest {
+    private final List<Object> events = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storesSnapshotsUnderTheirOwnIds() throws IOException {
+        MazeRepository repository = repository();
+        assertThat(repository.findLatestId()).isEmpty();
+
+        MazeGrid first = grid(3);
+        MazeGrid second = grid(5);
+        String firstId = repository.save(first);
+        String secondId = repository.save(second);
+
+        assertThat(firstId).isNotEqualTo(secondId);
+        assertThat(repository.findById(firstId)).containsSame(first);
+        assertThat(repository.findById(secondId)).containsSame(second);
+        assertThat(repository.findLatestId()).contains(secondId);
+        assertThat(repository.findById("unknown")).isEmpty();
+    }
+
+    @Test
+    void dropsTheLeastRecentlyUsedMazeWhenFull() throws IOException {
+        MazeRepository repository = repository();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 256; i++) {
+            ids.add(repository.save(grid(2)));
+        }
+        repository.findById(ids.get(0)); // now the most recently used
+
+        repository.save(grid(2));
+
+        assertThat(repository.findById(ids.get(0))).isPresent();
+        assertThat(repository.findById(ids.get(1))).isEmpty();
+        assertThat(events).singleElement().isInstanceOfSatisfying(MazeRemovedEvent.class,
+                event -> assertThat(event.getMazeId()).isEqualTo(ids.get(1)));
+    }
+
+    @Test
+    void replaceSwapsInEditedSnapshotsUnlessTheMazeMovedOn() throws IOException {
+        MazeRepository repository = repository();
+        MazeGrid original = grid(3);
+        MazeGrid edited = grid(3);
+        String id = repository.save(original);
+
+        repository.replace(id, original, edited, new int[] {4});
+
+        assertThat(repository.findById(id)).containsSame(edited);
+        assertThat(events).singleElement().isInstanceOfSatisfying(MazeEditedEvent.class, event -> {
+            assertThat(event.getPrevious()).isSameAs(original);
+            assertThat(event.getCurrent()).isSameAs(edited);
+            assertThat(event.getChangedCells()).containsExactly(4);
+        });
+        assertThatThrownBy(() -> repository.replace(id, original, grid(3), new int[0]))
+                .isInstanceOf(ConcurrentModificationException.class);
+        assertThat(repository.findById(id)).containsSame(edited);
+    }
+
+    @Test
+    void evictedMazesAreReadBackFromDisk() throws IOException {
+        MazeRepository repository = repository(new MazeFileStore(directory.toString(), false));
+        MazeGrid first = MazeGrid.builder(3, 70).setWall(1, 66, true).build();
+        String firstId = repository.save(first);
+        for (int i = 0; i < 256; i++) {
+            repository.save(grid(2));
+        }
+
+        MazeGrid reloaded = repository.findById(firstId).orElseThrow();
+
+        assertThat(reloaded).isNotSameAs(first);
+        assertThat(reloaded.contentHash()).isEqualTo(first.contentHash());
+        assertThat(reloaded.isWall(1, 66)).isTrue();
+    }
+
+    @Test
+    void storedMazesAreMappedBackOnStartup() throws IOException {
+        MazeFileStore store = new MazeFileStore(directory.toString(), false);
+        MazeRepository before = repository(store);
+        MazeGrid grid = MazeGrid.builder(5, 5).setWall(2, 2, true).setCost(4, 4, 9).build();
+        String id = before.save(grid);
+
+        MazeRepository after = repository(store);
+        after.loadStored();
+
+        assertThat(after.findLatestId()).contains(id);
+        assertThat(after.findById(id).orElseThrow().contentHash()).isEqualTo(grid.contentHash());
+    }
+
+    @Test
+    void concurrentEditsLeaveTheNewestSnapshotOnDisk() throws Exception {
+        MazeFileStore store = new MazeFileStore(directory.toString(), false);
+        MazeRepository repository = repository(store);
+        String id = repository.save(MazeGrid.builder(64, 64).build());
+        ExecutorService editors = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<?>> edits = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    int column = round * 3 + t % 3;
+                    edits.add(editors.submit(() -> {
+                        go.await();
+                        while (true) {
+                            MazeGrid current = repository.findById(id).orElseThrow();
+                            try {
+                                repository.replace(id, current, current.toBuilder().setWall(1, column, true).build(), new int[] {64 + column});
+                                return null;
+                            } catch (ConcurrentModificationException e) {
+                                // lost the race; edit the newer snapshot
+                            }
+                        }
+                    }));
+                }
+                go.countDown();
+                for (Future<?> edit : edits) {
+                    edit.get(10, TimeUnit.SECONDS);
+                }
+                MazeGrid inMemory = repository.findById(id).orElseThrow();
+                assertThat(store.read(id).contentHash()).isEqualTo(inMemory.contentHash());
+            }
+        } finally {
+            editors.shutdownNow();
+        }
+    }
+
+    @Test
+    void keepsOnlyTheNewestFilesBeyondTheLimit() throws IOException {
+        MazeFileStore store = new MazeFileStore(directory.toString(), false);
+        MazeRepository repository = repository(store, 3);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(repository.save(MazeGrid.builder(4, 4).setWall(0, i % 4, true).build()));
+        }
+
+        assertThat(store.list()).hasSize(3);
+        assertThat(store.contains(ids.get(5))).isTrue();
+        assertThat(store.contains(ids.get(0))).isFalse();
+    }
+
+    private MazeRepository repository() throws IOException {
+        return repository(new MazeFileStore("", false));
+    }
+
+    private MazeRepository repository(MazeFileStore store) {
+        return repository(store, 1024);
+    }
+
+    private MazeRepository repository(MazeFileStore store, int maxStored) {
+        MazeRepository repository = new MazeRepository();
+        ReflectionTestUtils.setField(repository, "events", (ApplicationEventPublisher) events::add);
+        ReflectionTestUtils.setField(repository, "fileStore", store);
+        ReflectionTestUtils.setField(repository, "maxStored", maxStored);
+        return repository;
+    }
+
+    private static MazeGrid grid(int size) {
+        Tile[][] tiles = new Tile[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                tiles[r][c] = new Tile(r, c);
+            }
+        }
+        return MazeGrid.fromTiles(tiles);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchPathfindingServiceTest {
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final PathfindingService pathfinding = new PathfindingService();
+    private final BatchPathfindingService batch = new BatchPathfindingService();
+
+    BatchPathfindingServiceTest() {
+        ReflectionTestUtils.setField(pathfinding, "hierarchicalPathfinder", new HierarchicalPathfinder());
+        ReflectionTestUtils.setField(pathfinding, "incrementalPlanner", new IncrementalPlanner());
+        ReflectionTestUtils.setField(pathfinding, "parallelBreadthFirstSearch", new ParallelBreadthFirstSearch());
+        ReflectionTestUtils.setField(pathfinding, "corridorPathfinder", new CorridorPathfinder());
+        ReflectionTestUtils.setField(batch, "pathfindingService", pathfinding);
+        ReflectionTestUtils.setField(batch, "resultCache", new PathResultCache(0));
+        ReflectionTestUtils.setField(batch, "searchPool", pool);
+    }
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void resultsComeBackInQueryOrder() {
+        Random random = new Random(12);
+        MazeGrid grid = TestGrids.random(80, 80, 0.3, random);
+        List<SearchQuery> queries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Algorithm algorithm = Algorithm.values()[random.nextInt(Algorithm.values().length)];
+            queries.add(new SearchQuery(algorithm, position(grid, TestGrids.randomOpenCell(grid, random)),
+                    position(grid, TestGrids.randomOpenCell(grid, random)), Heuristic.MANHATTAN, 1.0));
+        }
+
+        List<SearchResult> results = batch.searchAll(grid, queries);
+
+        assertThat(results).hasSize(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            SearchQuery query = queries.get(i);
+            SearchResult expected = pathfinding.search(query.getAlgorithm(), grid, query.getStart(), query.getEnd(),
+                    query.getHeuristic(), query.getWeight());
+            assertThat(results.get(i).getPath()).as("query %d", i).isEqualTo(expected.getPath());
+            if (query.getAlgorithm() != Algorithm.LPA_STAR) { // a repeat LPA* query expands nothing new
+                assertThat(results.get(i).getTraversed()).as("query %d", i).isEqualTo(expected.getTraversed());
+            }
+        }
+    }
+
+    @Test
+    void aFailingQueryFailsTheBatchWithItsOwnException() {
+        MazeGrid grid = TestGrids.random(10, 10, 0.0, new Random(12));
+        List<SearchQuery> queries = List.of(
+                new SearchQuery(Algorithm.BFS, new Position(0, 0), new Position(9, 9), Heuristic.MANHATTAN, 1.0),
+                new SearchQuery(Algorithm.A_STAR, new Position(0, 0), new Position(9, 9), Heuristic.MANHATTAN, 0.5));
+
+        assertThatThrownBy(() -> batch.searchAll(grid, queries))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("weight");
+    }
+
+    @Test
+    void responseSizeLimitCoversTheWholeBatch() {
+        MazeGrid grid = MazeGrid.builder(60, 60).build();
+        List<SearchQuery> queries = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            queries.add(new SearchQuery(Algorithm.BFS, new Position(0, 0), new Position(59, i), Heuristic.MANHATTAN, 1.0));
+        }
+        int maxCells = 2000;
+
+        List<SearchResult> results = batch.searchAll(grid, queries, SearchBudget.of(Integer.MAX_VALUE, 0, maxCells));
+
+        long cells = 0;
+        for (SearchResult result : results) {
+            cells += result.getPath().length + result.getTraversed().length;
+        }
+        // Every result keeps at least its start cell
+        assertThat(cells).isLessThanOrEqualTo(maxCells + queries.size());
+        assertThat(results).hasSize(queries.size());
+        assertThat(results).anySatisfy(result -> assertThat(result.getLimitReached()).isEqualTo(SearchLimit.RESPONSE_SIZE));
+        SearchResult last = results.get(results.size() - 1);
+        assertThat(last.isReached()).isFalse();
+        assertThat(last.getPath()).containsExactly(0);
+    }
+
+    @Test
+    void batchesWithinTheLimitAreUntouched() {
+        MazeGrid grid = MazeGrid.builder(20, 20).build();
+        List<SearchQuery> queries = List.of(
+                new SearchQuery(Algorithm.A_STAR, new Position(0, 0), new Position(19, 19), Heuristic.MANHATTAN, 1.0),
+                new SearchQuery(Algorithm.BFS, new Position(5, 5), new Position(5, 6), Heuristic.MANHATTAN, 1.0));
+
+        List<SearchResult> results = batch.searchAll(grid, queries, SearchBudget.UNLIMITED);
+
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.isReached()).isTrue();
+            assertThat(result.getLimitReached()).isNull();
+        });
+        assertThat(results.get(0).getPath()).hasSize(39);
+    }
+
+    private static Position position(MazeGrid grid, int cell) {
+        return new Position(cell / grid.getCols(), cell % grid.getCols());
+    }
+}
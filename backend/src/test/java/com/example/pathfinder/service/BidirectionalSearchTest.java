@@ -0,0 +1,54 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BidirectionalSearchTest {
+    private final Random random = new Random(6);
+
+    @Test
+    void bothDirectionsMeetOnShortestPaths() {
+        for (int[] size : new int[][] {{1, 50}, {20, 20}, {45, 110}, {100, 100}}) {
+            for (double density : new double[] {0.0, 0.2, 0.35, 0.45}) {
+                MazeGrid grid = TestGrids.random(size[0], size[1], density, random);
+                if (TestGrids.openCells(grid).isEmpty()) continue;
+                for (int i = 0; i < 25; i++) {
+                    int start = TestGrids.randomOpenCell(grid, random);
+                    int end = i % 10 == 0 ? start : TestGrids.randomOpenCell(grid, random);
+                    int expected = TestGrids.distances(grid, start)[end];
+
+                    assertShortest(grid, BidirectionalSearch.bfs(grid, start, end), start, end, expected);
+                    for (Heuristic heuristic : Heuristic.values()) {
+                        assertShortest(grid, BidirectionalSearch.aStar(grid, start, end, heuristic), start, end, expected);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void traversesFewerCellsThanOneSidedSearchOnOpenGrids() {
+        MazeGrid grid = TestGrids.random(200, 200, 0.1, random);
+        long bidirectional = 0;
+        long oneSided = 0;
+        for (int i = 0; i < 20; i++) {
+            int start = TestGrids.randomOpenCell(grid, random);
+            int end = TestGrids.randomOpenCell(grid, random);
+            bidirectional += BidirectionalSearch.bfs(grid, start, end).getTraversed().length;
+            oneSided += GridSearchEngine.bfs(grid, start, end).getTraversed().length;
+        }
+        assertThat(bidirectional).isLessThan(oneSided);
+    }
+
+    private static void assertShortest(MazeGrid grid, SearchResult result, int start, int end, int expected) {
+        assertThat(result.isReached()).isEqualTo(expected != Integer.MAX_VALUE);
+        if (!result.isReached()) return;
+        TestGrids.assertPath(grid, result.getPath(), start, end);
+        assertThat(result.getPath()).hasSize(expected + 1);
+    }
+}
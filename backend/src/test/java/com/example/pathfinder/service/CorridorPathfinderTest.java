@@ -0,0 +1,129 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.CorridorStats;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.MazeType;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorridorPathfinderTest {
+    private final Random random = new Random(25);
+
+    @Test
+    void findsShortestPathsOnPerfectAndBraidedMazes() {
+        for (MazeType type : MazeType.values()) {
+            for (int size : new int[] {11, 41, 101}) {
+                MazeGrid maze = maze(type, size);
+                MazeGrid braided = braid(maze);
+                for (boolean prune : new boolean[] {true, false}) {
+                    for (MazeGrid grid : List.of(maze, braided)) {
+                        CorridorPathfinder corridors = new CorridorPathfinder();
+                        corridors.preprocess(grid, prune);
+                        assertMatchesBreadthFirstSearch(corridors, grid, 60);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void expandsFarFewerNodesThanGridAStarOnLargeMazes() {
+        MazeGrid grid = maze(MazeType.PRIM, 301);
+        CorridorPathfinder corridors = new CorridorPathfinder();
+        long junctions = 0;
+        long cells = 0;
+        for (int i = 0; i < 50; i++) {
+            int start = TestGrids.randomOpenCell(grid, random);
+            int end = TestGrids.randomOpenCell(grid, random);
+            junctions += corridors.search(grid, start, end).getTraversed().length;
+            cells += GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0).getTraversed().length;
+        }
+        assertThat(junctions * 4).isLessThan(cells);
+    }
+
+    @Test
+    void openGridsKeepOnlyCountsAndFallBackToGridSearch() {
+        MazeGrid grid = TestGrids.random(300, 300, 0.1, random);
+        CorridorPathfinder corridors = new CorridorPathfinder();
+
+        assertMatchesBreadthFirstSearch(corridors, grid, 20);
+        CorridorStats stats = corridors.getStats(grid).orElseThrow();
+        assertThat(stats.isCompressed()).isFalse();
+        assertThat(stats.getNodes()).isGreaterThan(stats.getOpenCells() / 2);
+        assertThat(stats.getEstimatedBytes()).isLessThan(1024);
+    }
+
+    @Test
+    void handlesUnreachableEndsAndAdjacentJunctions() {
+        MazeGrid.Builder builder = MazeGrid.builder(7, 7);
+        for (int c = 0; c < 7; c++) {
+            builder.setWall(3, c, true);
+        }
+        MazeGrid split = builder.build();
+        assertThat(new CorridorPathfinder().search(split, 0, 48).isReached()).isFalse();
+
+        // Start on a junction, end on the corridor cell next to it
+        MazeGrid maze = maze(MazeType.BINARY_TREE, 11);
+        CorridorPathfinder corridors = new CorridorPathfinder();
+        for (int start : TestGrids.openCells(maze)) {
+            for (int end : new int[] {start + 1, start - 1, start + 11, start - 11}) {
+                if (end < 0 || end >= maze.size() || maze.isWall(end)) continue;
+                assertThat(corridors.search(maze, start, end).getPath()).containsExactly(start, end);
+            }
+        }
+    }
+
+    @Test
+    void budgetLimitedSearchesReturnContiguousPartialPaths() {
+        MazeGrid grid = maze(MazeType.KRUSKAL, 101);
+        PathfindingService service = new PathfindingService();
+        ReflectionTestUtils.setField(service, "corridorPathfinder", new CorridorPathfinder());
+        SearchQuery query = new SearchQuery(Algorithm.CORRIDOR_A_STAR,
+                new Position(1, 1), new Position(99, 99), Heuristic.MANHATTAN, 1.0);
+        for (int maxNodes : new int[] {1, 3, 20}) {
+            SearchResult result = service.search(grid, query, SearchBudget.of(maxNodes, 0, Integer.MAX_VALUE));
+            assertThat(result.getTraversed().length).isLessThanOrEqualTo(maxNodes);
+            assertThat(result.getPath()[0]).isEqualTo(grid.index(1, 1));
+            TestGrids.assertContiguous(grid, result.getPath());
+        }
+    }
+
+    private void assertMatchesBreadthFirstSearch(CorridorPathfinder corridors, MazeGrid grid, int queries) {
+        for (int i = 0; i < queries; i++) {
+            int start = TestGrids.randomOpenCell(grid, random);
+            int end = i % 10 == 0 ? start : TestGrids.randomOpenCell(grid, random);
+            if (i % 13 == 0) end = random.nextInt(grid.size()); // may be a wall
+            SearchResult expected = GridSearchEngine.bfs(grid, start, end);
+            SearchResult actual = corridors.search(grid, start, end);
+
+            assertThat(actual.isReached()).isEqualTo(expected.isReached());
+            if (!expected.isReached()) continue;
+            int[] path = actual.getPath();
+            assertThat(path).hasSameSizeAs(expected.getPath());
+            TestGrids.assertPath(grid, path, start, end);
+        }
+    }
+
+    private static MazeGrid maze(MazeType type, int size) {
+        return new MazeService().generateMazeOnly(type, size, size, new Position(1, 1),
+                new Position(size - 2, size - 2), size).getGrid();
+    }
+
+    // Knocks out some walls, so the maze has cycles
+    private MazeGrid braid(MazeGrid maze) {
+        MazeGrid.Builder builder = maze.toBuilder();
+        int size = maze.getRows();
+        for (int i = 0; i < size * size / 30; i++) {
+            builder.setWall(1 + random.nextInt(size - 2), 1 + random.nextInt(size - 2), false);
+        }
+        return builder.build();
+    }
+}
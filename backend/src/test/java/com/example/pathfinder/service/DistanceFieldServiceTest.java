@@ -0,0 +1,97 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.DistanceField;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DistanceFieldServiceTest {
+    private final Random random = new Random(13);
+    private final DistanceFieldService service = new DistanceFieldService();
+
+    @Test
+    void fieldMatchesReferenceDistancesAndPathsMatchSearches() {
+        for (double density : new double[] {0.0, 0.3, 0.45}) {
+            MazeGrid grid = TestGrids.random(50, 90, density, random);
+            int source = TestGrids.randomOpenCell(grid, random);
+            DistanceField field = service.field(grid, position(grid, source));
+            int[] expected = TestGrids.distances(grid, source);
+
+            int max = 0;
+            for (int cell = 0; cell < grid.size(); cell++) {
+                assertThat(field.distance(cell)).as("cell %d", cell).isEqualTo(expected[cell]);
+                if (expected[cell] != Integer.MAX_VALUE) max = Math.max(max, expected[cell]);
+            }
+            assertThat(field.getMaxDistance()).isEqualTo(max);
+            int[] heatmap = field.toDistanceGrid();
+            assertThat(Arrays.stream(heatmap).filter(d -> d < 0).count())
+                    .isEqualTo(Arrays.stream(expected).filter(d -> d == Integer.MAX_VALUE).count());
+
+            // Every target, walled ones included, gets the path a search would find
+            for (int target = 0; target < grid.size(); target += 7) {
+                SearchResult path = service.pathTo(field, position(grid, target));
+                SearchResult search = GridSearchEngine.bfs(grid, source, target);
+                assertThat(path.isReached()).as("target %d", target).isEqualTo(search.isReached());
+                if (!path.isReached()) continue;
+                assertThat(path.getPath()).hasSameSizeAs(search.getPath());
+                TestGrids.assertPath(grid, path.getPath(), source, target);
+            }
+        }
+    }
+
+    @Test
+    void weightedFieldsHoldCheapestCostsAndPaths() {
+        MazeGrid grid = TestGrids.weighted(40, 70, random);
+        int source = TestGrids.randomOpenCell(grid, random);
+        DistanceField field = service.field(grid, position(grid, source));
+        int[] expected = TestGrids.costDistances(grid, source, Movement.FOUR);
+
+        int max = 0;
+        for (int cell = 0; cell < grid.size(); cell++) {
+            assertThat(field.distance(cell)).as("cell %d", cell).isEqualTo(expected[cell]);
+            if (expected[cell] != Integer.MAX_VALUE) max = Math.max(max, expected[cell]);
+        }
+        assertThat(field.getMaxDistance()).isEqualTo(max);
+        for (int target = 0; target < grid.size(); target += 7) {
+            SearchResult path = service.pathTo(field, position(grid, target));
+            SearchResult search = GridSearchEngine.dijkstra(grid, source, target);
+            assertThat(path.isReached()).as("target %d", target).isEqualTo(search.isReached());
+            if (!path.isReached()) continue;
+            TestGrids.assertPath(grid, path.getPath(), source, target);
+            assertThat(path.getPathDistance()[path.getPath().length - 1])
+                    .isEqualTo(search.getPathDistance()[search.getPath().length - 1]);
+        }
+    }
+
+    @Test
+    void fieldsLargerThanTheNodeBudgetAreRefusedUnlessCached() {
+        MazeGrid grid = TestGrids.random(30, 30, 0.2, random);
+        Position source = position(grid, TestGrids.randomOpenCell(grid, random));
+        SearchBudget tight = SearchBudget.of(grid.openCells() - 1, 0, Integer.MAX_VALUE);
+
+        assertThatThrownBy(() -> service.field(grid, source, tight)).isInstanceOf(IllegalArgumentException.class);
+        DistanceField field = service.field(grid, source, SearchBudget.of(grid.openCells(), 0, Integer.MAX_VALUE));
+        assertThat(service.field(grid, source, tight)).isSameAs(field);
+    }
+
+    @Test
+    void sharesOneFieldPerMazeAndSource() {
+        MazeGrid grid = TestGrids.random(20, 20, 0.2, random);
+        Position source = position(grid, TestGrids.randomOpenCell(grid, random));
+
+        assertThat(service.field(grid, source)).isSameAs(service.field(grid, source));
+        assertThat(service.field(TestGrids.random(20, 20, 0.2, random), source)).isNotSameAs(service.field(grid, source));
+    }
+
+    private static Position position(MazeGrid grid, int cell) {
+        return new Position(cell / grid.getCols(), cell % grid.getCols());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GridSearchEngineTest {
+    private final Random random = new Random(1);
+
+    @Test
+    void shortestPathSearchesMatchReferenceDistances() {
+        for (int[] size : new int[][] {{1, 1}, {1, 90}, {20, 20}, {37, 130}, {100, 64}}) {
+            for (double density : new double[] {0.0, 0.25, 0.4}) {
+                MazeGrid grid = TestGrids.random(size[0], size[1], density, random);
+                if (TestGrids.openCells(grid).isEmpty()) continue;
+                for (int i = 0; i < 20; i++) {
+                    int start = TestGrids.randomOpenCell(grid, random);
+                    int end = TestGrids.randomOpenCell(grid, random);
+                    int expected = TestGrids.distances(grid, start)[end];
+
+                    assertShortest(grid, GridSearchEngine.bfs(grid, start, end), start, end, expected);
+                    assertShortest(grid, GridSearchEngine.dijkstra(grid, start, end), start, end, expected);
+                    assertShortest(grid, GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0), start, end, expected);
+
+                    SearchResult dfs = GridSearchEngine.dfs(grid, start, end);
+                    assertThat(dfs.isReached()).isEqualTo(expected != Integer.MAX_VALUE);
+                    if (dfs.isReached()) TestGrids.assertPath(grid, dfs.getPath(), start, end);
+                }
+            }
+        }
+    }
+
+    @Test
+    void scratchReusedAcrossGridSizesGivesTheSameResults() {
+        MazeGrid large = TestGrids.random(120, 150, 0.3, random);
+        MazeGrid small = TestGrids.random(9, 9, 0.3, random);
+        int start = TestGrids.randomOpenCell(large, random);
+        int end = TestGrids.randomOpenCell(large, random);
+
+        SearchResult first = GridSearchEngine.aStar(large, start, end, Heuristic.MANHATTAN, 1.0);
+        GridSearchEngine.bfs(small, TestGrids.randomOpenCell(small, random), TestGrids.randomOpenCell(small, random));
+        SearchResult again = GridSearchEngine.aStar(large, start, end, Heuristic.MANHATTAN, 1.0);
+
+        assertThat(again.getTraversed()).isEqualTo(first.getTraversed());
+        assertThat(again.getTraversedDistance()).isEqualTo(first.getTraversedDistance());
+        assertThat(again.getPath()).isEqualTo(first.getPath());
+    }
+
+    @Test
+    void everyHeuristicKeepsAStarOptimal() {
+        for (double density : new double[] {0.0, 0.3}) {
+            MazeGrid grid = TestGrids.random(60, 90, density, random);
+            for (int i = 0; i < 40; i++) {
+                int start = TestGrids.randomOpenCell(grid, random);
+                int end = TestGrids.randomOpenCell(grid, random);
+                int expected = TestGrids.distances(grid, start)[end];
+                for (Heuristic heuristic : Heuristic.values()) {
+                    assertShortest(grid, GridSearchEngine.aStar(grid, start, end, heuristic, 1.0), start, end, expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void weightedAStarFindsValidPathsWithFewerExpansions() {
+        MazeGrid grid = TestGrids.random(150, 150, 0.2, random);
+        long optimalExpansions = 0;
+        long weightedExpansions = 0;
+        for (int i = 0; i < 30; i++) {
+            int start = TestGrids.randomOpenCell(grid, random);
+            int end = TestGrids.randomOpenCell(grid, random);
+            SearchResult optimal = GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0);
+            SearchResult weighted = GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 3.0);
+
+            assertThat(weighted.isReached()).isEqualTo(optimal.isReached());
+            if (!optimal.isReached()) continue;
+            TestGrids.assertPath(grid, weighted.getPath(), start, end);
+            assertThat(weighted.getPath().length).isGreaterThanOrEqualTo(optimal.getPath().length);
+            optimalExpansions += optimal.getTraversed().length;
+            weightedExpansions += weighted.getTraversed().length;
+        }
+        assertThat(weightedExpansions).isLessThan(optimalExpansions);
+    }
+
+    @Test
+    void wallEndCountsAsOpen() {
+        MazeGrid grid = TestGrids.random(30, 30, 0.3, random);
+        int start = TestGrids.randomOpenCell(grid, random);
+        for (int end = 0; end < grid.size(); end++) {
+            if (!grid.isWall(end)) continue;
+            int expected = Integer.MAX_VALUE; // one step past the nearest open neighbor of end
+            int[] distance = TestGrids.distances(grid, start);
+            for (int neighbor : new int[] {end - 1, end + 1, end - 30, end + 30}) {
+                boolean adjacent = neighbor >= 0 && neighbor < grid.size()
+                        && (neighbor / 30 == end / 30 || neighbor % 30 == end % 30);
+                if (adjacent && distance[neighbor] != Integer.MAX_VALUE) {
+                    expected = Math.min(expected, distance[neighbor] + 1);
+                }
+            }
+            assertShortest(grid, GridSearchEngine.bfs(grid, start, end), start, end, expected);
+            assertShortest(grid, GridSearchEngine.aStar(grid, start, end, Heuristic.MANHATTAN, 1.0), start, end, expected);
+        }
+    }
+
+    @Test
+    void costAwareSearchesMatchReferenceDijkstra() {
+        for (Movement movement : Movement.values()) {
+            for (int[] size : new int[][] {{30, 30}, {45, 90}}) {
+                MazeGrid grid = TestGrids.weighted(size[0], size[1], random);
+                for (int i = 0; i < 30; i++) {
+                    int start = TestGrids.randomOpenCell(grid, random);
+                    int end = TestGrids.randomOpenCell(grid, random);
+                    int expected = TestGrids.costDistances(grid, start, movement)[end];
+
+                    assertCheapest(grid, GridSearchEngine.dijkstra(grid, start, end, movement), start, end, movement, expected);
+                    for (Heuristic heuristic : Heuristic.values()) {
+                        assertCheapest(grid, GridSearchEngine.aStar(grid, start, end, heuristic, 1.0, movement),
+                                start, end, movement, expected);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void eightWayMovesNeverCutWallCorners() {
+        // Open diagonal, but both cells beside it are walls
+        MazeGrid grid = MazeGrid.builder(2, 2).setWall(0, 1, true).setWall(1, 0, true).build();
+
+        assertThat(GridSearchEngine.dijkstra(grid, 0, 3, Movement.EIGHT).isReached()).isFalse();
+        assertThat(GridSearchEngine.aStar(grid, 0, 3, Heuristic.OCTILE, 1.0, Movement.EIGHT).isReached()).isFalse();
+    }
+
+    private static void assertCheapest(MazeGrid grid, SearchResult result, int start, int end, Movement movement, int expected) {
+        assertThat(result.isReached()).isEqualTo(expected != Integer.MAX_VALUE);
+        if (!result.isReached()) return;
+        int[] path = result.getPath();
+        assertThat(path[0]).isEqualTo(start);
+        assertThat(path[path.length - 1]).isEqualTo(end);
+        assertThat(TestGrids.pathCost(grid, path, movement)).as("%s path cost", movement).isEqualTo(expected);
+        assertThat(result.getPathDistance()[path.length - 1]).isEqualTo(expected);
+    }
+
+    private static void assertShortest(MazeGrid grid, SearchResult result, int start, int end, int expected) {
+        assertThat(result.isReached()).isEqualTo(expected != Integer.MAX_VALUE);
+        if (!result.isReached()) return;
+        TestGrids.assertPath(grid, result.getPath(), start, end);
+        assertThat(result.getPath()).hasSize(expected + 1);
+        assertThat(result.getPathDistance()[result.getPath().length - 1]).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.HierarchyStats;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.MazeType;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.repository.MazeEditedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HierarchicalPathfinderTest {
+    private final Random random = new Random(12);
+
+    @Test
+    void findsValidNearOptimalPaths() {
+        // Sizes that don't divide into whole clusters, so border clusters are partial
+        for (int[] size : new int[][] {{97, 97}, {50, 131}}) {
+            for (double density : new double[] {0.0, 0.25, 0.4}) {
+                MazeGrid grid = TestGrids.random(size[0], size[1], density, random);
+                for (int clusterSize : new int[] {4, 16, 40}) {
+                    HierarchicalPathfinder hierarchical = new HierarchicalPathfinder();
+                    hierarchical.preprocess(grid, clusterSize);
+                    for (int i = 0; i < 40; i++) {
+                        int start = TestGrids.randomOpenCell(grid, random);
+                        int end = i % 10 == 0 ? start : TestGrids.randomOpenCell(grid, random);
+                        int expected = TestGrids.distances(grid, start)[end];
+                        SearchResult actual = hierarchical.search(grid, start, end);
+
+                        assertThat(actual.isReached()).isEqualTo(expected != Integer.MAX_VALUE);
+                        if (!actual.isReached()) continue;
+                        TestGrids.assertPath(grid, actual.getPath(), start, end);
+                        assertThat(actual.getPath().length).isGreaterThanOrEqualTo(expected + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void reportsStatsOnlyForPreprocessedMazes() {
+        MazeGrid grid = TestGrids.random(64, 64, 0.2, random);
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder();
+        assertThat(hierarchical.getStats(grid)).isEmpty();
+
+        HierarchyStats built = hierarchical.preprocess(grid, 8);
+
+        assertThat(built.getClusterSize()).isEqualTo(8);
+        assertThat(built.getNodes()).isPositive();
+        assertThat(hierarchical.getStats(grid)).hasValueSatisfying(stats ->
+                assertThat(stats.getNodes()).isEqualTo(built.getNodes()));
+        assertThat(hierarchical.getStats(TestGrids.random(64, 64, 0.2, random))).isEmpty();
+    }
+
+    @Test
+    void concurrentFirstQueriesShareOneGraph() throws Exception {
+        MazeGrid grid = new MazeService().generateMazeOnly(MazeType.KRUSKAL, 301, 301, new Position(1, 1), new Position(299, 299), 3).getGrid();
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder();
+        int start = grid.index(1, 1);
+        int end = grid.index(299, 299);
+        int expected = TestGrids.distances(grid, start)[end];
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<SearchResult>> queries = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                queries.add(() -> hierarchical.search(grid, start, end));
+            }
+            for (Future<SearchResult> result : threads.invokeAll(queries)) {
+                assertThat(result.get().isReached()).isTrue();
+                TestGrids.assertPath(grid, result.get().getPath(), start, end);
+                assertThat(result.get().getPath().length).isGreaterThanOrEqualTo(expected + 1);
+            }
+        } finally {
+            threads.shutdown();
+        }
+        HierarchyStats stats = hierarchical.getStats(grid).orElseThrow();
+        assertThat(stats.getClusterSize()).isEqualTo(HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE);
+    }
+
+    @Test
+    void clusterSizesAreBoundedAndCappedToTheMaze() {
+        for (int clusterSize : new int[] {-1, 0, 1, HierarchicalPathfinder.MAX_CLUSTER_SIZE + 1, 100_000}) {
+            assertThatThrownBy(() -> HierarchicalPathfinder.checkClusterSize(clusterSize))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        MazeGrid grid = MazeGrid.builder(9, 21).build();
+        HierarchyStats stats = new HierarchicalPathfinder().preprocess(grid, HierarchicalPathfinder.MAX_CLUSTER_SIZE);
+
+        assertThat(stats.getClusterSize()).isEqualTo(21);
+    }
+
+    @Test
+    void editedMazesKeepTheirClusterSize() {
+        MazeGrid grid = TestGrids.random(64, 64, 0.2, random);
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder();
+        hierarchical.preprocess(grid, 8);
+        MazeGrid edited = grid.toBuilder().setWall(10, 10, !grid.isWall(10, 10)).build();
+
+        hierarchical.onMazeEdited(new MazeEditedEvent("maze", grid, edited, new int[] {edited.index(10, 10)}));
+        int start = TestGrids.randomOpenCell(edited, random);
+        int end = TestGrids.randomOpenCell(edited, random);
+        hierarchical.search(edited, start, end);
+
+        assertThat(hierarchical.clusterSize(edited)).isEqualTo(8);
+        assertThat(hierarchical.getStats(edited)).hasValueSatisfying(stats ->
+                assertThat(stats.getClusterSize()).isEqualTo(8));
+        assertThat(hierarchical.clusterSize(TestGrids.random(64, 64, 0.2, random)))
+                .isEqualTo(HierarchicalPathfinder.DEFAULT_CLUSTER_SIZE);
+    }
+}
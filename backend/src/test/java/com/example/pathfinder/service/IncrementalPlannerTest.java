@@ -0,0 +1,63 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.repository.MazeEditedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalPlannerTest {
+    private final Random random = new Random(15);
+
+    @Test
+    void repairedPlansMatchBreadthFirstSearchAfterEdits() {
+        for (double density : new double[] {0.2, 0.35}) {
+            MazeGrid grid = TestGrids.random(61, 61, density, random);
+            grid = grid.toBuilder().setWall(1, 1, false).setWall(59, 59, false).build();
+            IncrementalPlanner planner = new IncrementalPlanner();
+            int start = grid.index(1, 1);
+            int end = grid.index(59, 59);
+            assertSameLength(grid, planner.search(grid, start, end), GridSearchEngine.bfs(grid, start, end));
+
+            for (int round = 0; round < 40; round++) {
+                MazeGrid.Builder builder = grid.toBuilder();
+                int[] changed = new int[1 + random.nextInt(6)];
+                for (int i = 0; i < changed.length; i++) {
+                    int row = 2 + random.nextInt(57);
+                    int col = 2 + random.nextInt(57);
+                    changed[i] = grid.index(row, col);
+                    builder.setWall(row, col, !builder.isWall(row, col));
+                }
+                MazeGrid edited = builder.build();
+                planner.onMazeEdited(new MazeEditedEvent("maze", grid, edited, changed));
+                grid = edited;
+
+                assertSameLength(grid, planner.search(grid, start, end), GridSearchEngine.bfs(grid, start, end));
+            }
+            assertThat(planner.plannerCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void mazesTooLargeForAPlannerUseAStarInstead() {
+        int size = (int) Math.sqrt(IncrementalPlanner.MAX_CELLS_PER_PLANNER) + 2;
+        MazeGrid grid = MazeGrid.builder(size, size).build();
+        IncrementalPlanner planner = new IncrementalPlanner();
+
+        SearchResult result = planner.search(grid, 0, grid.size() - 1);
+
+        assertThat(result.getPath()).hasSize(2 * size - 1);
+        assertThat(planner.plannerCount()).isZero();
+    }
+
+    private static void assertSameLength(MazeGrid grid, SearchResult actual, SearchResult expected) {
+        assertThat(actual.isReached()).isEqualTo(expected.isReached());
+        if (expected.isReached()) {
+            assertThat(actual.getPath()).hasSameSizeAs(expected.getPath());
+            TestGrids.assertContiguous(grid, actual.getPath());
+        }
+    }
+}
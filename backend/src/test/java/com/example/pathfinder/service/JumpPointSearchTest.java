@@ -0,0 +1,51 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JumpPointSearchTest {
+    private final Random random = new Random(5);
+
+    @Test
+    void findsShortestContiguousPaths() {
+        for (int[] size : new int[][] {{1, 70}, {25, 25}, {40, 130}, {128, 65}}) {
+            for (double density : new double[] {0.0, 0.1, 0.3, 0.45}) {
+                MazeGrid grid = TestGrids.random(size[0], size[1], density, random);
+                if (TestGrids.openCells(grid).isEmpty()) continue;
+                for (int i = 0; i < 25; i++) {
+                    int start = TestGrids.randomOpenCell(grid, random);
+                    int end = i % 10 == 0 ? start : TestGrids.randomOpenCell(grid, random);
+                    int expected = TestGrids.distances(grid, start)[end];
+                    SearchResult result = JumpPointSearch.search(grid, start, end);
+
+                    assertThat(result.isReached()).isEqualTo(expected != Integer.MAX_VALUE);
+                    if (!result.isReached()) continue;
+                    TestGrids.assertPath(grid, result.getPath(), start, end);
+                    assertThat(result.getPath()).hasSize(expected + 1);
+                    for (int step = 0; step < result.getPath().length; step++) {
+                        assertThat(result.getPathDistance()[step]).isEqualTo(step);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void expandsFewerNodesThanDijkstraOnOpenGrids() {
+        MazeGrid grid = TestGrids.random(200, 200, 0.05, random);
+        long jumpPoints = 0;
+        long cells = 0;
+        for (int i = 0; i < 20; i++) {
+            int start = TestGrids.randomOpenCell(grid, random);
+            int end = TestGrids.randomOpenCell(grid, random);
+            jumpPoints += JumpPointSearch.search(grid, start, end).getTraversed().length;
+            cells += GridSearchEngine.dijkstra(grid, start, end).getTraversed().length;
+        }
+        assertThat(jumpPoints * 2).isLessThan(cells);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.MazeType;
+import com.example.pathfinder.model.Position;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MazeServiceTest {
+    private final MazeService service = new MazeService();
+
+    @Test
+    void everyTypeGeneratesAPerfectMaze() {
+        for (MazeType type : MazeType.values()) {
+            for (int[] size : new int[][] {{3, 3}, {21, 21}, {31, 65}, {65, 31}}) {
+                int rows = size[0];
+                int cols = size[1];
+                MazeGrid grid = service.generateMazeOnly(type, rows, cols, new Position(1, 1),
+                        new Position(rows - 2, cols - 2), 17).getGrid();
+
+                int[] distance = TestGrids.distances(grid, grid.index(1, 1));
+                int open = 0;
+                int links = 0;
+                for (int cell = 0; cell < grid.size(); cell++) {
+                    if (grid.isWall(cell)) continue;
+                    open++;
+                    assertThat(distance[cell]).as("%s %dx%d: cell %d reachable", type, rows, cols, cell)
+                            .isNotEqualTo(Integer.MAX_VALUE);
+                    int row = cell / cols;
+                    int col = cell % cols;
+                    if (col + 1 < cols && !grid.isWall(row, col + 1)) links++;
+                    if (row + 1 < rows && !grid.isWall(row + 1, col)) links++;
+                }
+                // Connected with one link fewer than cells: no loops
+                assertThat(links).as("%s %dx%d links", type, rows, cols).isEqualTo(open - 1);
+                for (int r = 0; r < rows; r++) {
+                    assertThat(grid.isWall(r, 0) && grid.isWall(r, cols - 1)).as("%s border", type).isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    void theSameSeedGivesTheSameMaze() {
+        for (MazeType type : MazeType.values()) {
+            MazeGrid first = service.generateMazeOnly(type, 41, 61, new Position(1, 1), new Position(39, 59), 42).getGrid();
+            MazeGrid again = service.generateMaze(type, 41, 61, new Position(1, 1), new Position(39, 59), 42).getGrid();
+            MazeGrid other = service.generateMazeOnly(type, 41, 61, new Position(1, 1), new Position(39, 59), 43).getGrid();
+
+            assertThat(again.contentHash()).as("%s same seed", type).isEqualTo(first.contentHash());
+            assertThat(other.contentHash()).as("%s other seed", type).isNotEqualTo(first.contentHash());
+        }
+    }
+
+    @Test
+    void nearbySeedsDontShareBinaryTreeRows() {
+        Set<String> rows = carvedRows(100);
+        for (long seed = 101; seed <= 104; seed++) {
+            for (String row : carvedRows(seed)) {
+                assertThat(rows).as("seed %d", seed).doesNotContain(row);
+            }
+        }
+    }
+
+    // Each room row of a binary tree maze with the wall row below it, leaving out the last room
+    // row, which is always carved the same way
+    private Set<String> carvedRows(long seed) {
+        MazeGrid grid = service.generateMazeOnly(MazeType.BINARY_TREE, 41, 201, new Position(1, 1), new Position(39, 199), seed).getGrid();
+        Set<String> rows = new HashSet<>();
+        for (int r = 1; r < grid.getRows() - 2; r += 2) {
+            StringBuilder row = new StringBuilder();
+            for (int c = 0; c < grid.getCols(); c++) {
+                row.append(grid.isWall(r, c) ? '#' : '.').append(grid.isWall(r + 1, c) ? '#' : '.');
+            }
+            rows.add(row.toString());
+        }
+        return rows;
+    }
+
+    @Test
+    void parallelBinaryTreeMatchesTheSerialOne() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MazeService parallel = new MazeService();
+            ReflectionTestUtils.setField(parallel, "searchPool", pool);
+            for (int[] size : new int[][] {{1025, 1025}, {1100, 1001}}) {
+                Position end = new Position(size[0] - 2, size[1] - 2);
+                MazeGrid expected = service.generateMazeOnly(MazeType.BINARY_TREE, size[0], size[1], new Position(1, 1), end, 7).getGrid();
+                MazeGrid actual = parallel.generateMazeOnly(MazeType.BINARY_TREE, size[0], size[1], new Position(1, 1), end, 7).getGrid();
+
+                assertThat(actual.contentHash()).isEqualTo(expected.contentHash());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void oversizedMazesAreRejectedBeforeAnythingIsAllocated() {
+        Position start = new Position(1, 1);
+        for (int[] size : new int[][] {{4097, 4097}, {65536, 65536}, {0, 10}}) {
+            Position end = new Position(size[0] - 2, size[1] - 2);
+            assertThatThrownBy(() -> service.generateMazeOnly(MazeType.BINARY_TREE, size[0], size[1], start, end, 1))
+                    .as("%dx%d", size[0], size[1]).isInstanceOf(IllegalArgumentException.class);
+        }
+        MazeService.checkSize(4096, 4096);
+    }
+
+    @Test
+    void evenSizesKeepStartAndEndOpen() {
+        for (MazeType type : MazeType.values()) {
+            MazeGrid grid = service.generateMazeOnly(type, 20, 30, new Position(1, 1), new Position(18, 28), 17).getGrid();
+
+            assertThat(grid.getRows()).isEqualTo(20);
+            assertThat(grid.getCols()).isEqualTo(30);
+            assertThat(grid.isWall(1, 1)).as("%s start", type).isFalse();
+            assertThat(grid.isWall(18, 28)).as("%s end", type).isFalse();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.MazeType;
+import com.example.pathfinder.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MazeStepStreamWriterTest {
+
+    @Test
+    void replayingTheFramesRebuildsTheGeneratedMaze() {
+        for (MazeType type : MazeType.values()) {
+            for (int[] size : new int[][] {{5, 5}, {21, 41}, {101, 301}}) {
+                assertReplaysToTheMaze(type, size[0], size[1]);
+            }
+        }
+    }
+
+    @Test
+    void anEndWrittenLaterMatchesFinish() throws IOException {
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        MazeStepStreamWriter writer = new MazeStepStreamWriter(whole, 21, 21, 7);
+        new MazeService().generateMaze(MazeType.PRIM, 21, 21, new Position(1, 1), new Position(19, 19), 3, writer);
+        writer.finish("maze-1");
+
+        ByteArrayOutputStream split = new ByteArrayOutputStream();
+        MazeStepStreamWriter steps = new MazeStepStreamWriter(split, 21, 21, 7);
+        new MazeService().generateMaze(MazeType.PRIM, 21, 21, new Position(1, 1), new Position(19, 19), 3, steps);
+        steps.finishSteps();
+        MazeStepStreamWriter.writeEnd(split, "maze-1");
+
+        assertThat(split.toByteArray()).isEqualTo(whole.toByteArray());
+    }
+
+    private static void assertReplaysToTheMaze(MazeType type, int rows, int cols) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MazeStepStreamWriter writer = new MazeStepStreamWriter(out, rows, cols, 7);
+        MazeGrid grid = new MazeService().generateMaze(type, rows, cols, new Position(1, 1),
+                new Position(rows - 2, cols - 2), 18, writer);
+        writer.finish("maze-1");
+
+        ByteBuffer in = ByteBuffer.wrap(out.toByteArray());
+        byte[] magic = new byte[4];
+        in.get(magic);
+        assertThat(new String(magic, StandardCharsets.US_ASCII)).isEqualTo("PFMZ");
+        assertThat(in.get()).isEqualTo((byte) 1);
+        assertThat(in.getInt()).isEqualTo(rows);
+        assertThat(in.getInt()).isEqualTo(cols);
+
+        boolean[] walls = new boolean[rows * cols];
+        String mazeId = null;
+        while (mazeId == null) {
+            byte frame = in.get();
+            if (frame == MazeStepStreamWriter.ROW_FRAME) {
+                int row = varint(in);
+                int col = 0;
+                int count = varint(in);
+                for (int i = 0; i < count; i++) {
+                    int run = varint(in);
+                    for (int end = col + run; col < end; col++) {
+                        walls[row * cols + col] = i % 2 == 0;
+                    }
+                }
+                assertThat(col).isEqualTo(cols);
+            } else if (frame == MazeStepStreamWriter.CELLS_FRAME) {
+                int count = varint(in);
+                assertThat(count).isBetween(1, 7);
+                for (int i = 0, cell = 0; i < count; i++) {
+                    byte cellType = in.get();
+                    int zigzag = varint(in);
+                    cell += (zigzag >>> 1) ^ -(zigzag & 1);
+                    walls[cell] = cellType != MazeStepSink.PASSAGE;
+                }
+            } else {
+                assertThat(frame).isEqualTo(MazeStepStreamWriter.END_FRAME);
+                byte[] id = new byte[varint(in)];
+                in.get(id);
+                mazeId = new String(id, StandardCharsets.UTF_8);
+            }
+        }
+
+        assertThat(mazeId).isEqualTo("maze-1");
+        assertThat(in.hasRemaining()).isFalse();
+        for (int cell = 0; cell < walls.length; cell++) {
+            assertThat(walls[cell]).as("%s cell %d", type, cell).isEqualTo(grid.isWall(cell));
+        }
+    }
+
+    private static int varint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+}
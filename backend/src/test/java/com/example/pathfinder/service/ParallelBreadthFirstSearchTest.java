@@ -0,0 +1,88 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelBreadthFirstSearchTest {
+    private final Random random = new Random(21);
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutDownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void findsShortestPathsLikeSequentialSearch() {
+        for (int[] size : new int[][] {{1, 1}, {1, 500}, {64, 64}, {150, 300}}) {
+            for (double density : new double[] {0.0, 0.2, 0.4}) {
+                MazeGrid grid = TestGrids.random(size[0], size[1], density, random);
+                if (TestGrids.openCells(grid).isEmpty()) continue;
+                for (int i = 0; i < 10; i++) {
+                    int start = TestGrids.randomOpenCell(grid, random);
+                    int end = TestGrids.randomOpenCell(grid, random);
+                    int[] distance = TestGrids.distances(grid, start);
+
+                    SearchResult result = ParallelBreadthFirstSearch.search(pool, grid, start, end);
+
+                    assertThat(result.isReached()).isEqualTo(distance[end] != Integer.MAX_VALUE);
+                    if (!result.isReached()) continue;
+                    TestGrids.assertPath(grid, result.getPath(), start, end);
+                    assertThat(result.getPath()).hasSize(distance[end] + 1);
+                    assertThat(result.getPathDistance()[result.getPath().length - 1]).isEqualTo(distance[end]);
+                    // Cells are traversed level by level
+                    int[] traversed = result.getTraversed();
+                    for (int j = 0; j < traversed.length; j++) {
+                        assertThat(result.getTraversedDistance()[j]).isEqualTo(distance[traversed[j]]);
+                        if (j > 0) assertThat(distance[traversed[j]]).isGreaterThanOrEqualTo(distance[traversed[j - 1]]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void largeOpenGridsGoParallelAndStayOptimal() {
+        MazeGrid grid = TestGrids.random(1024, 1100, 0.1, random);
+        ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch();
+        ReflectionTestUtils.setField(search, "searchPool", pool);
+        int start = TestGrids.randomOpenCell(grid, random);
+        int end = TestGrids.randomOpenCell(grid, random);
+
+        SearchResult result = search.search(grid, start, end);
+
+        SearchResult expected = GridSearchEngine.bfs(grid, start, end);
+        assertThat(result.isReached()).isEqualTo(expected.isReached());
+        if (expected.isReached()) {
+            TestGrids.assertPath(grid, result.getPath(), start, end);
+            assertThat(result.getPath()).hasSameSizeAs(expected.getPath());
+        }
+    }
+
+    @Test
+    void stopsBetweenLevelsOnceTheNodeBudgetRunsOut() {
+        MazeGrid grid = MazeGrid.builder(300, 300).build();
+        SearchScratch.limit(SearchBudget.of(5000, 0, Integer.MAX_VALUE));
+        SearchResult result;
+        try {
+            result = ParallelBreadthFirstSearch.search(pool, grid, 0, grid.size() - 1);
+        } finally {
+            SearchScratch.limit(null);
+        }
+
+        assertThat(result.getLimitReached()).isEqualTo(SearchLimit.NODES);
+        assertThat(result.isReached()).isFalse();
+        assertThat(result.getTraversed().length).isLessThanOrEqualTo(5000);
+        assertThat(result.getPath()[0]).isEqualTo(0);
+        TestGrids.assertContiguous(grid, result.getPath());
+    }
+}
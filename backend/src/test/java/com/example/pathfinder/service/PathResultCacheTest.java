@@ -0,0 +1,132 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.CacheStats;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.SearchResult;
+import com.example.pathfinder.repository.MazeRemovedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathResultCacheTest {
+
+    @Test
+    void repeatedQueriesOnEqualMazesAreServedFromTheCache() {
+        PathResultCache cache = new PathResultCache(1 << 20);
+        MazeGrid grid = MazeGrid.builder(30, 30).build();
+        MazeGrid copy = MazeGrid.builder(30, 30).build();
+        SearchQuery query = query(Algorithm.BFS, 0, 0, 29, 29);
+        AtomicInteger searches = new AtomicInteger();
+
+        SearchResult first = cache.getOrCompute(grid, query, () -> search(grid, query, searches));
+        SearchResult second = cache.getOrCompute(copy, query(Algorithm.BFS, 0, 0, 29, 29), () -> search(copy, query, searches));
+
+        assertThat(second).isSameAs(first);
+        assertThat(searches).hasValue(1);
+        CacheStats stats = cache.getStats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getEntries()).isEqualTo(1);
+    }
+
+    @Test
+    void differentQueriesAndMazesGetTheirOwnEntries() {
+        PathResultCache cache = new PathResultCache(1 << 20);
+        MazeGrid grid = MazeGrid.builder(30, 30).build();
+        MazeGrid walled = MazeGrid.builder(30, 30).setWall(10, 10, true).build();
+        AtomicInteger searches = new AtomicInteger();
+
+        for (SearchQuery query : new SearchQuery[] {
+                query(Algorithm.BFS, 0, 0, 29, 29), query(Algorithm.DIJKSTRA, 0, 0, 29, 29),
+                query(Algorithm.BFS, 0, 0, 29, 28)}) {
+            cache.getOrCompute(grid, query, () -> search(grid, query, searches));
+            cache.getOrCompute(walled, query, () -> search(walled, query, searches));
+        }
+
+        assertThat(searches).hasValue(6);
+        assertThat(cache.getStats().getEntries()).isEqualTo(6);
+    }
+
+    @Test
+    void staysWithinItsByteBoundDroppingTheLeastRecentlyUsed() {
+        MazeGrid grid = MazeGrid.builder(40, 40).build();
+        SearchQuery first = query(Algorithm.BFS, 0, 0, 39, 39);
+        SearchResult result = search(grid, first, new AtomicInteger());
+        PathResultCache probe = new PathResultCache(Long.MAX_VALUE);
+        probe.getOrCompute(grid, first, () -> result);
+        long entryBytes = probe.getStats().getBytes();
+
+        PathResultCache cache = new PathResultCache(entryBytes * 2);
+        AtomicInteger searches = new AtomicInteger();
+        SearchQuery second = query(Algorithm.BFS, 39, 39, 0, 0);
+        SearchQuery third = query(Algorithm.DIJKSTRA, 0, 0, 39, 39);
+        cache.getOrCompute(grid, first, () -> result);
+        cache.getOrCompute(grid, second, () -> result);
+        cache.getOrCompute(grid, first, () -> result); // now the most recently used
+        cache.getOrCompute(grid, third, () -> result);
+
+        CacheStats stats = cache.getStats();
+        assertThat(stats.getBytes()).isLessThanOrEqualTo(stats.getMaxBytes());
+        assertThat(stats.getEvictions()).isEqualTo(1);
+        cache.getOrCompute(grid, first, () -> search(grid, first, searches));
+        assertThat(searches).hasValue(0);
+        cache.getOrCompute(grid, second, () -> search(grid, second, searches));
+        assertThat(searches).hasValue(1);
+    }
+
+    @Test
+    void removedMazesTakeTheirResultsWithThem() {
+        PathResultCache cache = new PathResultCache(1 << 20);
+        MazeGrid grid = MazeGrid.builder(20, 20).build();
+        MazeGrid other = MazeGrid.builder(20, 20).setWall(5, 5, true).build();
+        SearchQuery query = query(Algorithm.BFS, 0, 0, 19, 19);
+        AtomicInteger searches = new AtomicInteger();
+        cache.getOrCompute(grid, query, () -> search(grid, query, searches));
+        cache.getOrCompute(other, query, () -> search(other, query, searches));
+
+        cache.onMazeRemoved(new MazeRemovedEvent("maze-1", grid));
+
+        CacheStats stats = cache.getStats();
+        assertThat(stats.getEntries()).isEqualTo(1);
+        assertThat(stats.getInvalidations()).isEqualTo(1);
+        cache.getOrCompute(grid, query, () -> search(grid, query, searches));
+        cache.getOrCompute(other, query, () -> search(other, query, searches));
+        assertThat(searches).hasValue(3);
+    }
+
+    @Test
+    void hierarchicalResultsAreKeptPerClusterSize() {
+        PathResultCache cache = new PathResultCache(1 << 20);
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder();
+        ReflectionTestUtils.setField(cache, "hierarchicalPathfinder", hierarchical);
+        MazeGrid grid = MazeGrid.builder(40, 40).build();
+        MazeGrid coarse = MazeGrid.builder(40, 40).build();
+        hierarchical.preprocess(coarse, 32);
+        AtomicInteger searches = new AtomicInteger();
+
+        for (Algorithm algorithm : new Algorithm[] {Algorithm.HPA_STAR, Algorithm.BFS}) {
+            SearchQuery query = query(algorithm, 0, 0, 39, 39);
+            cache.getOrCompute(grid, query, () -> search(grid, query, searches));
+            cache.getOrCompute(coarse, query, () -> search(coarse, query, searches));
+        }
+
+        // Equal mazes share BFS results, but not HPA* ones built from other clusters
+        assertThat(searches).hasValue(3);
+    }
+
+    private static SearchQuery query(Algorithm algorithm, int startRow, int startCol, int endRow, int endCol) {
+        return new SearchQuery(algorithm, new Position(startRow, startCol), new Position(endRow, endCol),
+                Heuristic.MANHATTAN, 1.0);
+    }
+
+    private static SearchResult search(MazeGrid grid, SearchQuery query, AtomicInteger searches) {
+        searches.incrementAndGet();
+        return GridSearchEngine.bfs(grid, grid.index(query.getStart().getRow(), query.getStart().getCol()),
+                grid.index(query.getEnd().getRow(), query.getEnd().getCol()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.MazeType;
+import com.example.pathfinder.model.Position;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathfinderMetricsTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void searchesAreTaggedByAlgorithmAndGridSize() {
+        PathfindingService service = service(new PathfinderMetrics(registry, 1.0));
+        MazeGrid small = TestGrids.random(20, 20, 0.0, new Random(20));
+        MazeGrid large = TestGrids.random(200, 200, 0.0, new Random(20));
+
+        service.search(Algorithm.BFS, small, new Position(0, 0), new Position(19, 19), Heuristic.MANHATTAN, 1.0);
+        service.search(Algorithm.BFS, small, new Position(0, 0), new Position(0, 5), Heuristic.MANHATTAN, 1.0);
+        service.search(Algorithm.A_STAR, large, new Position(0, 0), new Position(199, 199), Heuristic.MANHATTAN, 1.0);
+
+        assertThat(registry.get("pathfinder.search").tags("algorithm", "BFS", "cells", "1K").timer().count()).isEqualTo(2);
+        assertThat(registry.get("pathfinder.search").tags("algorithm", "A_STAR", "cells", "256K").timer().count()).isEqualTo(1);
+        assertThat(registry.get("pathfinder.search.path.length").tags("algorithm", "A_STAR").summary().totalAmount())
+                .isEqualTo(399);
+        assertThat(registry.get("pathfinder.search.queue.pops").tags("algorithm", "BFS").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    void generationIsTaggedByMazeType() {
+        MazeService mazes = new MazeService();
+        ReflectionTestUtils.setField(mazes, "metrics", new PathfinderMetrics(registry, 1.0));
+
+        mazes.generateMazeOnly(MazeType.PRIM, 41, 41, new Position(1, 1), new Position(39, 39), 20);
+
+        assertThat(registry.get("pathfinder.maze.generation").tags("type", "PRIM", "cells", "16K").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void unsampledCallsRecordNothing() {
+        PathfindingService service = service(new PathfinderMetrics(registry, 0.0));
+
+        service.search(Algorithm.BFS, TestGrids.random(10, 10, 0.0, new Random(20)), new Position(0, 0),
+                new Position(9, 9), Heuristic.MANHATTAN, 1.0);
+
+        assertThat(registry.find("pathfinder.search").timers()).isEmpty();
+    }
+
+    @Test
+    void responseSizesAreSummedPerRouteAndAlgorithm() {
+        PathfinderMetrics metrics = new PathfinderMetrics(registry, 1.0);
+
+        metrics.recordResponse("/api/path", "BFS", 100);
+        metrics.recordResponse("/api/path", "BFS", 50);
+        metrics.recordResponse("/api/maze", "none", 7);
+
+        assertThat(registry.get("pathfinder.response.bytes").tags("uri", "/api/path", "algorithm", "BFS").summary()
+                .totalAmount()).isEqualTo(150);
+        assertThat(registry.get("pathfinder.response.bytes").tags("uri", "/api/maze").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sampleRateMustBeAFraction() {
+        assertThatThrownBy(() -> new PathfinderMetrics(registry, 1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PathfinderMetrics(registry, -0.1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PathfindingService service(PathfinderMetrics metrics) {
+        PathfindingService service = new PathfindingService();
+        ReflectionTestUtils.setField(service, "metrics", metrics);
+        return service;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.Algorithm;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.Position;
+import com.example.pathfinder.model.Reachability;
+import com.example.pathfinder.model.SearchLimit;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PathfindingServiceTest {
+    private final Random random = new Random(9);
+
+    @Test
+    void streamedTraversalMatchesTheRegularSearch() {
+        PathfindingService service = new PathfindingService();
+        ReflectionTestUtils.setField(service, "hierarchicalPathfinder", new HierarchicalPathfinder());
+        ReflectionTestUtils.setField(service, "incrementalPlanner", new IncrementalPlanner());
+        ReflectionTestUtils.setField(service, "parallelBreadthFirstSearch", new ParallelBreadthFirstSearch());
+        ReflectionTestUtils.setField(service, "corridorPathfinder", new CorridorPathfinder());
+        MazeGrid grid = TestGrids.random(60, 80, 0.3, random);
+        for (int i = 0; i < 10; i++) {
+            Position start = position(grid, TestGrids.randomOpenCell(grid, random));
+            Position end = position(grid, TestGrids.randomOpenCell(grid, random));
+            for (Algorithm algorithm : Algorithm.values()) {
+                SearchResult expected = service.search(algorithm, grid, start, end, Heuristic.MANHATTAN, 1.0);
+                int batchSize = 1 + random.nextInt(100);
+                int[] cells = new int[expected.getTraversed().length];
+                int[] distances = new int[cells.length];
+                int[] received = {0};
+                SearchResult streamed = service.stream(grid, new SearchQuery(algorithm, start, end, Heuristic.MANHATTAN, 1.0), batchSize,
+                        (batchCells, batchDistances, count) -> {
+                            assertThat(count).isBetween(1, batchSize);
+                            System.arraycopy(batchCells, 0, cells, received[0], count);
+                            System.arraycopy(batchDistances, 0, distances, received[0], count);
+                            received[0] += count;
+                        });
+
+                // LPA* only reports what each query expands, and the repeat query reuses the first one's plan
+                if (algorithm != Algorithm.LPA_STAR) {
+                    assertThat(received[0]).as("%s traversed count", algorithm).isEqualTo(cells.length);
+                    assertThat(cells).as("%s traversed cells", algorithm).isEqualTo(expected.getTraversed());
+                    assertThat(distances).as("%s distances", algorithm).isEqualTo(expected.getTraversedDistance());
+                }
+                assertThat(streamed.isReached()).isEqualTo(expected.isReached());
+                assertThat(streamed.getPath()).isEqualTo(expected.getPath());
+            }
+        }
+    }
+
+    @Test
+    void costsAndDiagonalsAreRejectedWhereTheAlgorithmIgnoresThem() {
+        MazeGrid weighted = MazeGrid.builder(5, 5).setCost(2, 2, 9).build();
+        MazeGrid plain = MazeGrid.builder(5, 5).build();
+
+        for (Algorithm algorithm : Algorithm.values()) {
+            boolean costAware = algorithm == Algorithm.DIJKSTRA || algorithm == Algorithm.A_STAR;
+            boolean stepCounting = algorithm == Algorithm.BFS || algorithm == Algorithm.DFS
+                    || algorithm == Algorithm.BIDIRECTIONAL_BFS || algorithm == Algorithm.PARALLEL_BFS;
+            if (costAware) {
+                PathfindingService.checkSupported(algorithm, weighted, Movement.EIGHT);
+            } else {
+                assertThatThrownBy(() -> PathfindingService.checkSupported(algorithm, plain, Movement.EIGHT))
+                        .isInstanceOf(IllegalArgumentException.class);
+                if (stepCounting) {
+                    PathfindingService.checkSupported(algorithm, weighted, Movement.FOUR);
+                } else {
+                    assertThatThrownBy(() -> PathfindingService.checkSupported(algorithm, weighted, Movement.FOUR))
+                            .isInstanceOf(IllegalArgumentException.class);
+                }
+            }
+        }
+    }
+
+    @Test
+    void reachabilityAgreesWithSearch() {
+        PathfindingService service = new PathfindingService();
+        for (double density : new double[] {0.3, 0.45}) {
+            MazeGrid grid = TestGrids.random(50, 70, density, random);
+            for (int i = 0; i < 40; i++) {
+                Position start = position(grid, TestGrids.randomOpenCell(grid, random));
+                Position end = position(grid, random.nextInt(grid.size())); // walls included
+
+                Reachability reachability = service.reachability(grid, start, end);
+
+                SearchResult search = service.search(Algorithm.BFS, grid, start, end, Heuristic.MANHATTAN, 1.0);
+                assertThat(reachability.isReachable()).isEqualTo(search.isReached());
+                int[] distance = TestGrids.distances(grid, grid.index(start.getRow(), start.getCol()));
+                assertThat(reachability.getReachableCells())
+                        .isEqualTo((int) Arrays.stream(distance).filter(d -> d != Integer.MAX_VALUE).count());
+                assertThat(reachability.getOpenCells()).isEqualTo(TestGrids.openCells(grid).size());
+            }
+        }
+    }
+
+    @Test
+    void nodeBudgetStopsSearchesWithAPartialPath() {
+        PathfindingService service = new PathfindingService();
+        ReflectionTestUtils.setField(service, "parallelBreadthFirstSearch", new ParallelBreadthFirstSearch());
+        ReflectionTestUtils.setField(service, "corridorPathfinder", new CorridorPathfinder());
+        MazeGrid grid = TestGrids.random(120, 120, 0.2, random);
+        grid = grid.toBuilder().setWall(0, 0, false).setWall(119, 119, false).build();
+        SearchBudget budget = SearchBudget.of(300, 0, Integer.MAX_VALUE);
+        for (Algorithm algorithm : Algorithm.values()) {
+            if (algorithm == Algorithm.HPA_STAR || algorithm == Algorithm.LPA_STAR) continue;
+            SearchQuery query = new SearchQuery(algorithm, new Position(0, 0), new Position(119, 119), Heuristic.MANHATTAN, 1.0);
+
+            SearchResult result = service.search(grid, query, budget);
+
+            assertThat(result.getLimitReached()).as("%s limit", algorithm).isEqualTo(SearchLimit.NODES);
+            assertThat(result.isReached()).as("%s reached", algorithm).isFalse();
+            assertThat(result.getTraversed().length).as("%s traversed", algorithm).isLessThanOrEqualTo(300);
+            int[] path = result.getPath();
+            assertThat(path[0]).as("%s path start", algorithm).isEqualTo(0);
+            TestGrids.assertContiguous(grid, path);
+        }
+        // The budget applies to one call only
+        SearchResult unlimited = service.search(Algorithm.BFS, grid, new Position(0, 0), new Position(119, 119), Heuristic.MANHATTAN, 1.0);
+        assertThat(unlimited.getLimitReached()).isNull();
+    }
+
+    @Test
+    void responseLimitKeepsThePathAndTheEarliestTraversedCells() {
+        MazeGrid grid = MazeGrid.builder(30, 30).build();
+        SearchResult full = GridSearchEngine.bfs(grid, 0, grid.size() - 1);
+
+        SearchResult limited = PathfindingService.limitResponse(full, 100);
+
+        assertThat(limited.getLimitReached()).isEqualTo(SearchLimit.RESPONSE_SIZE);
+        assertThat(limited.isReached()).isTrue();
+        assertThat(limited.getPath()).isEqualTo(full.getPath());
+        assertThat(limited.getTraversed()).containsExactly(Arrays.copyOf(full.getTraversed(), 100 - full.getPath().length));
+        assertThat(PathfindingService.limitResponse(full, Integer.MAX_VALUE)).isSameAs(full);
+    }
+
+    @Test
+    void rejectsWeightsOutsideTheSupportedRange() {
+        for (double weight : new double[] {0.5, Double.NaN, Double.POSITIVE_INFINITY, 1e9,
+                PathfindingService.MAX_HEURISTIC_WEIGHT + 1}) {
+            assertThatThrownBy(() -> PathfindingService.checkWeight(weight))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        PathfindingService.checkWeight(1.0);
+        PathfindingService.checkWeight(PathfindingService.MAX_HEURISTIC_WEIGHT);
+    }
+
+    @Test
+    void largestWeightStillExpandsFewerCellsThanBreadthFirstSearch() {
+        int size = 200;
+        MazeGrid grid = TestGrids.random(size, size, 0.1, random);
+        grid = grid.toBuilder().setWall(0, 0, false).setWall(size - 1, size - 1, false).build();
+        int end = grid.size() - 1;
+
+        SearchResult bfs = GridSearchEngine.bfs(grid, 0, end);
+        SearchResult greedy = GridSearchEngine.aStar(grid, 0, end, Heuristic.MANHATTAN, PathfindingService.MAX_HEURISTIC_WEIGHT);
+
+        assertThat(greedy.isReached()).isTrue();
+        assertThat(greedy.getTraversed().length).isLessThan(bfs.getTraversed().length / 10);
+    }
+
+    private static Position position(MazeGrid grid, int cell) {
+        return new Position(cell / grid.getCols(), cell % grid.getCols());
+    }
+}
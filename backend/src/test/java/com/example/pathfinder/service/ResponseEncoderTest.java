@@ -0,0 +1,104 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.CompactEncoding;
+import com.example.pathfinder.model.CompactGridResponse;
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseEncoderTest {
+    private final Random random = new Random(8);
+
+    @Test
+    void compactEncodingsDecodeToTheSameCells() {
+        for (SearchResult result : results()) {
+            for (CompactEncoding encoding : CompactEncoding.values()) {
+                CompactGridResponse compact = ResponseEncoder.toCompact(result, 70, encoding);
+
+                assertThat(compact.encoding).isEqualTo(encoding);
+                assertThat(compact.reached).isEqualTo(result.isReached());
+                assertThat(decode(compact.traversed, encoding)).isEqualTo(result.getTraversed());
+                assertThat(decode(compact.path, encoding)).isEqualTo(result.getPath());
+            }
+        }
+    }
+
+    @Test
+    void runLengthCollapsesStraightRuns() {
+        int[] row = new int[100];
+        Arrays.setAll(row, i -> 500 + i);
+
+        assertThat(ResponseEncoder.encode(row, CompactEncoding.RLE)).containsExactly(500, 1, 1, 99);
+    }
+
+    @Test
+    void binaryFormDecodesToTheSameCells() {
+        for (SearchResult result : results()) {
+            ByteBuffer in = ByteBuffer.wrap(ResponseEncoder.toBinary(result, 70));
+            byte[] magic = new byte[4];
+            in.get(magic);
+            assertThat(new String(magic)).isEqualTo("PFGR");
+            assertThat(in.get()).isEqualTo((byte) 1);
+            assertThat(in.get() & 1).isEqualTo(result.isReached() ? 1 : 0);
+            assertThat(in.getInt()).isEqualTo(70);
+            assertThat(in.getInt()).isEqualTo(result.getCols());
+            int traversed = varint(in);
+            int path = varint(in);
+            assertThat(deltas(in, traversed)).isEqualTo(result.getTraversed());
+            assertThat(deltas(in, path)).isEqualTo(result.getPath());
+            assertThat(in.hasRemaining()).isFalse();
+        }
+    }
+
+    private SearchResult[] results() {
+        MazeGrid grid = TestGrids.random(70, 300, 0.3, random);
+        SearchResult[] results = new SearchResult[10];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = GridSearchEngine.bfs(grid, TestGrids.randomOpenCell(grid, random), TestGrids.randomOpenCell(grid, random));
+        }
+        return results;
+    }
+
+    private static int[] decode(int[] values, CompactEncoding encoding) {
+        if (encoding == CompactEncoding.PLAIN) return values;
+        int[] deltas = values;
+        if (encoding == CompactEncoding.RLE) {
+            int length = 0;
+            for (int i = 1; i < values.length; i += 2) length += values[i];
+            deltas = new int[length];
+            for (int i = 0, at = 0; i < values.length; i += 2) {
+                Arrays.fill(deltas, at, at + values[i + 1], values[i]);
+                at += values[i + 1];
+            }
+        }
+        int[] cells = new int[deltas.length];
+        for (int i = 0, previous = 0; i < deltas.length; i++) {
+            cells[i] = previous += deltas[i];
+        }
+        return cells;
+    }
+
+    private static int varint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static int[] deltas(ByteBuffer in, int count) {
+        int[] cells = new int[count];
+        for (int i = 0, previous = 0; i < count; i++) {
+            int zigzag = varint(in);
+            cells[i] = previous += (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        return cells;
+    }
+}
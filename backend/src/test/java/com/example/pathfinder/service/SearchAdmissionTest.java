@@ -0,0 +1,76 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchAdmissionTest {
+
+    @Test
+    void turnsRequestsAwayOnceThePermitsAndQueueAreTaken() {
+        SearchAdmission admission = new SearchAdmission(2, 1, 0, 0, 1000, 0, 1000);
+        SearchAdmission.Permit first = admission.admit();
+        SearchAdmission.Permit second = admission.admit();
+
+        assertThatThrownBy(admission::admit).isInstanceOf(ServiceOverloadedException.class);
+
+        first.close();
+        first.close(); // a second close doesn't release another permit
+        SearchAdmission.Permit third = admission.admit();
+        assertThatThrownBy(admission::admit).isInstanceOf(ServiceOverloadedException.class);
+        second.close();
+        third.close();
+    }
+
+    @Test
+    void queuedRequestsGiveUpAfterTheQueueTimeout() {
+        SearchAdmission admission = new SearchAdmission(1, 1, 4, 50, 1000, 0, 1000);
+        SearchAdmission.Permit held = admission.admit();
+        long started = System.nanoTime();
+
+        assertThatThrownBy(admission::admit).isInstanceOf(ServiceOverloadedException.class);
+
+        assertThat((System.nanoTime() - started) / 1_000_000).isGreaterThanOrEqualTo(40);
+        held.close();
+        admission.admit().close();
+    }
+
+    @Test
+    void streamsAreCappedOnTopOfThePermits() {
+        SearchAdmission admission = new SearchAdmission(3, 2, 0, 0, 1000, 0, 1000);
+        SearchAdmission.Permit first = admission.admitStream();
+        SearchAdmission.Permit second = admission.admitStream();
+
+        assertThatThrownBy(admission::admitStream).isInstanceOf(ServiceOverloadedException.class);
+        SearchAdmission.Permit search = admission.admit();
+        assertThatThrownBy(admission::admit).isInstanceOf(ServiceOverloadedException.class);
+
+        // A stream turned away for lack of permits gives its stream slot back
+        first.close();
+        SearchAdmission.Permit other = admission.admit();
+        assertThatThrownBy(admission::admitStream).isInstanceOf(ServiceOverloadedException.class);
+        search.close();
+        admission.admitStream().close();
+        other.close();
+        second.close();
+    }
+
+    @Test
+    void requestsMayTightenTheBudgetButNotLoosenIt() {
+        SearchAdmission admission = new SearchAdmission(1, 1, 0, 0, 1000, 0, 500);
+
+        SearchBudget configured = admission.budget(null, null, null);
+        assertThat(configured.getMaxNodes()).isEqualTo(1000);
+        assertThat(configured.getMaxResponseCells()).isEqualTo(500);
+        assertThat(configured.isPastDeadline()).isFalse();
+
+        SearchBudget tighter = admission.budget(10, null, 5000);
+        assertThat(tighter.getMaxNodes()).isEqualTo(10);
+        assertThat(tighter.getMaxResponseCells()).isEqualTo(500);
+
+        assertThatThrownBy(() -> admission.budget(0, null, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> admission.budget(null, -1L, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
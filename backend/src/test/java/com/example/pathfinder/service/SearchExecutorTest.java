@@ -0,0 +1,222 @@
+package com.example.pathfinder.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchExecutorTest {
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private final SearchExecutor executor = new SearchExecutor();
+
+    SearchExecutorTest() {
+        ReflectionTestUtils.setField(executor, "searchPool", pool);
+    }
+
+    @AfterEach
+    void shutDownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void callRunsOnTheSearchPool() {
+        Thread caller = Thread.currentThread();
+
+        Thread worker = executor.call(Thread::currentThread);
+
+        assertThat(worker).isNotSameAs(caller).isInstanceOf(ForkJoinWorkerThread.class);
+        assertThat(((ForkJoinWorkerThread) worker).getPool()).isSameAs(pool);
+        // Nested calls stay on the worker they're made from
+        assertThat(executor.call(() -> executor.call(Thread::currentThread) == Thread.currentThread())).isTrue();
+    }
+
+    @Test
+    void failuresReachTheCallerUnwrapped() {
+        assertThatThrownBy(() -> executor.call(() -> {
+            throw new IllegalArgumentException("bad weight");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("bad weight");
+    }
+
+    @Test
+    void streamedBytesAndFlushesArriveInOrderOnTheCallingThread() throws IOException {
+        Thread caller = Thread.currentThread();
+        List<String> events = new ArrayList<>();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                throw new AssertionError("single bytes are written as chunks");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                assertThat(Thread.currentThread()).isSameAs(caller);
+                events.add(new String(b, off, len, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void flush() {
+                events.add("|");
+            }
+        };
+
+        executor.stream(out, stream -> {
+            assertThat(Thread.currentThread()).isInstanceOf(ForkJoinWorkerThread.class);
+            stream.write("a".getBytes(StandardCharsets.UTF_8));
+            stream.write('b');
+            stream.flush();
+            stream.write("cd".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(events).containsExactly("a", "b", "|", "cd");
+    }
+
+    @Test
+    void aSlowReaderHoldsTheProducerBack() throws Exception {
+        CountDownLatch firstWrite = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger produced = new AtomicInteger();
+        int[] received = {0};
+        OutputStream slow = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                firstWrite.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received[0] += len;
+            }
+        };
+        ExecutorService requests = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> streaming = requests.submit(() -> {
+                executor.stream(slow, stream -> {
+                    for (int i = 0; i < 1000; i++) {
+                        stream.write(1);
+                        produced.incrementAndGet();
+                    }
+                });
+                return null;
+            });
+            assertThat(firstWrite.await(10, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(200);
+
+            assertThat(produced.get()).isLessThan(100);
+            release.countDown();
+            streaming.get(10, TimeUnit.SECONDS);
+            assertThat(received[0]).isEqualTo(1000);
+        } finally {
+            release.countDown();
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    void aClientThatStopsReadingDoesNotHoldUpOtherSearches() throws Exception {
+        ForkJoinPool single = new ForkJoinPool(1);
+        SearchExecutor executor = new SearchExecutor();
+        ReflectionTestUtils.setField(executor, "searchPool", single);
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream stuck = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                stalled.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ExecutorService requests = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> streaming = requests.submit(() -> {
+                executor.stream(stuck, stream -> {
+                    for (int i = 0; i < 1000; i++) {
+                        stream.write(1);
+                    }
+                });
+                return null;
+            });
+            assertThat(stalled.await(10, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(200); // the producer has filled the handoff and waits
+
+            Future<Integer> search = requests.submit(() -> executor.call(() -> 42));
+            assertThat(search.get(10, TimeUnit.SECONDS)).isEqualTo(42);
+
+            release.countDown();
+            streaming.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            requests.shutdownNow();
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void aFailingClientStopsTheProducer() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("connection reset");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("connection reset");
+            }
+        };
+        int[] writes = {0};
+
+        assertThatThrownBy(() -> executor.stream(broken, stream -> {
+            for (int i = 0; i < 1_000_000; i++) {
+                stream.write(1);
+                writes[0]++;
+            }
+        })).isInstanceOf(IOException.class).hasMessage("connection reset");
+
+        assertThat(writes[0]).isLessThan(1_000_000);
+    }
+
+    @Test
+    void producerFailuresReachTheCaller() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> executor.stream(out, stream -> {
+            stream.write(1);
+            throw new IOException("disk gone");
+        })).isInstanceOf(IOException.class).hasMessage("disk gone");
+        assertThatThrownBy(() -> executor.stream(out, stream -> {
+            throw new IllegalStateException("bug");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("bug");
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.MazeGrid;
+import com.example.pathfinder.model.Movement;
+import com.example.pathfinder.model.Tile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Grids and reference answers shared by the search tests
+final class TestGrids {
+    private static final int[] ROW_STEPS = {0, 1, 0, -1, 1, 1, -1, -1};
+    private static final int[] COL_STEPS = {1, 0, -1, 0, 1, -1, -1, 1};
+
+    private TestGrids() {}
+
+    // Each cell is a wall with the given probability
+    static MazeGrid random(int rows, int cols, double density, Random random) {
+        Tile[][] tiles = new Tile[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                tiles[r][c] = new Tile(r, c);
+                tiles[r][c].isWall = random.nextDouble() < density;
+            }
+        }
+        return MazeGrid.fromTiles(tiles);
+    }
+
+    // A fifth of the cells are walls; the rest are mostly cheap with some expensive patches, so
+    // the cheapest path detours
+    static MazeGrid weighted(int rows, int cols, Random random) {
+        MazeGrid.Builder builder = MazeGrid.builder(rows, cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (random.nextInt(5) == 0) {
+                    builder.setWall(r, c, true);
+                } else {
+                    builder.setCost(r, c, random.nextInt(4) == 0 ? 1 + random.nextInt(MazeGrid.MAX_COST) : 1 + random.nextInt(3));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    // Plain BFS over open 4-neighbors; unreachable cells stay at Integer.MAX_VALUE
+    static int[] distances(MazeGrid grid, int start) {
+        int[] distance = new int[grid.size()];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        distance[start] = 0;
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            int row = cell / grid.getCols();
+            int col = cell % grid.getCols();
+            for (int d = 0; d < 4; d++) {
+                int r = row + ROW_STEPS[d];
+                int c = col + COL_STEPS[d];
+                if (!grid.inBounds(r, c) || grid.isWall(r, c)) continue;
+                int neighbor = grid.index(r, c);
+                if (distance[neighbor] != Integer.MAX_VALUE) continue;
+                distance[neighbor] = distance[cell] + 1;
+                queue.add(neighbor);
+            }
+        }
+        return distance;
+    }
+
+    // Plain Dijkstra with the engine's step costs: the cost of the cell entered, times 10 or 14
+    // per move with EIGHT, and no diagonal past a wall corner
+    static int[] costDistances(MazeGrid grid, int start, Movement movement) {
+        int[] distance = new int[grid.size()];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        distance[start] = 0;
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+        queue.add(new int[] {start, 0});
+        while (!queue.isEmpty()) {
+            int[] entry = queue.poll();
+            int cell = entry[0];
+            if (entry[1] > distance[cell]) continue;
+            for (int d = 0; d < directions(movement); d++) {
+                int neighbor = step(grid, cell, d);
+                if (neighbor < 0) continue;
+                int next = distance[cell] + stepCost(grid, neighbor, d, movement);
+                if (next < distance[neighbor]) {
+                    distance[neighbor] = next;
+                    queue.add(new int[] {neighbor, next});
+                }
+            }
+        }
+        return distance;
+    }
+
+    // Cost of a path under the engine's step costs; fails on a step that isn't a legal move
+    static int pathCost(MazeGrid grid, int[] path, Movement movement) {
+        int cost = 0;
+        for (int i = 1; i < path.length; i++) {
+            int direction = -1;
+            for (int d = 0; d < directions(movement); d++) {
+                if (step(grid, path[i - 1], d) == path[i]) direction = d;
+            }
+            assertThat(direction).as("step %d of the path", i).isNotNegative();
+            cost += stepCost(grid, path[i], direction, movement);
+        }
+        return cost;
+    }
+
+    static List<Integer> openCells(MazeGrid grid) {
+        List<Integer> open = new ArrayList<>();
+        for (int cell = 0; cell < grid.size(); cell++) {
+            if (!grid.isWall(cell)) open.add(cell);
+        }
+        return open;
+    }
+
+    static int randomOpenCell(MazeGrid grid, Random random) {
+        List<Integer> open = openCells(grid);
+        return open.get(random.nextInt(open.size()));
+    }
+
+    // A path from start to end through open cells, one 4-connected step at a time
+    static void assertPath(MazeGrid grid, int[] path, int start, int end) {
+        assertThat(path[0]).as("path start").isEqualTo(start);
+        assertThat(path[path.length - 1]).as("path end").isEqualTo(end);
+        assertContiguous(grid, path);
+    }
+
+    static void assertContiguous(MazeGrid grid, int[] path) {
+        int cols = grid.getCols();
+        for (int i = 1; i < path.length; i++) {
+            int step = Math.abs(path[i] / cols - path[i - 1] / cols) + Math.abs(path[i] % cols - path[i - 1] % cols);
+            assertThat(step).as("step %d of the path", i).isEqualTo(1);
+            if (i < path.length - 1) assertThat(grid.isWall(path[i])).as("cell %d of the path is open", i).isFalse();
+        }
+    }
+
+    private static int directions(Movement movement) {
+        return movement == Movement.EIGHT ? 8 : 4;
+    }
+
+    // Neighbor of cell in direction d, or -1 when it is outside the grid, a wall, or a diagonal
+    // that cuts a wall corner
+    private static int step(MazeGrid grid, int cell, int d) {
+        int row = cell / grid.getCols();
+        int col = cell % grid.getCols();
+        int newRow = row + ROW_STEPS[d];
+        int newCol = col + COL_STEPS[d];
+        if (!grid.inBounds(newRow, newCol) || grid.isWall(newRow, newCol)) return -1;
+        if (d >= 4 && (grid.isWall(row, newCol) || grid.isWall(newRow, col))) return -1;
+        return grid.index(newRow, newCol);
+    }
+
+    private static int stepCost(MazeGrid grid, int neighbor, int d, Movement movement) {
+        if (movement == Movement.FOUR) return grid.cost(neighbor);
+        return (d >= 4 ? GridSearchEngine.DIAGONAL_STEP : GridSearchEngine.STRAIGHT_STEP) * grid.cost(neighbor);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.pathfinder.service;
+
+import com.example.pathfinder.model.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraversalStreamWriterTest {
+
+    @Test
+    void writesOneJsonEventPerLine() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TraversalStreamWriter writer = new TraversalStreamWriter(out, false);
+
+        writer.grid(2, 3);
+        writer.accept(new int[] {0, 1, 99}, new int[] {0, 1, 99}, 2);
+        writer.path(new SearchResult(3, new int[0], new int[0], new int[0], new int[] {0, 1, 4}, new int[] {0, 1, 2}, true, 0, 0));
+
+        assertThat(out.toString(StandardCharsets.US_ASCII)).isEqualTo("""
+                {"type":"grid","rows":2,"cols":3}
+                {"type":"traversal","cells":[0,1],"distances":[0,1]}
+                {"type":"path","reached":true,"cells":[0,1,4],"distances":[0,1,2]}
+                """);
+    }
+
+    @Test
+    void writesServerSentEventsWithAnEmptyPathWhenUnreached() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TraversalStreamWriter writer = new TraversalStreamWriter(out, true);
+
+        writer.accept(new int[] {5}, new int[] {0}, 1);
+        writer.path(new SearchResult(3, new int[0], new int[0], new int[0], new int[] {4}, new int[] {Integer.MAX_VALUE}, false, 0, 0));
+
+        assertThat(out.toString(StandardCharsets.US_ASCII)).isEqualTo(
+                "event: traversal\ndata: {\"type\":\"traversal\",\"cells\":[5],\"distances\":[0]}\n\n"
+                + "event: path\ndata: {\"type\":\"path\",\"reached\":false,\"cells\":[],\"distances\":[]}\n\n");
+    }
+}
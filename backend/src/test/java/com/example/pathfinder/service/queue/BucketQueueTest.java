@@ -0,0 +1,60 @@
+package com.example.pathfinder.service.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BucketQueueTest {
+    private final Random random = new Random(3);
+
+    @Test
+    void pollsInKeyOrderForMonotoneKeys() {
+        BucketQueue queue = new BucketQueue();
+        for (int span : new int[] {1, 3, 14, 255}) {
+            for (int round = 0; round < 5; round++) {
+                int capacity = 1 + random.nextInt(400);
+                queue.reset(capacity, span); // reused across rounds and spans
+                Map<Integer, Integer> expected = new HashMap<>();
+                int minimum = random.nextInt(1000);
+                queue.insertOrDecrease(0, minimum); // the first key starts the window, like a search's source
+                expected.put(0, minimum);
+                for (int op = 0; op < 3000; op++) {
+                    if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                        int min = expected.values().stream().min(Integer::compare).orElseThrow();
+                        int node = queue.pollMin();
+                        assertThat(expected.remove(node)).isEqualTo(min);
+                        minimum = min;
+                    } else {
+                        // Keys stay within span of the last minimum, as in Dijkstra with steps up to span
+                        int node = random.nextInt(capacity);
+                        int key = minimum + random.nextInt(span + 1);
+                        queue.insertOrDecrease(node, key);
+                        expected.merge(node, key, Math::min);
+                    }
+                    assertThat(queue.size()).isEqualTo(expected.size());
+                }
+                for (int node = 0; node < capacity; node++) {
+                    assertThat(queue.contains(node)).isEqualTo(expected.containsKey(node));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsKeysOutsideTheWindow() {
+        BucketQueue queue = new BucketQueue();
+        queue.reset(10, 4);
+        queue.insertOrDecrease(0, 100);
+        queue.insertOrDecrease(1, 104);
+
+        assertThatThrownBy(() -> queue.insertOrDecrease(2, 99)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> queue.insertOrDecrease(2, 100 + 64)).isInstanceOf(IllegalStateException.class);
+        assertThat(queue.pollMin()).isZero();
+        assertThat(queue.pollMin()).isOne();
+    }
+}
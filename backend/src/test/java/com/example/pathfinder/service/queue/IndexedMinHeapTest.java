@@ -0,0 +1,73 @@
+package com.example.pathfinder.service.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexedMinHeapTest {
+    private final Random random = new Random(3);
+
+    @Test
+    void pollsInKeyOrderUnderRandomInsertsAndDecreases() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        for (int round = 0; round < 20; round++) {
+            int capacity = 1 + random.nextInt(500);
+            heap.reset(capacity); // reused, so stale positions from the last round must not leak
+            Map<Integer, Long> expected = new HashMap<>();
+            for (int op = 0; op < 2000; op++) {
+                if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                    long min = expected.values().stream().min(Long::compare).orElseThrow();
+                    int node = heap.pollMin();
+                    assertThat(expected.remove(node)).isEqualTo(min);
+                } else {
+                    int node = random.nextInt(capacity);
+                    long key = random.nextInt(10_000);
+                    heap.insertOrDecrease(node, key);
+                    expected.merge(node, key, Math::min);
+                }
+                assertThat(heap.size()).isEqualTo(expected.size());
+            }
+            for (int node = 0; node < capacity; node++) {
+                assertThat(heap.contains(node)).isEqualTo(expected.containsKey(node));
+            }
+        }
+    }
+
+    @Test
+    void updateAndRemoveKeepTheHeapOrdered() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        heap.reset(300);
+        Map<Integer, Long> expected = new HashMap<>();
+        for (int op = 0; op < 5000; op++) {
+            int node = random.nextInt(300);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    long key = random.nextInt(1000);
+                    heap.update(node, key); // may raise the key too
+                    expected.put(node, key);
+                }
+                case 1 -> {
+                    heap.remove(node);
+                    expected.remove(node);
+                }
+                default -> {
+                    if (expected.isEmpty()) continue;
+                    long min = expected.values().stream().min(Long::compare).orElseThrow();
+                    assertThat(heap.minKey()).isEqualTo(min);
+                    assertThat(heap.keyOf(heap.peekMin())).isEqualTo(min);
+                }
+            }
+        }
+        long previous = Long.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            int node = heap.pollMin();
+            assertThat(expected.get(node)).isGreaterThanOrEqualTo(previous);
+            previous = expected.remove(node);
+        }
+        assertThat(expected).isEmpty();
+    }
+}